@@ -25,6 +25,18 @@ android {
         targetCompatibility = JavaVersion.VERSION_1_8
     }
 
+    testOptions {
+        unitTests {
+            // android.util.Log et consorts renvoient des valeurs par défaut dans les tests JVM
+            isReturnDefaultValues = true
+            all {
+                // Benchmarks désactivés par défaut : ./gradlew test -DrunBenchmarks=true
+                it.systemProperty("runBenchmarks", System.getProperty("runBenchmarks") ?: "false")
+                it.maxHeapSize = "2g"
+            }
+        }
+    }
+
     packagingOptions {
         resources {
             excludes += setOf(
@@ -74,6 +86,8 @@ dependencies {
     implementation(libs.compiler)
 
     testImplementation("junit:junit:4.13.2")
+    // Implémentation XmlPullParser pour les tests JVM (fournie par Android sur l'appareil)
+    testImplementation("net.sf.kxml:kxml2:2.3.0")
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
 }
@@ -63,6 +63,16 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskVH> {
         updateTasks(newTasks);
     }
 
+    /**
+     * Ajoute une page en fin de liste (pagination), sans rafraîchir les lignes déjà affichées
+     */
+    public void appendTasks(List<Task> page) {
+        if (page == null || page.isEmpty()) return;
+        int start = tasks.size();
+        tasks.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
     @NonNull
     @Override
     public TaskVH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -0,0 +1,156 @@
+package com.example.taskmanagment.adapters;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.taskmanagment.controllers.TaskController;
+import com.example.taskmanagment.database.TaskCursor;
+import com.example.taskmanagment.database.TaskPage;
+import com.example.taskmanagment.database.TaskQuery;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pagination d'une TaskQuery dans un TaskAdapter : une page à l'ouverture, puis une page
+ * quand le défilement approche de la fin de la liste.
+ * Les pages sont lues hors du thread principal, et la page suivante est préchargée
+ * dès qu'une page est affichée : elle est ajoutée sans attente au défilement.
+ */
+public class TaskPageLoader {
+    private static final String TAG = "TaskPageLoader";
+
+    public interface OnPageShown {
+        void onPageShown(int itemCount, boolean hasMore);
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    // Nombre de lignes restantes sous l'écran qui déclenche l'ajout de la page suivante
+    private static final int PREFETCH_DISTANCE = 15;
+
+    private final TaskController taskController;
+    private final TaskAdapter adapter;
+    private final int pageSize;
+    private final OnPageShown onPageShown;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // État manipulé uniquement sur le thread principal
+    private TaskQuery query;
+    private TaskCursor cursor;
+    private boolean hasMore;
+    private boolean fetching;
+    private boolean wanted;
+    private TaskPage ready;
+    private int itemCount;
+    // Change à chaque reset : les pages d'une ancienne requête sont ignorées
+    private int generation;
+
+    public TaskPageLoader(TaskController taskController, TaskAdapter adapter, int pageSize, OnPageShown onPageShown) {
+        this.taskController = taskController;
+        this.adapter = adapter;
+        this.pageSize = pageSize;
+        this.onPageShown = onPageShown;
+    }
+
+    /**
+     * Charge la page suivante quand les dernières lignes deviennent visibles
+     */
+    public void attach(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                RecyclerView.LayoutManager layoutManager = rv.getLayoutManager();
+                if (!(layoutManager instanceof LinearLayoutManager)) return;
+                int lastVisible = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+                if (lastVisible >= itemCount - PREFETCH_DISTANCE) {
+                    showNextPage();
+                }
+            }
+        });
+    }
+
+    /**
+     * Vide la liste et affiche la première page de la nouvelle requête
+     */
+    public void reset(TaskQuery query) {
+        generation++;
+        this.query = query;
+        cursor = null;
+        hasMore = true;
+        fetching = false;
+        ready = null;
+        itemCount = 0;
+        adapter.updateTasks(new ArrayList<>());
+        showNextPage();
+    }
+
+    /**
+     * À appeler dans onDestroyView
+     */
+    public void release() {
+        generation++;
+        executor.shutdownNow();
+    }
+
+    private void showNextPage() {
+        if (ready != null) {
+            show();
+        } else {
+            wanted = true;
+            fetch();
+        }
+    }
+
+    private void show() {
+        TaskPage page = ready;
+        ready = null;
+        wanted = false;
+        adapter.appendTasks(page.getTasks());
+        itemCount += page.getTasks().size();
+        if (onPageShown != null) onPageShown.onPageShown(itemCount, page.hasMore());
+        // Préchargement de la page suivante
+        fetch();
+    }
+
+    private void fetch() {
+        if (fetching || !hasMore || query == null || executor.isShutdown()) return;
+        fetching = true;
+        final int expected = generation;
+        final TaskQuery q = query;
+        final TaskCursor after = cursor;
+        executor.execute(() -> {
+            try {
+                TaskPage page = taskController.getTaskPage(q, after, pageSize);
+                mainHandler.post(() -> onFetched(expected, page));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "❌ Error loading task page: " + e.getMessage(), e);
+                mainHandler.post(() -> onFetchFailed(expected));
+            }
+        });
+    }
+
+    /**
+     * Page non lue : le prochain défilement (ou reset) relance la lecture
+     */
+    private void onFetchFailed(int expected) {
+        if (expected != generation) return;
+        fetching = false;
+    }
+
+    private void onFetched(int expected, TaskPage page) {
+        if (expected != generation) return;
+        fetching = false;
+        cursor = page.getNextCursor();
+        hasMore = page.hasMore();
+        ready = page;
+        if (wanted) show();
+    }
+}
@@ -3,7 +3,12 @@ package com.example.taskmanagment.controllers;
 import android.content.Context;
 
 
+import com.example.taskmanagment.database.DashboardSummary;
+import com.example.taskmanagment.database.RollupSeries;
+import com.example.taskmanagment.database.TaskCursor;
 import com.example.taskmanagment.database.TaskDAO;
+import com.example.taskmanagment.database.TaskPage;
+import com.example.taskmanagment.database.TaskQuery;
 import com.example.taskmanagment.models.Task;
 import com.example.taskmanagment.models.TaskPriority;
 import com.example.taskmanagment.models.TaskStatus;
@@ -66,6 +71,56 @@ public class TaskController {
         return taskDAO.getOverdueTasks();
     }
 
+    /**
+     * Obtient les tâches dont l'échéance est dans [from, to], par échéance croissante
+     */
+    public List<Task> getTasksDueBetween(long from, long to) {
+        return taskDAO.getTasksDueBetween(from, to);
+    }
+
+    /**
+     * Obtient les tâches dont le titre ou la description contient le texte (insensible à la casse)
+     */
+    public List<Task> searchTasksContaining(String query) {
+        return taskDAO.searchTasksContaining(query);
+    }
+
+    /**
+     * Obtient les {@code limit} tâches les plus pertinentes pour la recherche,
+     * tolérante aux fautes de frappe et aux accents ; le dernier mot peut être incomplet
+     */
+    public List<Task> searchTasks(String query, int limit) {
+        return taskDAO.searchTasks(query, limit);
+    }
+
+    /**
+     * Obtient au plus {@code limit} tâches dont le titre complète la saisie
+     */
+    public List<Task> completeTaskTitles(String prefix, int limit) {
+        return taskDAO.completeTaskTitles(prefix, limit);
+    }
+
+    /**
+     * Obtient les tâches satisfaisant une requête composée (critères, tri, limit, offset)
+     */
+    public List<Task> queryTasks(TaskQuery query) {
+        return taskDAO.queryTasks(query);
+    }
+
+    /**
+     * Obtient une page de tâches par échéance croissante après le curseur (null : première page)
+     */
+    public TaskPage getTaskPage(TaskQuery query, TaskCursor after, int pageSize) {
+        return taskDAO.getTaskPage(query, after, pageSize);
+    }
+
+    /**
+     * Décrit comment la requête est exécutée (index choisi, filtres, durée), pour le débogage
+     */
+    public String explainQuery(TaskQuery query) {
+        return taskDAO.explainQuery(query);
+    }
+
     /**
      * Obtient les tâches en retard d'un utilisateur
      */
@@ -172,6 +227,13 @@ public class TaskController {
         return taskDAO.getTasksSortedByPriority();
     }
 
+    /**
+     * Obtient les {@code count} tâches les plus urgentes (priorité puis échéance)
+     */
+    public List<Task> getMostUrgentTasks(int count) {
+        return taskDAO.getMostUrgentTasks(count);
+    }
+
     /**
      * Obtient les statistiques des tâches d'un utilisateur
      */
@@ -179,16 +241,49 @@ public class TaskController {
         return taskDAO.getUserTaskStatistics(userId);
     }
 
+    /**
+     * Obtient les agrégats du tableau de bord administrateur, calculés en un seul parcours
+     *
+     * @param reuse résultat du rafraîchissement précédent, rempli à nouveau (ou null)
+     */
+    public DashboardSummary getDashboardSummary(DashboardSummary reuse) {
+        return taskDAO.getDashboardSummary(reuse);
+    }
+
+    /**
+     * Obtient les tâches créées, terminées et non terminées par jour sur les derniers jours
+     * (userId null : toutes les tâches)
+     */
+    public RollupSeries getDailyRollup(String userId, int days) {
+        return taskDAO.getDailyRollup(userId, days);
+    }
+
+    /**
+     * Idem par semaine sur les dernières semaines
+     */
+    public RollupSeries getWeeklyRollup(String userId, int weeks) {
+        return taskDAO.getWeeklyRollup(userId, weeks);
+    }
+
+    /**
+     * Idem par mois sur les derniers mois
+     */
+    public RollupSeries getMonthlyRollup(String userId, int months) {
+        return taskDAO.getMonthlyRollup(userId, months);
+    }
+
+    /**
+     * Obtient les statistiques de toutes les tâches
+     */
+    public TaskDAO.TaskStatistics getGlobalTaskStatistics() {
+        return taskDAO.getGlobalTaskStatistics();
+    }
+
     /**
      * Réassigne une tâche à un autre utilisateur
      */
     public boolean reassignTask(String taskId, String newAssignedTo) {
-        Task task = getTaskById(taskId);
-        if (task != null) {
-            task.setAssignedTo(newAssignedTo);
-            return updateTask(task);
-        }
-        return false;
+        return taskDAO.reassignTask(taskId, newAssignedTo);
     }
 
     /**
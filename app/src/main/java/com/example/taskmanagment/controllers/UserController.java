@@ -38,6 +38,14 @@ public class UserController {
         return userDAO.getUserById(userId);
     }
 
+    /**
+     * Obtient au plus {@code limit} utilisateurs complétant la saisie
+     * (nom d'utilisateur, nom complet ou email)
+     */
+    public List<User> completeUsers(String prefix, int limit) {
+        return userDAO.completeUsers(prefix, limit);
+    }
+
     /**
      * Obtient un utilisateur par son nom d'utilisateur
      */
@@ -45,6 +53,13 @@ public class UserController {
         return userDAO.getUserByUsername(username);
     }
 
+    /**
+     * Obtient un utilisateur par son email
+     */
+    public User getUserByEmail(String email) {
+        return userDAO.getUserByEmail(email);
+    }
+
     /**
      * Obtient tous les employés
      */
@@ -142,13 +157,7 @@ public class UserController {
      * Met à jour le profil d'un utilisateur
      */
     public boolean updateUserProfile(String userId, String email, String fullName) {
-        User user = getUserById(userId);
-        if (user != null) {
-            user.setEmail(email);
-            user.setFullName(fullName);
-            return updateUser(user);
-        }
-        return false;
+        return userDAO.updateUserProfile(userId, email, fullName);
     }
 
     /**
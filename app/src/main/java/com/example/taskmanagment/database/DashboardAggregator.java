@@ -0,0 +1,51 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.UserType;
+
+import java.util.Collection;
+
+/**
+ * Agrégation du tableau de bord administrateur en un seul parcours des tâches :
+ * totaux par statut et par priorité et nombre de tâches par utilisateur assigné
+ * (les créations par jour viennent des compteurs journaliers, voir TaskRollups).
+ * Les utilisateurs assignés sont ensuite résolus en une seule jointure sur l'annuaire,
+ * un accès par utilisateur distinct plutôt qu'un getUserById par tâche.
+ *
+ * Appelé sous les verrous de lecture de XMLDatabaseManager : le parcours lit le cache sans le copier.
+ */
+class DashboardAggregator {
+    /**
+     * @param reuse résultat précédent à remplir à nouveau, ou null pour en créer un
+     */
+    DashboardSummary aggregate(Collection<Task> tasks, UserStore users, long now, DashboardSummary reuse) {
+        DashboardSummary summary = reuse != null ? reuse : new DashboardSummary();
+        summary.reset();
+
+        for (Task task : tasks) {
+            summary.totalTasks++;
+            if (task.getStatus() != null) {
+                summary.countByStatus[task.getStatus().ordinal()]++;
+            }
+            if (task.getPriority() != null) {
+                summary.countByPriority[task.getPriority().ordinal()]++;
+            }
+
+            String userId = task.getAssignedTo();
+            if (userId != null) {
+                int[] count = summary.tasksByAssignee.get(userId);
+                if (count == null) {
+                    count = new int[1];
+                    summary.tasksByAssignee.put(userId, count);
+                }
+                count[0]++;
+            }
+        }
+
+        for (String userId : summary.tasksByAssignee.keySet()) {
+            summary.assignees.put(userId, users.get(userId));
+        }
+        summary.employeeCount = users.countByType(UserType.EMPLOYEE);
+        return summary;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+import com.example.taskmanagment.models.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat de l'agrégation du tableau de bord administrateur (DashboardAggregator)
+ * Réutilisable d'un rafraîchissement à l'autre : l'agrégation remet les compteurs à zéro
+ * et remplit les mêmes tableaux.
+ */
+public class DashboardSummary {
+    int totalTasks;
+    int employeeCount;
+    final int[] countByStatus = new int[TaskStatus.values().length];
+    final int[] countByPriority = new int[TaskPriority.values().length];
+
+    // Utilisateur assigné -> nombre de tâches (compteur mutable, sans Integer par tâche),
+    // dans l'ordre de première apparition
+    final Map<String, int[]> tasksByAssignee = new LinkedHashMap<>();
+    // Utilisateur assigné -> utilisateur (null si inconnu), résolus en une seule jointure
+    final Map<String, User> assignees = new LinkedHashMap<>();
+
+    void reset() {
+        totalTasks = 0;
+        employeeCount = 0;
+        Arrays.fill(countByStatus, 0);
+        Arrays.fill(countByPriority, 0);
+        tasksByAssignee.clear();
+        assignees.clear();
+    }
+
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public int getCount(TaskStatus status) {
+        return countByStatus[status.ordinal()];
+    }
+
+    public int getCount(TaskPriority priority) {
+        return countByPriority[priority.ordinal()];
+    }
+
+    /**
+     * Ids des utilisateurs ayant des tâches assignées
+     */
+    public List<String> getAssigneeIds() {
+        return new ArrayList<>(tasksByAssignee.keySet());
+    }
+
+    public int getTaskCount(String assigneeId) {
+        int[] count = tasksByAssignee.get(assigneeId);
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * Utilisateur assigné, ou null s'il n'existe plus
+     */
+    public User getAssignee(String assigneeId) {
+        return assignees.get(assigneeId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index trié des tâches par date d'échéance (clé : dueDate puis séquence d'insertion)
+ * Les requêtes par intervalle coûtent O(log n + k) et retournent les tâches par échéance croissante.
+ * La skip list reste cohérente pour des lectures concurrentes pendant une mise à jour.
+ */
+class DueDateIndex {
+
+    /**
+     * Clé composite : deux tâches de même échéance restent distinctes et gardent l'ordre du cache
+     */
+    private static final class DueKey implements Comparable<DueKey> {
+        final long dueDate;
+        final long seq;
+
+        DueKey(long dueDate, long seq) {
+            this.dueDate = dueDate;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(DueKey other) {
+            int byDate = Long.compare(dueDate, other.dueDate);
+            return byDate != 0 ? byDate : Long.compare(seq, other.seq);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DueKey)) {
+                return false;
+            }
+            DueKey other = (DueKey) o;
+            return dueDate == other.dueDate && seq == other.seq;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (dueDate ^ (dueDate >>> 32)) * 31 + (int) (seq ^ (seq >>> 32));
+        }
+    }
+
+    private final ConcurrentSkipListMap<DueKey, Task> tasksByDueDate = new ConcurrentSkipListMap<>();
+    // size() de la skip list parcourt toute la liste : le nombre de tâches est tenu à part
+    private int size;
+
+    void put(long dueDate, long seq, Task task) {
+        if (tasksByDueDate.put(new DueKey(dueDate, seq), task) == null) {
+            size++;
+        }
+    }
+
+    void remove(long dueDate, long seq) {
+        if (tasksByDueDate.remove(new DueKey(dueDate, seq)) != null) {
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Estimation du nombre de tâches dont l'échéance est dans [from, to], en O(log n) :
+     * échéances supposées réparties uniformément entre la plus proche et la plus lointaine
+     */
+    int estimate(long from, long to) {
+        if (size == 0 || from > to) {
+            return 0;
+        }
+        long first = tasksByDueDate.firstKey().dueDate;
+        long last = tasksByDueDate.lastKey().dueDate;
+        from = Math.max(from, first);
+        to = Math.min(to, last);
+        if (from > to) {
+            return 0;
+        }
+        if (first == last) {
+            return size;
+        }
+        double fraction = ((double) to - from) / ((double) last - first);
+        return Math.max(1, (int) Math.ceil(fraction * size));
+    }
+
+    /**
+     * Tâches dont l'échéance est dans [from, to] (bornes incluses)
+     */
+    List<Task> between(long from, long to) {
+        if (from > to) {
+            return new ArrayList<>();
+        }
+        ConcurrentNavigableMap<DueKey, Task> range = tasksByDueDate.subMap(
+                new DueKey(from, Long.MIN_VALUE), true, new DueKey(to, Long.MAX_VALUE), true);
+        return new ArrayList<>(range.values());
+    }
+
+    /**
+     * Vues sans copie de between et before, par échéance croissante
+     */
+    Collection<Task> viewBetween(long from, long to) {
+        if (from > to) {
+            return new ArrayList<>();
+        }
+        return tasksByDueDate.subMap(
+                new DueKey(from, Long.MIN_VALUE), true, new DueKey(to, Long.MAX_VALUE), true).values();
+    }
+
+    Collection<Task> viewBefore(long time) {
+        return tasksByDueDate.headMap(new DueKey(time, Long.MIN_VALUE)).values();
+    }
+
+    /**
+     * Vue sans copie des tâches strictement après (dueDate, seq) et d'échéance au plus {@code maxDueDate}
+     */
+    Collection<Task> viewAfter(long dueDate, long seq, long maxDueDate) {
+        if (dueDate > maxDueDate) {
+            return new ArrayList<>();
+        }
+        return tasksByDueDate.subMap(
+                new DueKey(dueDate, seq), false, new DueKey(maxDueDate, Long.MAX_VALUE), true).values();
+    }
+
+    /**
+     * Tâches dont l'échéance est strictement antérieure à {@code time}
+     */
+    List<Task> before(long time) {
+        return new ArrayList<>(tasksByDueDate.headMap(new DueKey(time, Long.MIN_VALUE)).values());
+    }
+}
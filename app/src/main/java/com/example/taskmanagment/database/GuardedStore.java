@@ -0,0 +1,71 @@
+package com.example.taskmanagment.database;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Accès concurrent à un cache (TaskStore, UserStore) partagé entre le thread principal,
+ * le thread d'initialisation, le chargement des pages et le thread d'E/S :
+ * - lectures en parallèle sous le verrou de lecture (requêtes, pages, statistiques)
+ * - écritures sérialisées sous le verrou d'écriture, index compris : une lecture ne voit
+ *   jamais un index à moitié mis à jour, ni ConcurrentModificationException
+ * - liste complète lue sans verrou : version immuable publiée par le cache à chaque écriture
+ *   (RecordStore, PersistentList)
+ *
+ * Un lire-modifier-écrire (ex. changer le statut d'une tâche) doit tenir dans une seule
+ * opération write, sinon deux écrivains peuvent s'écraser.
+ */
+class GuardedStore<T, S extends RecordStore<T>> {
+
+    /**
+     * Opération sur le cache, exécutée sous le verrou
+     */
+    interface Operation<S, R> {
+        R apply(S store);
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile S store;
+
+    GuardedStore(S store) {
+        this.store = store;
+    }
+
+    <R> R read(Operation<S, R> operation) {
+        lock.readLock().lock();
+        try {
+            return operation.apply(store);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    <R> R write(Operation<S, R> operation) {
+        lock.writeLock().lock();
+        try {
+            return operation.apply(store);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remplace tout le cache (rechargement depuis le disque)
+     */
+    void replace(S replacement) {
+        lock.writeLock().lock();
+        try {
+            store = replacement;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tous les enregistrements dans l'ordre du cache, en lecture seule, en O(1) et sans verrou ;
+     * la liste ne change plus une fois retournée (isolation des lectures longues)
+     */
+    List<T> snapshot() {
+        return store.getAll();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanagment.database;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compte des tâches ouvertes en retard (échéance strictement antérieure à "maintenant")
+ * Les échéances sont réparties de part et d'autre d'un seuil, le dernier instant demandé :
+ * avant le seuil, elles sont comptées en retard. Quand le temps avance, seules les échéances
+ * franchies depuis la dernière demande changent de côté ; le compte est donc en O(1)
+ * amorti, sans parcourir les tâches ni relire l'horloge pour chacune.
+ *
+ * count() déplace le seuil alors qu'il est appelé par des lectures concurrentes
+ * (verrou de lecture de GuardedStore) : les méthodes sont donc synchronisées.
+ */
+class OverdueTracker {
+    // échéance -> nombre de tâches ouvertes ayant cette échéance
+    private final TreeMap<Long, Integer> upcoming = new TreeMap<>();
+    private final TreeMap<Long, Integer> overdue = new TreeMap<>();
+    private long threshold = Long.MIN_VALUE;
+    private int overdueCount;
+
+    synchronized void add(long dueDate) {
+        if (dueDate < threshold) {
+            increment(overdue, dueDate, 1);
+            overdueCount++;
+        } else {
+            increment(upcoming, dueDate, 1);
+        }
+    }
+
+    synchronized void remove(long dueDate) {
+        if (dueDate < threshold) {
+            increment(overdue, dueDate, -1);
+            overdueCount--;
+        } else {
+            increment(upcoming, dueDate, -1);
+        }
+    }
+
+    /**
+     * Nombre de tâches dont l'échéance est strictement antérieure à {@code now}
+     */
+    synchronized int count(long now) {
+        if (now > threshold) {
+            overdueCount += move(upcoming.headMap(now, false), overdue);
+        } else if (now < threshold) {
+            // Horloge reculée : les échéances >= now ne sont plus en retard
+            overdueCount -= move(overdue.tailMap(now, true), upcoming);
+        }
+        threshold = now;
+        return overdueCount;
+    }
+
+    private static int move(Map<Long, Integer> range, TreeMap<Long, Integer> target) {
+        int moved = 0;
+        Iterator<Map.Entry<Long, Integer>> iterator = range.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            increment(target, entry.getKey(), entry.getValue());
+            moved += entry.getValue();
+            iterator.remove();
+        }
+        return moved;
+    }
+
+    private static void increment(TreeMap<Long, Integer> counts, long dueDate, int delta) {
+        Integer current = counts.get(dueDate);
+        int updated = (current != null ? current : 0) + delta;
+        if (updated == 0) {
+            counts.remove(dueDate);
+        } else {
+            counts.put(dueDate, updated);
+        }
+    }
+}
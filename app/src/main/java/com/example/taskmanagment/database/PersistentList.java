@@ -0,0 +1,203 @@
+package com.example.taskmanagment.database;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Liste immuable des enregistrements dans l'ordre de leur séquence, partagée entre versions
+ * Chaque modification (with, without) retourne une nouvelle version en O(log n) : seuls les
+ * nœuds du chemin modifié sont recopiés, le reste de l'arbre est commun aux deux versions.
+ * Une version déjà publiée ne change donc jamais : un lecteur peut la parcourir pendant
+ * que les écritures continuent, sans verrou ni copie.
+ *
+ * Treap à copie de chemin : clé = séquence, priorité dérivée de la séquence, taille des
+ * sous-arbres pour get(index).
+ */
+final class PersistentList<T> extends AbstractList<T> {
+
+    private static final class Node<T> {
+        final long seq;
+        final T record;
+        final int priority;
+        final int size;
+        final Node<T> left;
+        final Node<T> right;
+
+        Node(long seq, T record, int priority, Node<T> left, Node<T> right) {
+            this.seq = seq;
+            this.record = record;
+            this.priority = priority;
+            this.size = 1 + size(left) + size(right);
+            this.left = left;
+            this.right = right;
+        }
+
+        Node<T> withChildren(Node<T> newLeft, Node<T> newRight) {
+            return new Node<>(seq, record, priority, newLeft, newRight);
+        }
+    }
+
+    private static final PersistentList<Object> EMPTY = new PersistentList<>(null);
+
+    private final Node<T> root;
+
+    private PersistentList(Node<T> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentList<T> empty() {
+        return (PersistentList<T>) EMPTY;
+    }
+
+    /**
+     * Version où l'enregistrement occupe la séquence {@code seq} (ajouté, ou remplacé à sa place)
+     */
+    PersistentList<T> with(long seq, T record) {
+        return new PersistentList<>(insert(root, seq, record, priorityOf(seq)));
+    }
+
+    /**
+     * Version sans l'enregistrement de séquence {@code seq}
+     */
+    PersistentList<T> without(long seq) {
+        Node<T> updated = delete(root, seq);
+        return updated == root ? this : new PersistentList<>(updated);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.record;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        for (Node<T> node = root; node != null; node = node.left) {
+            stack.push(node);
+        }
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<T> node = stack.pop();
+                for (Node<T> child = node.right; child != null; child = child.left) {
+                    stack.push(child);
+                }
+                return node.record;
+            }
+        };
+    }
+
+    // ====== TREAP PERSISTANT ======
+
+    private static int size(Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+
+    /**
+     * Priorité pseudo-aléatoire fixée par la séquence : la forme de l'arbre ne dépend que
+     * des séquences présentes, pas de l'ordre des modifications
+     */
+    private static int priorityOf(long seq) {
+        long x = seq * 0x9E3779B97F4A7C15L;
+        x ^= x >>> 32;
+        x *= 0xD6E8FEB86659FD93L;
+        return (int) (x ^ (x >>> 32));
+    }
+
+    private static <T> Node<T> insert(Node<T> node, long seq, T record, int priority) {
+        if (node == null) {
+            return new Node<>(seq, record, priority, null, null);
+        }
+        if (seq == node.seq) {
+            return new Node<>(seq, record, priority, node.left, node.right);
+        }
+        if (priority > node.priority) {
+            // Une séquence déjà présente aurait la même priorité : elle ne peut pas être sous ce nœud
+            return new Node<>(seq, record, priority, splitBelow(node, seq), splitAbove(node, seq));
+        }
+        if (seq < node.seq) {
+            return node.withChildren(insert(node.left, seq, record, priority), node.right);
+        }
+        return node.withChildren(node.left, insert(node.right, seq, record, priority));
+    }
+
+    /**
+     * Nœuds de séquence inférieure à {@code seq}
+     */
+    private static <T> Node<T> splitBelow(Node<T> node, long seq) {
+        if (node == null) {
+            return null;
+        }
+        if (node.seq < seq) {
+            return node.withChildren(node.left, splitBelow(node.right, seq));
+        }
+        return splitBelow(node.left, seq);
+    }
+
+    /**
+     * Nœuds de séquence supérieure à {@code seq}
+     */
+    private static <T> Node<T> splitAbove(Node<T> node, long seq) {
+        if (node == null) {
+            return null;
+        }
+        if (node.seq > seq) {
+            return node.withChildren(splitAbove(node.left, seq), node.right);
+        }
+        return splitAbove(node.right, seq);
+    }
+
+    private static <T> Node<T> delete(Node<T> node, long seq) {
+        if (node == null) {
+            return null;
+        }
+        if (seq == node.seq) {
+            return merge(node.left, node.right);
+        }
+        if (seq < node.seq) {
+            Node<T> left = delete(node.left, seq);
+            return left == node.left ? node : node.withChildren(left, node.right);
+        }
+        Node<T> right = delete(node.right, seq);
+        return right == node.right ? node : node.withChildren(node.left, right);
+    }
+
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+}
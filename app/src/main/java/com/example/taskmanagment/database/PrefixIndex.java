@@ -0,0 +1,132 @@
+package com.example.taskmanagment.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index de complétion : mots normalisés (TextNormalizer) triés -> enregistrements
+ * Les mots commençant par un préfixe forment une plage contiguë de la TreeMap :
+ * une complétion ne parcourt que cette plage et s'arrête au N-ième résultat.
+ * Une requête de plusieurs mots retient les enregistrements dont chaque mot de la requête
+ * est le début d'un de leurs mots ("jean du" trouve "Jean Dupont").
+ * Résultats dans l'ordre alphabétique du mot trouvé, puis dans l'ordre du cache.
+ *
+ * Non thread-safe : XMLDatabaseManager synchronise les accès.
+ */
+class PrefixIndex<T> {
+
+    /**
+     * Un enregistrement indexé et ses mots
+     */
+    private static final class Entry<T> {
+        final T record;
+        final List<String> words;
+
+        Entry(T record, List<String> words) {
+            this.record = record;
+            this.words = words;
+        }
+
+        boolean hasWordStartingWith(String prefix) {
+            for (String word : words) {
+                if (word.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final TreeMap<String, TreeMap<Long, Entry<T>>> entriesByWord = new TreeMap<>();
+    private final Map<Long, Entry<T>> entriesBySeq = new HashMap<>();
+
+    /**
+     * Indexe les mots des champs de l'enregistrement (remplace une indexation précédente)
+     */
+    void put(long seq, T record, String... fields) {
+        remove(seq);
+
+        List<String> words = new ArrayList<>();
+        for (String field : fields) {
+            for (String word : TextNormalizer.words(field)) {
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+            }
+        }
+
+        Entry<T> entry = new Entry<>(record, words);
+        entriesBySeq.put(seq, entry);
+        for (String word : words) {
+            TreeMap<Long, Entry<T>> group = entriesByWord.get(word);
+            if (group == null) {
+                group = new TreeMap<>();
+                entriesByWord.put(word, group);
+            }
+            group.put(seq, entry);
+        }
+    }
+
+    void remove(long seq) {
+        Entry<T> entry = entriesBySeq.remove(seq);
+        if (entry == null) {
+            return;
+        }
+        for (String word : entry.words) {
+            TreeMap<Long, Entry<T>> group = entriesByWord.get(word);
+            group.remove(seq);
+            if (group.isEmpty()) {
+                entriesByWord.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Au plus {@code limit} enregistrements dont chaque mot de la requête commence un de leurs mots
+     */
+    List<T> complete(String query, int limit) {
+        List<String> prefixes = TextNormalizer.words(query);
+        List<T> results = new ArrayList<>();
+        if (prefixes.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        // Le mot le plus long (le plus sélectif en général) délimite la plage parcourue, les autres filtrent
+        String driver = prefixes.get(0);
+        for (String prefix : prefixes) {
+            if (prefix.length() >= driver.length()) {
+                driver = prefix;
+            }
+        }
+
+        Map<Long, T> found = new LinkedHashMap<>();
+        for (TreeMap<Long, Entry<T>> group : entriesByWord.subMap(driver, driver + Character.MAX_VALUE).values()) {
+            for (Map.Entry<Long, Entry<T>> candidate : group.entrySet()) {
+                if (found.containsKey(candidate.getKey()) || !matchesAll(candidate.getValue(), prefixes)) {
+                    continue;
+                }
+                found.put(candidate.getKey(), candidate.getValue().record);
+                if (found.size() == limit) {
+                    results.addAll(found.values());
+                    return results;
+                }
+            }
+        }
+
+        results.addAll(found.values());
+        return results;
+    }
+
+    private static <T> boolean matchesAll(Entry<T> entry, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (!entry.hasWordStartingWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
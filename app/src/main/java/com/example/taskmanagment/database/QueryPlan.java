@@ -0,0 +1,77 @@
+package com.example.taskmanagment.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plan d'exécution d'une TaskQuery choisi par TaskStore.plan : l'index qui fournit
+ * les tâches candidates (le moins de candidats estimés), les autres critères servant de filtre
+ */
+class QueryPlan {
+
+    enum Access {
+        ASSIGNEE("assignedTo"),
+        CREATOR("createdBy"),
+        STATUS("status"),
+        PRIORITY("priority"),
+        DUE_DATE("dueDate"),
+        OVERDUE("overdue"),
+        TEXT("text"),
+        SORTED_VIEW("vue triée"),
+        SCAN("parcours complet");
+
+        final String label;
+
+        Access(String label) {
+            this.label = label;
+        }
+    }
+
+    final Access access;
+    // Nombre de candidats estimé pour chaque critère de la requête, puis pour le parcours complet
+    final Map<Access, Integer> estimates;
+    // Les candidats arrivent déjà dans l'ordre du résultat : pas de tri, arrêt dès offset + limit
+    final boolean presorted;
+
+    QueryPlan(Access access, Map<Access, Integer> estimates, boolean presorted) {
+        this.access = access;
+        this.estimates = estimates;
+        this.presorted = presorted;
+    }
+
+    int estimate() {
+        return estimates.get(access);
+    }
+
+    /**
+     * Description lisible du plan, pour comprendre pourquoi un écran est lent
+     */
+    String explain(TaskQuery query) {
+        List<String> filters = new ArrayList<>();
+        StringBuilder estimated = new StringBuilder();
+        for (Map.Entry<Access, Integer> entry : estimates.entrySet()) {
+            if (entry.getKey() != access && entry.getKey() != Access.SCAN
+                    && entry.getKey() != Access.SORTED_VIEW) {
+                filters.add(entry.getKey().label);
+            }
+            if (estimated.length() > 0) {
+                estimated.append(", ");
+            }
+            estimated.append(entry.getKey().label).append('=').append(entry.getValue());
+        }
+
+        StringBuilder plan = new StringBuilder(query.toString());
+        plan.append("\n  accès : ").append(access == Access.SCAN || access == Access.SORTED_VIEW
+                        ? access.label : "index " + access.label)
+                .append(" (").append(estimate()).append(" candidats estimés)");
+        plan.append("\n  filtres : ").append(filters.isEmpty() ? "aucun" : filters);
+        if (presorted) {
+            plan.append("\n  ordre : celui de l'index, arrêt après offset + limit");
+        } else {
+            plan.append("\n  tri : ").append(query.orders.isEmpty() ? "ordre du cache" : query.orders.toString());
+        }
+        plan.append("\n  estimations : ").append(estimated);
+        return plan.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.taskmanagment.database;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache d'enregistrements indexé par clé primaire (id)
+ * Chaque enregistrement reçoit une séquence à son ajout : getAll() retourne les enregistrements
+ * dans l'ordre des séquences, le même que l'ancienne liste, et get / update / remove sont en O(1)
+ * pour l'accès par id, O(log n) pour la liste.
+ * Une mise à jour conserve la séquence de l'enregistrement, comme List.set(i, ...).
+ *
+ * La liste est une PersistentList publiée (volatile) à chaque écriture : getAll() est en O(1),
+ * sans copie, et peut être lu sans verrou.
+ *
+ * Écritures non thread-safe : XMLDatabaseManager les sérialise (GuardedStore).
+ */
+abstract class RecordStore<T> {
+
+    /**
+     * Enregistrement courant et sa séquence
+     */
+    private static final class Entry<T> {
+        final long seq;
+        final T record;
+
+        Entry(long seq, T record) {
+            this.seq = seq;
+            this.record = record;
+        }
+    }
+
+    private final Map<String, Entry<T>> entriesById = new HashMap<>();
+    private volatile PersistentList<T> records = PersistentList.empty();
+    private long nextSeq;
+
+    /**
+     * Clé primaire d'un enregistrement
+     */
+    abstract String idOf(T record);
+
+    /**
+     * Charge les enregistrements initiaux (appelé par le constructeur des sous-classes,
+     * une fois leurs index initialisés)
+     */
+    void addAll(Collection<T> records) {
+        for (T record : records) {
+            add(record);
+        }
+    }
+
+    /**
+     * Version courante de la liste, immuable : les écritures suivantes publient une nouvelle version
+     */
+    List<T> getAll() {
+        return records;
+    }
+
+    /**
+     * Enregistrements dans l'ordre, sans copie (version courante, immuable)
+     */
+    Collection<T> values() {
+        return records;
+    }
+
+    T get(String id) {
+        Entry<T> entry = id != null ? entriesById.get(id) : null;
+        return entry != null ? entry.record : null;
+    }
+
+    /**
+     * Séquence de l'enregistrement (position dans l'ordre du cache), ou -1 si l'id est inconnu
+     */
+    long seqOf(String id) {
+        Entry<T> entry = id != null ? entriesById.get(id) : null;
+        return entry != null ? entry.seq : -1;
+    }
+
+    int size() {
+        return entriesById.size();
+    }
+
+    /**
+     * Ajoute un enregistrement en fin d'ordre (remplace à sa position s'il existe déjà)
+     */
+    void add(T record) {
+        String id = idOf(record);
+        Entry<T> previous = entriesById.get(id);
+        put(id, previous != null ? previous.seq : nextSeq++, record);
+    }
+
+    /**
+     * Remplace un enregistrement existant à sa position
+     *
+     * @return false si l'id est inconnu
+     */
+    boolean update(T record) {
+        String id = idOf(record);
+        Entry<T> previous = entriesById.get(id);
+        if (previous == null) {
+            return false;
+        }
+        put(id, previous.seq, record);
+        return true;
+    }
+
+    /**
+     * @return l'enregistrement supprimé, ou null si l'id est inconnu
+     */
+    T remove(String id) {
+        Entry<T> removed = id != null ? entriesById.remove(id) : null;
+        if (removed == null) {
+            return null;
+        }
+        records = records.without(removed.seq);
+        return removed.record;
+    }
+
+    private void put(String id, long seq, T record) {
+        entriesById.put(id, new Entry<>(seq, record));
+        records = records.with(seq, record);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.taskmanagment.database;
+
+/**
+ * Série de compteurs de tâches par intervalle de temps (jours, semaines ou mois)
+ * lue dans les compteurs journaliers (TaskRollups), pour les graphiques des tableaux de bord
+ */
+public class RollupSeries {
+    private final long[] bounds;
+    final int[] created;
+    final int[] completed;
+    final int[] pending;
+
+    RollupSeries(long[] bounds) {
+        this.bounds = bounds;
+        int size = Math.max(0, bounds.length - 1);
+        this.created = new int[size];
+        this.completed = new int[size];
+        this.pending = new int[size];
+    }
+
+    public int size() {
+        return created.length;
+    }
+
+    /**
+     * Début de l'intervalle i (minuit local, en millisecondes)
+     */
+    public long getStart(int i) {
+        return bounds[i];
+    }
+
+    /**
+     * Tâches créées pendant l'intervalle i
+     */
+    public int getCreated(int i) {
+        return created[i];
+    }
+
+    /**
+     * Tâches créées pendant l'intervalle i et terminées depuis
+     */
+    public int getCompleted(int i) {
+        return completed[i];
+    }
+
+    /**
+     * Tâches créées pendant l'intervalle i et pas encore terminées
+     */
+    public int getPending(int i) {
+        return pending[i];
+    }
+}
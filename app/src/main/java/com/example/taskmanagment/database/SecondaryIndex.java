@@ -0,0 +1,58 @@
+package com.example.taskmanagment.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index secondaire : valeur d'un champ -> enregistrements ayant cette valeur
+ * Chaque groupe est trié par numéro de séquence (ordre d'insertion dans le cache),
+ * les résultats sont donc dans le même ordre que getAll().
+ * Le nombre d'enregistrements d'une valeur est obtenu sans construire de liste.
+ *
+ * Non thread-safe : XMLDatabaseManager synchronise les accès.
+ */
+class SecondaryIndex<K, T> {
+    private final Map<K, TreeMap<Long, T>> groups = new HashMap<>();
+
+    void put(K key, long seq, T record) {
+        TreeMap<Long, T> group = groups.get(key);
+        if (group == null) {
+            group = new TreeMap<>();
+            groups.put(key, group);
+        }
+        group.put(seq, record);
+    }
+
+    void remove(K key, long seq) {
+        TreeMap<Long, T> group = groups.get(key);
+        if (group != null) {
+            group.remove(seq);
+            if (group.isEmpty()) {
+                groups.remove(key);
+            }
+        }
+    }
+
+    List<T> get(K key) {
+        TreeMap<Long, T> group = groups.get(key);
+        return group != null ? new ArrayList<>(group.values()) : new ArrayList<T>();
+    }
+
+    /**
+     * Vue en lecture seule du groupe, sans copie (valide jusqu'à la prochaine modification)
+     */
+    Collection<T> view(K key) {
+        TreeMap<Long, T> group = groups.get(key);
+        return group != null ? Collections.unmodifiableCollection(group.values()) : Collections.<T>emptyList();
+    }
+
+    int count(K key) {
+        TreeMap<Long, T> group = groups.get(key);
+        return group != null ? group.size() : 0;
+    }
+}
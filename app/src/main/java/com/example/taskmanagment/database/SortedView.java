@@ -0,0 +1,207 @@
+package com.example.taskmanagment.database;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Vue triée des enregistrements, tenue à jour à chaque ajout et suppression en O(log n)
+ * Clé : (k1, k2, séquence) croissants ; un ordre décroissant s'obtient avec ~valeur.
+ * Chaque nœud connaît la taille de son sous-arbre (treap) : lire la page [offset, offset + limit)
+ * coûte O(log n + limit), sans trier ni parcourir le début de la vue.
+ *
+ * Non thread-safe : XMLDatabaseManager synchronise les accès.
+ */
+class SortedView<T> extends AbstractCollection<T> {
+
+    private static final class Node<T> {
+        final long k1;
+        final long k2;
+        final long seq;
+        final T record;
+        final int priority;
+        int size = 1;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long k1, long k2, long seq, T record, int priority) {
+            this.k1 = k1;
+            this.k2 = k2;
+            this.seq = seq;
+            this.record = record;
+            this.priority = priority;
+        }
+
+        int compareTo(long otherK1, long otherK2, long otherSeq) {
+            if (k1 != otherK1) return k1 < otherK1 ? -1 : 1;
+            if (k2 != otherK2) return k2 < otherK2 ? -1 : 1;
+            return Long.compare(seq, otherSeq);
+        }
+    }
+
+    private Node<T> root;
+    // Priorités pseudo-aléatoires du treap (xorshift, déterministe)
+    private int nextPriority = 0x2545F491;
+
+    void put(long k1, long k2, long seq, T record) {
+        root = insert(root, new Node<>(k1, k2, seq, record, randomPriority()));
+    }
+
+    void remove(long k1, long k2, long seq) {
+        root = delete(root, k1, k2, seq);
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Enregistrements de rang [offset, offset + limit) dans l'ordre de la vue
+     */
+    List<T> range(int offset, int limit) {
+        List<T> out = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        collect(root, offset, limit, out);
+        return out;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrder<>(root);
+    }
+
+    // ====== TREAP ======
+
+    private int randomPriority() {
+        int x = nextPriority;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        nextPriority = x;
+        return x;
+    }
+
+    private static int size(Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static <T> Node<T> update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static <T> Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            // Le nouveau nœud remonte : le sous-arbre est coupé autour de sa clé
+            split(node, added);
+            return update(added);
+        }
+        if (added.compareTo(node.k1, node.k2, node.seq) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return update(node);
+    }
+
+    /**
+     * Répartit {@code node} entre pivot.left (clés inférieures) et pivot.right (clés supérieures)
+     */
+    private static <T> void split(Node<T> node, Node<T> pivot) {
+        if (node == null) {
+            pivot.left = null;
+            pivot.right = null;
+            return;
+        }
+        if (node.compareTo(pivot.k1, pivot.k2, pivot.seq) < 0) {
+            split(node.right, pivot);
+            node.right = pivot.left;
+            pivot.left = update(node);
+        } else {
+            split(node.left, pivot);
+            node.left = pivot.right;
+            pivot.right = update(node);
+        }
+    }
+
+    private static <T> Node<T> delete(Node<T> node, long k1, long k2, long seq) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = node.compareTo(k1, k2, seq);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp > 0) {
+            node.left = delete(node.left, k1, k2, seq);
+        } else {
+            node.right = delete(node.right, k1, k2, seq);
+        }
+        return update(node);
+    }
+
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static <T> void collect(Node<T> node, int offset, int limit, List<T> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, out);
+        }
+        if (out.size() < limit && offset <= leftSize) {
+            out.add(node.record);
+        }
+        if (out.size() < limit) {
+            collect(node.right, Math.max(0, offset - leftSize - 1), limit, out);
+        }
+    }
+
+    /**
+     * Parcours infixe avec une pile explicite (vue non modifiée pendant le parcours)
+     */
+    private static final class InOrder<T> implements Iterator<T> {
+        private final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+
+        InOrder(Node<T> root) {
+            pushLeft(root);
+        }
+
+        private void pushLeft(Node<T> node) {
+            for (; node != null; node = node.left) {
+                stack.push(node);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<T> node = stack.pop();
+            pushLeft(node.right);
+            return node.record;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.taskmanagment.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Durées des phases du démarrage (chargement et validation des XML, rejeu du journal,
+ * index, préchauffage, écran de démarrage), enregistrées depuis plusieurs threads
+ * Un rechargement remplace les durées des phases qu'il refait.
+ */
+public class StartupTimings {
+    private final Map<String, Long> millisByPhase = new LinkedHashMap<>();
+
+    public synchronized void record(String phase, long millis) {
+        millisByPhase.put(phase, millis);
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis {@code startNanos} (System.nanoTime)
+     */
+    public void recordSince(String phase, long startNanos) {
+        record(phase, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * @return la durée de la phase en millisecondes, ou -1 si elle n'a pas été enregistrée
+     */
+    public synchronized long get(String phase) {
+        Long millis = millisByPhase.get(phase);
+        return millis != null ? millis : -1;
+    }
+
+    public synchronized Map<String, Long> asMap() {
+        return new LinkedHashMap<>(millisByPhase);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Long> entry : millisByPhase.entrySet()) {
+            if (out.length() > 0) {
+                out.append(", ");
+            }
+            out.append(entry.getKey()).append('=').append(entry.getValue()).append(" ms");
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.TaskStatus;
+
+/**
+ * Compteurs de tâches par statut, tenus à jour à chaque ajout, modification et suppression,
+ * et compte des tâches en retard (OverdueTracker)
+ * Les statistiques d'un utilisateur ou de l'ensemble sont lues en O(1).
+ *
+ * Non thread-safe : XMLDatabaseManager synchronise les accès.
+ */
+class TaskCounters {
+    private final int[] byStatus = new int[TaskStatus.values().length];
+    private final OverdueTracker overdue = new OverdueTracker();
+    private int total;
+
+    void add(TaskStatus status, long dueDate, boolean open) {
+        update(status, dueDate, open, 1);
+    }
+
+    void remove(TaskStatus status, long dueDate, boolean open) {
+        update(status, dueDate, open, -1);
+    }
+
+    private void update(TaskStatus status, long dueDate, boolean open, int delta) {
+        total += delta;
+        if (status != null) {
+            byStatus[status.ordinal()] += delta;
+        }
+        if (open) {
+            if (delta > 0) {
+                overdue.add(dueDate);
+            } else {
+                overdue.remove(dueDate);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return total == 0;
+    }
+
+    int count(TaskStatus status) {
+        return byStatus[status.ordinal()];
+    }
+
+    /**
+     * Statistiques à l'instant {@code now} (Task.isOverdue évalué à cet instant)
+     */
+    TaskDAO.TaskStatistics toStatistics(long now) {
+        return new TaskDAO.TaskStatistics(total,
+                count(TaskStatus.PENDING),
+                count(TaskStatus.IN_PROGRESS),
+                count(TaskStatus.COMPLETED),
+                count(TaskStatus.CANCELLED),
+                overdue.count(now));
+    }
+}
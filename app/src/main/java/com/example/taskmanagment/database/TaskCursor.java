@@ -0,0 +1,33 @@
+package com.example.taskmanagment.database;
+
+/**
+ * Position dans une pagination par échéance : la page suivante commence strictement
+ * après (dueDate, tâche). Reste valide si la tâche est modifiée ou supprimée entre-temps.
+ */
+public class TaskCursor {
+    private final long dueDate;
+    private final String taskId;
+    // Séquence d'insertion dans le cache : départage les tâches de même échéance
+    final long seq;
+
+    TaskCursor(long dueDate, String taskId, long seq) {
+        this.dueDate = dueDate;
+        this.taskId = taskId;
+        this.seq = seq;
+    }
+
+    public long getDueDate() {
+        return dueDate;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Ce curseur précède-t-il strictement la position (dueDate, seq) ?
+     */
+    boolean isBefore(long otherDueDate, long otherSeq) {
+        return dueDate < otherDueDate || (dueDate == otherDueDate && seq < otherSeq);
+    }
+}
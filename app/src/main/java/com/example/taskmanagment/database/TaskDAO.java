@@ -6,9 +6,7 @@ import com.example.taskmanagment.models.Task;
 import com.example.taskmanagment.models.TaskPriority;
 import com.example.taskmanagment.models.TaskStatus;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Calendar;
 import java.util.List;
 
 /**
@@ -22,6 +20,10 @@ public class TaskDAO {
         this.dbManager = XMLDatabaseManager.getInstance(context);
     }
 
+    TaskDAO(XMLDatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
     /**
      * Récupère toutes les tâches
      */
@@ -40,96 +42,92 @@ public class TaskDAO {
      * Récupère les tâches assignées à un utilisateur
      */
     public List<Task> getTasksByUser(String userId) {
-        List<Task> allTasks = dbManager.getAllTasks();
-        List<Task> userTasks = new ArrayList<>();
-
-        for (Task task : allTasks) {
-            if (task.getAssignedTo().equals(userId)) {
-                userTasks.add(task);
-            }
-        }
-
-        return userTasks;
+        return dbManager.getTasksByAssignee(userId);
     }
 
     /**
      * Récupère les tâches créées par un utilisateur
      */
     public List<Task> getTasksCreatedBy(String userId) {
-        List<Task> allTasks = dbManager.getAllTasks();
-        List<Task> createdTasks = new ArrayList<>();
-
-        for (Task task : allTasks) {
-            if (task.getCreatedBy().equals(userId)) {
-                createdTasks.add(task);
-            }
-        }
-
-        return createdTasks;
+        return dbManager.getTasksByCreator(userId);
     }
 
     /**
      * Récupère les tâches par statut
      */
     public List<Task> getTasksByStatus(TaskStatus status) {
-        List<Task> allTasks = dbManager.getAllTasks();
-        List<Task> filteredTasks = new ArrayList<>();
-
-        for (Task task : allTasks) {
-            if (task.getStatus() == status) {
-                filteredTasks.add(task);
-            }
-        }
-
-        return filteredTasks;
+        return dbManager.getTasksByStatus(status);
     }
 
     /**
      * Récupère les tâches par priorité
      */
     public List<Task> getTasksByPriority(TaskPriority priority) {
-        List<Task> allTasks = dbManager.getAllTasks();
-        List<Task> filteredTasks = new ArrayList<>();
-
-        for (Task task : allTasks) {
-            if (task.getPriority() == priority) {
-                filteredTasks.add(task);
-            }
-        }
-
-        return filteredTasks;
+        return dbManager.getTasksByPriority(priority);
     }
 
     /**
      * Récupère les tâches en retard
      */
     public List<Task> getOverdueTasks() {
-        List<Task> allTasks = dbManager.getAllTasks();
-        List<Task> overdueTasks = new ArrayList<>();
+        return dbManager.getOverdueTasks(System.currentTimeMillis());
+    }
 
-        for (Task task : allTasks) {
-            if (task.isOverdue()) {
-                overdueTasks.add(task);
-            }
-        }
+    /**
+     * Récupère les tâches dont l'échéance est dans [from, to], par échéance croissante
+     */
+    public List<Task> getTasksDueBetween(long from, long to) {
+        return dbManager.getTasksDueBetween(from, to);
+    }
 
-        return overdueTasks;
+    /**
+     * Récupère les tâches dont le titre ou la description contient le texte (insensible à la casse)
+     */
+    public List<Task> searchTasksContaining(String query) {
+        return dbManager.searchTasksContaining(query);
     }
 
     /**
-     * Récupère les tâches en retard d'un utilisateur
+     * Recherche par pertinence (BM25), tolérante aux fautes de frappe et aux accents
      */
-    public List<Task> getOverdueTasksByUser(String userId) {
-        List<Task> userTasks = getTasksByUser(userId);
-        List<Task> overdueTasks = new ArrayList<>();
+    public List<Task> searchTasks(String query, int limit) {
+        return dbManager.searchTasks(query, limit);
+    }
 
-        for (Task task : userTasks) {
-            if (task.isOverdue()) {
-                overdueTasks.add(task);
-            }
-        }
+    /**
+     * Complétion sur le titre : tâches dont un mot du titre commence par chaque mot saisi
+     */
+    public List<Task> completeTaskTitles(String prefix, int limit) {
+        return dbManager.completeTaskTitles(prefix, limit);
+    }
+
+    /**
+     * Exécute une requête composée en partant de l'index le plus sélectif
+     */
+    public List<Task> queryTasks(TaskQuery query) {
+        return dbManager.queryTasks(query);
+    }
+
+    /**
+     * Page de {@code pageSize} tâches de la requête par échéance croissante, après le curseur
+     * (null : première page) ; seule la page est construite, pas toute la liste
+     */
+    public TaskPage getTaskPage(TaskQuery query, TaskCursor after, int pageSize) {
+        return dbManager.getTaskPage(query, after, pageSize);
+    }
+
+    /**
+     * Plan d'exécution de la requête (index choisi, filtres, tri, estimations, durée réelle)
+     */
+    public String explainQuery(TaskQuery query) {
+        return dbManager.explainTaskQuery(query);
+    }
 
-        return overdueTasks;
+    /**
+     * Récupère les tâches en retard d'un utilisateur
+     */
+    public List<Task> getOverdueTasksByUser(String userId) {
+        return queryTasks(new TaskQuery().assignedTo(userId).overdue(System.currentTimeMillis()));
     }
 
     /**
@@ -150,24 +148,30 @@ public class TaskDAO {
      * Met à jour le statut d'une tâche
      */
     public boolean updateTaskStatus(String taskId, TaskStatus newStatus) {
-        Task task = getTaskById(taskId);
-        if (task != null) {
+        return dbManager.modifyTask(taskId, task -> {
             task.setStatus(newStatus);
-            return updateTask(task);
-        }
-        return false;
+            return true;
+        });
     }
 
     /**
      * Met à jour la priorité d'une tâche
      */
     public boolean updateTaskPriority(String taskId, TaskPriority newPriority) {
-        Task task = getTaskById(taskId);
-        if (task != null) {
+        return dbManager.modifyTask(taskId, task -> {
             task.setPriority(newPriority);
-            return updateTask(task);
-        }
-        return false;
+            return true;
+        });
+    }
+
+    /**
+     * Réassigne une tâche à un autre utilisateur
+     */
+    public boolean reassignTask(String taskId, String newAssignedTo) {
+        return dbManager.modifyTask(taskId, task -> {
+            task.setAssignedTo(newAssignedTo);
+            return true;
+        });
     }
 
     /**
@@ -181,99 +185,144 @@ public class TaskDAO {
      * Trie les tâches par date de création (plus récentes en premier)
      */
     public List<Task> getTasksSortedByDate() {
-        List<Task> tasks = new ArrayList<>(getAllTasks());
-        Collections.sort(tasks, new Comparator<Task>() {
-            @Override
-            public int compare(Task t1, Task t2) {
-                return Long.compare(t2.getCreatedDate(), t1.getCreatedDate());
-            }
-        });
-        return tasks;
+        return getTasksSortedByDate(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Page [offset, offset + limit) des tâches par date de création, lue dans la vue triée
+     */
+    public List<Task> getTasksSortedByDate(int offset, int limit) {
+        return queryTasks(new TaskQuery().orderByDescending(TaskQuery.SortKey.CREATED_DATE)
+                .offset(offset).limit(limit));
     }
 
     /**
      * Trie les tâches par date d'échéance
      */
     public List<Task> getTasksSortedByDueDate() {
-        List<Task> tasks = new ArrayList<>(getAllTasks());
-        Collections.sort(tasks, new Comparator<Task>() {
-            @Override
-            public int compare(Task t1, Task t2) {
-                return Long.compare(t1.getDueDate(), t2.getDueDate());
-            }
-        });
-        return tasks;
+        return getTasksSortedByDueDate(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Page [offset, offset + limit) des tâches par date d'échéance, lue dans la vue triée
+     */
+    public List<Task> getTasksSortedByDueDate(int offset, int limit) {
+        return queryTasks(new TaskQuery().orderBy(TaskQuery.SortKey.DUE_DATE).offset(offset).limit(limit));
     }
 
     /**
-     * Trie les tâches par priorité
+     * Trie les tâches par priorité (la plus haute en premier), puis par échéance
      */
     public List<Task> getTasksSortedByPriority() {
-        List<Task> tasks = new ArrayList<>(getAllTasks());
-        Collections.sort(tasks, new Comparator<Task>() {
-            @Override
-            public int compare(Task t1, Task t2) {
-                return Integer.compare(t2.getPriority().ordinal(), t1.getPriority().ordinal());
-            }
-        });
-        return tasks;
+        return getTasksSortedByPriority(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Page [offset, offset + limit) des tâches par priorité puis échéance, lue dans la vue triée
+     */
+    public List<Task> getTasksSortedByPriority(int offset, int limit) {
+        return queryTasks(new TaskQuery().orderByDescending(TaskQuery.SortKey.PRIORITY)
+                .orderBy(TaskQuery.SortKey.DUE_DATE).offset(offset).limit(limit));
+    }
+
+    /**
+     * Les {@code count} tâches les plus urgentes (priorité puis échéance), sans trier toute la table
+     */
+    public List<Task> getMostUrgentTasks(int count) {
+        return getTasksSortedByPriority(0, count);
     }
 
     /**
      * Compte le nombre total de tâches
      */
     public int getTotalTaskCount() {
-        return getAllTasks().size();
+        return dbManager.getTaskCount();
     }
 
     /**
      * Compte les tâches par statut
      */
     public int getTaskCountByStatus(TaskStatus status) {
-        return getTasksByStatus(status).size();
+        return dbManager.getTaskCountByStatus(status);
     }
 
     /**
      * Compte les tâches d'un utilisateur
      */
     public int getTaskCountByUser(String userId) {
-        return getTasksByUser(userId).size();
+        return dbManager.getTaskCountByAssignee(userId);
     }
 
     /**
      * Obtient les statistiques des tâches d'un utilisateur
      */
     public TaskStatistics getUserTaskStatistics(String userId) {
-        List<Task> userTasks = getTasksByUser(userId);
-
-        int pending = 0;
-        int inProgress = 0;
-        int completed = 0;
-        int cancelled = 0;
-        int overdue = 0;
-
-        for (Task task : userTasks) {
-            switch (task.getStatus()) {
-                case PENDING:
-                    pending++;
-                    break;
-                case IN_PROGRESS:
-                    inProgress++;
-                    break;
-                case COMPLETED:
-                    completed++;
-                    break;
-                case CANCELLED:
-                    cancelled++;
-                    break;
-            }
-
-            if (task.isOverdue()) {
-                overdue++;
-            }
+        return dbManager.getTaskStatistics(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Agrège le tableau de bord administrateur (totaux, semaines, priorités, employés) en un parcours
+     *
+     * @param reuse résultat du rafraîchissement précédent, rempli à nouveau (ou null)
+     */
+    public DashboardSummary getDashboardSummary(DashboardSummary reuse) {
+        return dbManager.getDashboardSummary(System.currentTimeMillis(), reuse);
+    }
+
+    /**
+     * Tâches créées, terminées et non terminées par jour, sur les {@code days} derniers jours
+     * (aujourd'hui compris)
+     *
+     * @param userId utilisateur assigné, ou null pour toutes les tâches
+     */
+    public RollupSeries getDailyRollup(String userId, int days) {
+        return dbManager.getTaskRollup(userId, bounds(Calendar.DAY_OF_MONTH, days));
+    }
+
+    /**
+     * Idem par semaine calendaire, sur les {@code weeks} dernières semaines (semaine en cours comprise)
+     */
+    public RollupSeries getWeeklyRollup(String userId, int weeks) {
+        return dbManager.getTaskRollup(userId, bounds(Calendar.WEEK_OF_YEAR, weeks));
+    }
+
+    /**
+     * Idem par mois, sur les {@code months} derniers mois (mois en cours compris)
+     */
+    public RollupSeries getMonthlyRollup(String userId, int months) {
+        return dbManager.getTaskRollup(userId, bounds(Calendar.MONTH, months));
+    }
+
+    /**
+     * Débuts des {@code count} derniers intervalles (jour, semaine ou mois) à minuit local,
+     * suivis de la fin de l'intervalle en cours
+     */
+    private static long[] bounds(int field, int count) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (field == Calendar.WEEK_OF_YEAR) {
+            calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+        } else if (field == Calendar.MONTH) {
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        long[] bounds = new long[count + 1];
+        calendar.add(field, 1);
+        for (int i = count; i >= 0; i--) {
+            bounds[i] = calendar.getTimeInMillis();
+            calendar.add(field, -1);
         }
+        return bounds;
+    }
 
-        return new TaskStatistics(userTasks.size(), pending, inProgress, completed, cancelled, overdue);
+    /**
+     * Obtient les statistiques de toutes les tâches
+     */
+    public TaskStatistics getGlobalTaskStatistics() {
+        return dbManager.getTaskStatistics(System.currentTimeMillis());
     }
 
     /**
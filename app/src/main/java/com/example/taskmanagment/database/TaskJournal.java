@@ -0,0 +1,399 @@
+package com.example.taskmanagment.database;
+
+import android.util.Log;
+
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Journal des mutations de tâches (write-ahead log)
+ * Chaque ajout, modification ou suppression est encodé en mémoire (appendPut / appendDelete),
+ * puis sync() ajoute en fin de fichier tous les enregistrements en attente avec un seul fsync
+ * (group commit), pour un coût d'écriture indépendant du nombre de tâches.
+ *
+ * appendPut / appendDelete peuvent être appelés depuis n'importe quel thread ;
+ * les opérations sur les fichiers (replay, sync, rotate, deleteUpTo) depuis un seul thread à la fois.
+ *
+ * Le journal est découpé en générations (tasks.journal.1, tasks.journal.2, ...) :
+ * la compaction ferme la génération active, écrit un snapshot tasks.xml,
+ * puis supprime les générations couvertes par ce snapshot.
+ *
+ * Format d'un enregistrement : [longueur int][crc32 int][opération + champs]
+ */
+class TaskJournal {
+    private static final String TAG = "TaskJournal";
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+
+    private static final int MAX_RECORD_SIZE = 1024 * 1024;
+
+    private final File directory;
+    private final String baseName;
+
+    private int activeGeneration;
+    private FileOutputStream out;
+    private long activeSize;
+
+    // Enregistrements encodés mais pas encore écrits (protégé par "this")
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private int pendingRecords;
+
+    TaskJournal(File directory, String baseName) {
+        this.directory = directory;
+        this.baseName = baseName;
+    }
+
+    /**
+     * Rejoue toutes les générations, dans l'ordre, sur les tâches du dernier snapshot
+     * puis ouvre la dernière génération en ajout.
+     * Un enregistrement incomplet en fin de journal (crash pendant l'écriture) est tronqué.
+     * Si une génération est illisible, les générations restent telles quelles et les nouvelles
+     * mutations vont dans une génération suivante, rejouée après elles.
+     *
+     * @return le nombre de mutations rejouées et les ids des tâches qu'elles touchent
+     */
+    ReplayResult replay(Map<String, Task> tasksById) throws IOException {
+        close();
+
+        List<Integer> generations = listGenerations();
+        ReplayResult result = new ReplayResult();
+
+        try {
+            replayGenerations(generations, tasksById, result);
+        } catch (IOException e) {
+            activeGeneration = (generations.isEmpty() ? 0 : generations.get(generations.size() - 1)) + 1;
+            openActive();
+            throw e;
+        }
+
+        activeGeneration = generations.isEmpty() ? 1 : generations.get(generations.size() - 1);
+        openActive();
+
+        Log.d(TAG, "Replayed " + result.records + " journal records from " + generations.size() + " generation(s)");
+        return result;
+    }
+
+    private void replayGenerations(List<Integer> generations, Map<String, Task> tasksById,
+                                   ReplayResult result) throws IOException {
+        for (int generation : generations) {
+            File file = generationFile(generation);
+            long validLength = replayFile(file, tasksById, result);
+
+            if (validLength < file.length()) {
+                Log.w(TAG, "Truncating torn journal tail in " + file.getName()
+                        + " at " + validLength + " of " + file.length() + " bytes");
+                RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                try {
+                    raf.setLength(validLength);
+                    raf.getFD().sync();
+                } finally {
+                    raf.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Bilan du rejeu
+     */
+    static final class ReplayResult {
+        // Mutations rejouées
+        int records;
+        // Tâches ajoutées, modifiées ou supprimées par le journal, dans l'ordre du rejeu
+        final Set<String> taskIds = new LinkedHashSet<>();
+    }
+
+    /**
+     * Rejoue un fichier ; s'arrête au premier enregistrement incomplet ou corrompu
+     *
+     * @return la longueur valide du fichier (les octets suivants sont à tronquer)
+     */
+    private static long replayFile(File file, Map<String, Task> tasksById, ReplayResult result) throws IOException {
+        long validLength = 0;
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            CRC32 crc = new CRC32();
+
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_SIZE) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(payload, 0, payload.length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                result.taskIds.add(apply(payload, tasksById));
+                validLength += 8 + length;
+                result.records++;
+            }
+        } finally {
+            in.close();
+        }
+
+        return validLength;
+    }
+
+    /**
+     * @return l'id de la tâche ajoutée, modifiée ou supprimée
+     */
+    private static String apply(byte[] payload, Map<String, Task> tasksById) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = in.readByte();
+
+        if (op == OP_PUT) {
+            Task task = readTask(in);
+            // put sur une clé existante conserve la position (comme updateTask)
+            tasksById.put(task.getId(), task);
+            return task.getId();
+        } else if (op == OP_DELETE) {
+            String taskId = in.readUTF();
+            tasksById.remove(taskId);
+            return taskId;
+        } else {
+            throw new IOException("Unknown journal operation: " + op);
+        }
+    }
+
+    /**
+     * Ajoute l'état complet d'une tâche (ajout ou modification) aux enregistrements en attente
+     */
+    void appendPut(Task task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(OP_PUT);
+        writeTask(data, task);
+        append(bytes.toByteArray());
+    }
+
+    /**
+     * Ajoute la suppression d'une tâche aux enregistrements en attente
+     */
+    void appendDelete(String taskId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(OP_DELETE);
+        data.writeUTF(taskId);
+        append(bytes.toByteArray());
+    }
+
+    private void append(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        synchronized (this) {
+            DataOutputStream data = new DataOutputStream(pending);
+            data.writeInt(payload.length);
+            data.writeInt((int) crc.getValue());
+            data.write(payload);
+            pendingRecords++;
+        }
+    }
+
+    /**
+     * Nombre d'enregistrements en attente d'écriture
+     */
+    synchronized int pendingRecords() {
+        return pendingRecords;
+    }
+
+    /**
+     * Écrit tous les enregistrements en attente : un seul write puis fsync,
+     * les mutations sont durables au retour
+     *
+     * @return le nombre d'enregistrements écrits
+     */
+    int sync() throws IOException {
+        byte[] batch;
+        int records;
+        synchronized (this) {
+            if (pendingRecords == 0) {
+                return 0;
+            }
+            batch = pending.toByteArray();
+            records = pendingRecords;
+            pending = new ByteArrayOutputStream();
+            pendingRecords = 0;
+        }
+
+        try {
+            if (out == null) {
+                openActive();
+            }
+            out.write(batch);
+            out.getFD().sync();
+        } catch (IOException e) {
+            // Ne pas laisser un lot partiel devant les prochains ajouts ; le lot reste en attente
+            if (out != null) {
+                out.getChannel().truncate(activeSize);
+            }
+            requeue(batch, records);
+            throw e;
+        }
+
+        activeSize += batch.length;
+        return records;
+    }
+
+    /**
+     * Remet un lot non écrit devant les enregistrements arrivés entre-temps
+     */
+    private synchronized void requeue(byte[] batch, int records) {
+        ByteArrayOutputStream merged = new ByteArrayOutputStream(batch.length + pending.size());
+        merged.write(batch, 0, batch.length);
+        merged.write(pending.toByteArray(), 0, pending.size());
+        pending = merged;
+        pendingRecords += records;
+    }
+
+    /**
+     * Taille en octets de la génération active
+     */
+    long size() {
+        return activeSize;
+    }
+
+    /**
+     * Ferme la génération active et en ouvre une nouvelle
+     * (les enregistrements en attente iront dans la nouvelle génération)
+     *
+     * @return la génération fermée (couverte par le prochain snapshot)
+     */
+    int rotate() throws IOException {
+        int closed = activeGeneration;
+        close();
+        activeGeneration = closed + 1;
+        openActive();
+        return closed;
+    }
+
+    /**
+     * Supprime les générations couvertes par un snapshot écrit avec succès
+     */
+    void deleteUpTo(int generation) {
+        for (int g : listGenerations()) {
+            if (g <= generation && g != activeGeneration) {
+                File file = generationFile(g);
+                if (!file.delete()) {
+                    Log.w(TAG, "Could not delete compacted journal " + file.getName());
+                }
+            }
+        }
+    }
+
+    void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void openActive() throws IOException {
+        File file = generationFile(activeGeneration);
+        out = openForAppend(file);
+        activeSize = file.length();
+    }
+
+    /**
+     * Ouvre une génération en ajout (remplacé dans les tests pour simuler une écriture en échec)
+     */
+    FileOutputStream openForAppend(File file) throws IOException {
+        return new FileOutputStream(file, true);
+    }
+
+    private File generationFile(int generation) {
+        return new File(directory, baseName + "." + generation);
+    }
+
+    private List<Integer> listGenerations() {
+        List<Integer> generations = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return generations;
+        }
+
+        String prefix = baseName + ".";
+        for (String name : names) {
+            if (name.startsWith(prefix)) {
+                try {
+                    generations.add(Integer.parseInt(name.substring(prefix.length())));
+                } catch (NumberFormatException ignored) {
+                    // fichier sans rapport avec le journal
+                }
+            }
+        }
+
+        Collections.sort(generations);
+        return generations;
+    }
+
+    // ====== SÉRIALISATION D'UNE TÂCHE ======
+
+    private static void writeTask(DataOutputStream data, Task task) throws IOException {
+        data.writeUTF(nonNull(task.getId()));
+        data.writeUTF(nonNull(task.getTitle()));
+        data.writeUTF(nonNull(task.getDescription()));
+        data.writeUTF(nonNull(task.getAssignedTo()));
+        data.writeUTF(nonNull(task.getCreatedBy()));
+        data.writeUTF(task.getStatus().name());
+        data.writeUTF(task.getPriority().name());
+        data.writeLong(task.getCreatedDate());
+        data.writeLong(task.getDueDate());
+        data.writeLong(task.getCompletedDate());
+    }
+
+    private static Task readTask(DataInputStream in) throws IOException {
+        Task task = new Task();
+        task.setId(in.readUTF());
+        task.setTitle(in.readUTF());
+        task.setDescription(in.readUTF());
+        task.setAssignedTo(in.readUTF());
+        task.setCreatedBy(in.readUTF());
+        task.setStatus(TaskStatus.fromString(in.readUTF()));
+        task.setPriority(TaskPriority.fromString(in.readUTF()));
+        task.setCreatedDate(in.readLong());
+        task.setDueDate(in.readLong());
+        task.setCompletedDate(in.readLong());
+        return task;
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+}
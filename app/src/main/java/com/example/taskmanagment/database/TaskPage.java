@@ -0,0 +1,33 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+
+import java.util.List;
+
+/**
+ * Page de tâches par échéance croissante, et curseur de la page suivante
+ */
+public class TaskPage {
+    private final List<Task> tasks;
+    private final TaskCursor nextCursor;
+
+    TaskPage(List<Task> tasks, TaskCursor nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Curseur à passer pour la page suivante, ou null si c'était la dernière
+     */
+    public TaskCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Requête composable sur les tâches : critères combinés par ET, tri, limit et offset
+ * Exemple : new TaskQuery().assignedTo(userId).priority(HIGH, URGENT).orderBy(DUE_DATE).limit(20)
+ *
+ * Exécutée par TaskDAO.queryTasks : le cache choisit l'index le plus sélectif
+ * et applique les autres critères en filtre (voir TaskDAO.explainQuery).
+ */
+public class TaskQuery {
+
+    public enum SortKey {
+        DUE_DATE,
+        CREATED_DATE,
+        PRIORITY,
+        STATUS,
+        TITLE
+    }
+
+    /**
+     * Clé de tri et sens
+     */
+    static final class Order {
+        final SortKey key;
+        final boolean descending;
+
+        Order(SortKey key, boolean descending) {
+            this.key = key;
+            this.descending = descending;
+        }
+
+        @Override
+        public String toString() {
+            return key + (descending ? " desc" : " asc");
+        }
+    }
+
+    String assignedTo;
+    String createdBy;
+    EnumSet<TaskStatus> statuses;
+    EnumSet<TaskPriority> priorities;
+    boolean hasDueRange;
+    long dueFrom = Long.MIN_VALUE;
+    long dueTo = Long.MAX_VALUE;
+    boolean overdue;
+    long overdueAt;
+    String text;
+    final List<Order> orders = new ArrayList<>();
+    int offset;
+    int limit = Integer.MAX_VALUE;
+
+    /**
+     * Tâches assignées à l'utilisateur (null : pas de critère)
+     */
+    public TaskQuery assignedTo(String userId) {
+        this.assignedTo = userId;
+        return this;
+    }
+
+    /**
+     * Tâches créées par l'utilisateur (null : pas de critère)
+     */
+    public TaskQuery createdBy(String userId) {
+        this.createdBy = userId;
+        return this;
+    }
+
+    /**
+     * Tâches ayant l'un des statuts (sans argument : pas de critère)
+     */
+    public TaskQuery status(TaskStatus... statuses) {
+        this.statuses = null;
+        if (statuses.length > 0) {
+            this.statuses = EnumSet.noneOf(TaskStatus.class);
+            Collections.addAll(this.statuses, statuses);
+        }
+        return this;
+    }
+
+    /**
+     * Tâches ayant l'une des priorités (sans argument : pas de critère)
+     */
+    public TaskQuery priority(TaskPriority... priorities) {
+        this.priorities = null;
+        if (priorities.length > 0) {
+            this.priorities = EnumSet.noneOf(TaskPriority.class);
+            Collections.addAll(this.priorities, priorities);
+        }
+        return this;
+    }
+
+    /**
+     * Tâches dont l'échéance est dans [from, to] (bornes incluses)
+     */
+    public TaskQuery dueBetween(long from, long to) {
+        this.hasDueRange = true;
+        this.dueFrom = from;
+        this.dueTo = to;
+        return this;
+    }
+
+    /**
+     * Tâches ni terminées ni annulées dont l'échéance est dépassée à {@code now} (Task.isOverdue)
+     */
+    public TaskQuery overdue(long now) {
+        this.overdue = true;
+        this.overdueAt = now;
+        return this;
+    }
+
+    /**
+     * Tâches dont le titre ou la description contient le texte (insensible à la casse ;
+     * null ou vide : pas de critère)
+     */
+    public TaskQuery containing(String text) {
+        this.text = text != null && !text.isEmpty() ? TrigramIndex.normalize(text) : null;
+        return this;
+    }
+
+    /**
+     * Ajoute une clé de tri croissante ; sans tri, les tâches sont dans l'ordre du cache
+     */
+    public TaskQuery orderBy(SortKey key) {
+        orders.add(new Order(key, false));
+        return this;
+    }
+
+    public TaskQuery orderByDescending(SortKey key) {
+        orders.add(new Order(key, true));
+        return this;
+    }
+
+    public TaskQuery offset(int offset) {
+        this.offset = Math.max(0, offset);
+        return this;
+    }
+
+    public TaskQuery limit(int limit) {
+        this.limit = Math.max(0, limit);
+        return this;
+    }
+
+    /**
+     * La requête a-t-elle au moins un critère (sinon toutes les tâches la satisfont) ?
+     */
+    boolean hasCriteria() {
+        return assignedTo != null || createdBy != null || statuses != null || priorities != null
+                || hasDueRange || overdue || text != null;
+    }
+
+    /**
+     * La tâche satisfait-elle tous les critères ?
+     */
+    boolean matches(Task task) {
+        return matches(task, QueryPlan.Access.SCAN);
+    }
+
+    /**
+     * Idem sans le critère déjà garanti par l'index qui a fourni la tâche
+     */
+    boolean matches(Task task, QueryPlan.Access covered) {
+        if (assignedTo != null && covered != QueryPlan.Access.ASSIGNEE
+                && !assignedTo.equals(task.getAssignedTo())) {
+            return false;
+        }
+        if (createdBy != null && covered != QueryPlan.Access.CREATOR
+                && !createdBy.equals(task.getCreatedBy())) {
+            return false;
+        }
+        if (statuses != null && covered != QueryPlan.Access.STATUS
+                && !statuses.contains(task.getStatus())) {
+            return false;
+        }
+        if (priorities != null && covered != QueryPlan.Access.PRIORITY
+                && !priorities.contains(task.getPriority())) {
+            return false;
+        }
+        if (hasDueRange && covered != QueryPlan.Access.DUE_DATE
+                && (task.getDueDate() < dueFrom || task.getDueDate() > dueTo)) {
+            return false;
+        }
+        if (overdue && covered != QueryPlan.Access.OVERDUE
+                && !(task.getDueDate() < overdueAt && task.getStatus() != TaskStatus.COMPLETED
+                && task.getStatus() != TaskStatus.CANCELLED)) {
+            return false;
+        }
+        // Critère le plus coûteux en dernier
+        return text == null || covered == QueryPlan.Access.TEXT || TrigramIndex.matches(task, text);
+    }
+
+    /**
+     * Comparateur des clés de tri, ou null sans tri
+     */
+    Comparator<Task> comparator() {
+        if (orders.isEmpty()) {
+            return null;
+        }
+        // Pas de Comparator.reversed()/thenComparing : méthodes par défaut de l'API 24
+        return (a, b) -> {
+            for (Order order : orders) {
+                int result = compare(order.key, a, b);
+                if (result != 0) {
+                    return order.descending ? -result : result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    private static int compare(SortKey key, Task a, Task b) {
+        switch (key) {
+            case DUE_DATE:
+                return Long.compare(a.getDueDate(), b.getDueDate());
+            case CREATED_DATE:
+                return Long.compare(a.getCreatedDate(), b.getCreatedDate());
+            case PRIORITY:
+                return Integer.compare(ordinal(a.getPriority()), ordinal(b.getPriority()));
+            case STATUS:
+                return Integer.compare(ordinal(a.getStatus()), ordinal(b.getStatus()));
+            default:
+                return TrigramIndex.normalize(a.getTitle()).compareTo(TrigramIndex.normalize(b.getTitle()));
+        }
+    }
+
+    private static int ordinal(Enum<?> value) {
+        return value != null ? value.ordinal() : -1;
+    }
+
+    @Override
+    public String toString() {
+        List<String> criteria = new ArrayList<>();
+        if (assignedTo != null) criteria.add("assignedTo=" + assignedTo);
+        if (createdBy != null) criteria.add("createdBy=" + createdBy);
+        if (statuses != null) criteria.add("status in " + statuses);
+        if (priorities != null) criteria.add("priority in " + priorities);
+        if (hasDueRange) criteria.add("dueDate in [" + dueFrom + ", " + dueTo + "]");
+        if (overdue) criteria.add("overdue at " + overdueAt);
+        if (text != null) criteria.add("text contains \"" + text + "\"");
+        if (!orders.isEmpty()) criteria.add("order by " + orders);
+        if (offset > 0) criteria.add("offset " + offset);
+        if (limit < Integer.MAX_VALUE) criteria.add("limit " + limit);
+        return "TaskQuery" + criteria;
+    }
+}
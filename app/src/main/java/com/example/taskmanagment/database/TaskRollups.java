@@ -0,0 +1,99 @@
+package com.example.taskmanagment.database;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * Compteurs journaliers des tâches, globaux et par utilisateur assigné
+ * Clé : jour local depuis l'époque (jour de création de la tâche) ; valeurs : tâches créées,
+ * dont terminées et non terminées, comme les courbes des tableaux de bord.
+ * Tenus à jour à chaque ajout, modification et suppression : une semaine ou un mois
+ * se lit en sommant ses jours, quel que soit le nombre de tâches.
+ *
+ * Non thread-safe : XMLDatabaseManager synchronise les accès.
+ */
+class TaskRollups {
+    static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final int CREATED = 0;
+    private static final int COMPLETED = 1;
+    private static final int PENDING = 2;
+
+    private final TimeZone timeZone;
+    private final TreeMap<Long, int[]> global = new TreeMap<>();
+    private final Map<String, TreeMap<Long, int[]>> byAssignee = new HashMap<>();
+
+    TaskRollups(TimeZone timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    /**
+     * Jour local contenant l'instant {@code time}
+     */
+    long epochDay(long time) {
+        long local = time + timeZone.getOffset(time);
+        // Division arrondie vers le bas (Math.floorDiv n'existe qu'à partir de l'API 24)
+        return local >= 0 ? local / DAY : (local - DAY + 1) / DAY;
+    }
+
+    void add(String assignedTo, long createdDate, boolean completed) {
+        update(assignedTo, createdDate, completed, 1);
+    }
+
+    void remove(String assignedTo, long createdDate, boolean completed) {
+        update(assignedTo, createdDate, completed, -1);
+    }
+
+    private void update(String assignedTo, long createdDate, boolean completed, int delta) {
+        long day = epochDay(createdDate);
+        increment(global, day, completed, delta);
+
+        TreeMap<Long, int[]> days = byAssignee.get(assignedTo);
+        if (days == null) {
+            days = new TreeMap<>();
+            byAssignee.put(assignedTo, days);
+        }
+        increment(days, day, completed, delta);
+        if (days.isEmpty()) {
+            byAssignee.remove(assignedTo);
+        }
+    }
+
+    private static void increment(TreeMap<Long, int[]> days, long day, boolean completed, int delta) {
+        int[] counts = days.get(day);
+        if (counts == null) {
+            counts = new int[3];
+            days.put(day, counts);
+        }
+        counts[CREATED] += delta;
+        counts[completed ? COMPLETED : PENDING] += delta;
+        if (counts[CREATED] == 0) {
+            days.remove(day);
+        }
+    }
+
+    /**
+     * Sommes par intervalle : l'intervalle i couvre les jours locaux de bounds[i] (inclus)
+     * à bounds[i + 1] (exclu), donnés en millisecondes
+     *
+     * @param assignedTo utilisateur assigné, ou null pour toutes les tâches
+     */
+    RollupSeries series(String assignedTo, long[] bounds) {
+        RollupSeries series = new RollupSeries(bounds);
+        TreeMap<Long, int[]> days = assignedTo != null ? byAssignee.get(assignedTo) : global;
+        if (days == null) {
+            return series;
+        }
+
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            for (int[] counts : days.subMap(epochDay(bounds[i]), epochDay(bounds[i + 1])).values()) {
+                series.created[i] += counts[CREATED];
+                series.completed[i] += counts[COMPLETED];
+                series.pending[i] += counts[PENDING];
+            }
+        }
+        return series;
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Moteur de recherche plein texte sur le titre et la description des tâches
+ * - Index inversé de mots normalisés (minuscules, sans accents), le titre compte double
+ * - Score BM25, top-k par tas
+ * - Tolérance aux fautes : un mot de la requête s'étend aux mots du vocabulaire de même initiale
+ *   à distance d'édition 1 (5 lettres et plus) ou 2 (9 lettres et plus)
+ * - Recherche pendant la frappe : le dernier mot de la requête est aussi traité comme préfixe
+ *
+ * Chaque indexation reçoit un nouveau numéro de document ; une tâche modifiée ou supprimée
+ * laisse des entrées périmées, ignorées à la lecture et purgées par reconstruction.
+ *
+ * Non thread-safe : XMLDatabaseManager synchronise les accès.
+ */
+class TaskSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 2;
+
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final float TYPO_WEIGHT = 0.6f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    // Mots trop fréquents pour discriminer (non indexés)
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "le", "la", "les", "l", "de", "des", "du", "d", "un", "une", "et", "a", "au", "aux",
+            "en", "pour", "par", "sur", "dans", "avec", "the", "of", "and", "to"));
+
+    /**
+     * Une tâche indexée
+     */
+    private static final class Document {
+        final long seq;
+        final Task task;
+        final String[] terms;
+        final int length;
+
+        Document(long seq, Task task, String[] terms, int length) {
+            this.seq = seq;
+            this.task = task;
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Documents contenant un mot, par numéro de document croissant, avec la fréquence pondérée
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+        int documentFrequency;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+            documentFrequency++;
+        }
+    }
+
+    private static final class ScoredTask {
+        final Document document;
+        final float score;
+
+        ScoredTask(Document document, float score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<Long, Integer> documentBySeq = new HashMap<>();
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final TreeSet<String> vocabulary = new TreeSet<>();
+    private long totalLength;
+    private int liveDocuments;
+
+    void add(long seq, Task task) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = countTerms(task.getTitle(), TITLE_WEIGHT, frequencies)
+                + countTerms(task.getDescription(), 1, frequencies);
+
+        int doc = documents.size();
+        documents.add(new Document(seq, task, frequencies.keySet().toArray(new String[0]), length));
+        documentBySeq.put(seq, doc);
+        totalLength += length;
+        liveDocuments++;
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Postings postings = postingsByTerm.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                postingsByTerm.put(entry.getKey(), postings);
+                vocabulary.add(entry.getKey());
+            }
+            postings.add(doc, entry.getValue());
+        }
+    }
+
+    void remove(long seq) {
+        Integer doc = documentBySeq.remove(seq);
+        if (doc == null) {
+            return;
+        }
+
+        Document document = documents.get(doc);
+        documents.set(doc, null);
+        totalLength -= document.length;
+        liveDocuments--;
+
+        for (String term : document.terms) {
+            Postings postings = postingsByTerm.get(term);
+            if (--postings.documentFrequency == 0) {
+                postingsByTerm.remove(term);
+                vocabulary.remove(term);
+            }
+        }
+
+        if (documents.size() > 2 * liveDocuments + 64) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Renumérote les documents vivants et purge les entrées périmées
+     */
+    private void rebuild() {
+        List<Document> live = new ArrayList<>(liveDocuments);
+        for (Document document : documents) {
+            if (document != null) {
+                live.add(document);
+            }
+        }
+
+        documents.clear();
+        documentBySeq.clear();
+        postingsByTerm.clear();
+        vocabulary.clear();
+        totalLength = 0;
+        liveDocuments = 0;
+
+        for (Document document : live) {
+            add(document.seq, document.task);
+        }
+    }
+
+    /**
+     * Les {@code limit} tâches les plus pertinentes pour la requête, par score décroissant
+     */
+    List<Task> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0 || liveDocuments == 0) {
+            return new ArrayList<>();
+        }
+
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+        float averageLength = (float) totalLength / liveDocuments;
+
+        // Scores par numéro de document : tableaux denses plutôt que des maps de Float
+        float[] scores = new float[documents.size()];
+        float[] termScores = new float[documents.size()];
+        int[] touched = new int[documents.size()];
+
+        for (int i = 0; i < queryTerms.size(); i++) {
+            Map<String, Float> expansions = expand(queryTerms.get(i), lastIsPrefix && i == queryTerms.size() - 1);
+
+            // Pour un mot de la requête, chaque document garde sa meilleure expansion
+            int touchedCount = 0;
+            for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+                touchedCount = accumulate(postingsByTerm.get(expansion.getKey()), expansion.getValue(),
+                        averageLength, termScores, touched, touchedCount);
+            }
+
+            for (int j = 0; j < touchedCount; j++) {
+                scores[touched[j]] += termScores[touched[j]];
+                termScores[touched[j]] = 0;
+            }
+        }
+
+        return topK(scores, limit);
+    }
+
+    private int accumulate(Postings postings, float weight, float averageLength,
+                           float[] termScores, int[] touched, int touchedCount) {
+        float idf = (float) Math.log(1 + (liveDocuments - postings.documentFrequency + 0.5)
+                / (postings.documentFrequency + 0.5));
+
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            Document document = documents.get(doc);
+            if (document == null) {
+                continue;
+            }
+
+            int tf = postings.frequencies[i];
+            float norm = K1 * (1 - B + B * document.length / averageLength);
+            float score = weight * idf * tf * (K1 + 1) / (tf + norm);
+
+            if (termScores[doc] == 0) {
+                touched[touchedCount++] = doc;
+            }
+            if (score > termScores[doc]) {
+                termScores[doc] = score;
+            }
+        }
+        return touchedCount;
+    }
+
+    /**
+     * Mots du vocabulaire retenus pour un mot de la requête, avec leur poids
+     */
+    private Map<String, Float> expand(String term, boolean prefix) {
+        Map<String, Float> expansions = new HashMap<>();
+        if (postingsByTerm.containsKey(term)) {
+            expansions.put(term, 1f);
+        }
+
+        if (prefix) {
+            int count = 0;
+            for (String candidate : vocabulary.tailSet(term, false)) {
+                if (!candidate.startsWith(term) || count++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.put(candidate, PREFIX_WEIGHT);
+            }
+        }
+
+        int maxDistance = term.length() >= 9 ? 2 : term.length() >= 5 ? 1 : 0;
+        if (maxDistance > 0) {
+            // Les fautes sur la première lettre sont rares : seuls les mots de même initiale sont comparés
+            char first = term.charAt(0);
+            for (String candidate : vocabulary.subSet(String.valueOf(first), String.valueOf((char) (first + 1)))) {
+                if (Math.abs(candidate.length() - term.length()) > maxDistance || expansions.containsKey(candidate)) {
+                    continue;
+                }
+                int distance = boundedDistance(term, candidate, maxDistance);
+                if (distance <= maxDistance) {
+                    expansions.put(candidate, TYPO_WEIGHT / distance);
+                }
+            }
+        }
+
+        return expansions;
+    }
+
+    private List<Task> topK(float[] scores, int limit) {
+        // Tas min : la racine est le moins bon des k meilleurs
+        PriorityQueue<ScoredTask> heap = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Float.compare(a.score, b.score);
+            return byScore != 0 ? byScore : Long.compare(b.document.seq, a.document.seq);
+        });
+
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] <= 0) {
+                continue;
+            }
+            if (heap.size() == limit && scores[doc] < heap.peek().score) {
+                continue;
+            }
+            heap.add(new ScoredTask(documents.get(doc), scores[doc]));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<Task> results = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            results.add(heap.poll().document.task);
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    // ====== NORMALISATION ======
+
+    /**
+     * Mots normalisés d'un texte (TextNormalizer), sans les mots vides
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = TextNormalizer.words(text);
+        for (int i = terms.size() - 1; i >= 0; i--) {
+            if (STOP_WORDS.contains(terms.get(i))) {
+                terms.remove(i);
+            }
+        }
+        return terms;
+    }
+
+    private static int countTerms(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> terms = tokenize(text);
+        for (String term : terms) {
+            Integer current = frequencies.get(term);
+            frequencies.put(term, current != null ? current + weight : weight);
+        }
+        return terms.size() * weight;
+    }
+
+    /**
+     * Distance de Levenshtein, arrêtée dès qu'elle dépasse {@code max} (retourne alors max + 1)
+     */
+    static int boundedDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
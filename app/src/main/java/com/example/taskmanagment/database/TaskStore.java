@@ -0,0 +1,577 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TimeZone;
+
+/**
+ * Cache des tâches indexé par id, avec index secondaires sur
+ * assignedTo, createdBy, status et priority, et index triés par date d'échéance
+ * (toutes les tâches, et tâches ouvertes pour les retards), index de trigrammes
+ * pour la recherche de sous-chaîne dans le titre et la description, index de mots
+ * pour la recherche par pertinence, index de complétion sur le titre, compteurs
+ * par statut et retards, et compteurs journaliers pour les graphiques,
+ * par utilisateur assigné et globaux, et vues triées (plus récentes, échéance, urgence)
+ * lues par rang sans trier.
+ * Les requêtes composées (TaskQuery) partent de l'index le plus sélectif.
+ *
+ * XMLDatabaseManager remplace chaque tâche modifiée par une nouvelle tâche figée, mais le cache
+ * accepte aussi une tâche modifiée en place avant update : chaque tâche garde donc une copie
+ * des valeurs sous lesquelles elle est indexée, pour la retirer des bons groupes.
+ */
+class TaskStore extends RecordStore<Task> {
+
+    /**
+     * Valeurs indexées d'une tâche au moment de son indexation
+     */
+    private static final class IndexedTask {
+        final long seq;
+        final String assignedTo;
+        final String createdBy;
+        final TaskStatus status;
+        final TaskPriority priority;
+        final long dueDate;
+        final long createdDate;
+
+        IndexedTask(long seq, Task task) {
+            this.seq = seq;
+            this.assignedTo = task.getAssignedTo();
+            this.createdBy = task.getCreatedBy();
+            this.status = task.getStatus();
+            this.priority = task.getPriority();
+            this.dueDate = task.getDueDate();
+            this.createdDate = task.getCreatedDate();
+        }
+
+        boolean isOpen() {
+            return status != TaskStatus.COMPLETED && status != TaskStatus.CANCELLED;
+        }
+
+        boolean isCompleted() {
+            return status == TaskStatus.COMPLETED;
+        }
+    }
+
+    private final Map<String, IndexedTask> indexed = new HashMap<>();
+    private final SecondaryIndex<String, Task> byAssignee = new SecondaryIndex<>();
+    private final SecondaryIndex<String, Task> byCreator = new SecondaryIndex<>();
+    private final SecondaryIndex<TaskStatus, Task> byStatus = new SecondaryIndex<>();
+    private final SecondaryIndex<TaskPriority, Task> byPriority = new SecondaryIndex<>();
+    private final DueDateIndex byDueDate = new DueDateIndex();
+    private final DueDateIndex openByDueDate = new DueDateIndex();
+    private final TrigramIndex textIndex = new TrigramIndex();
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private final PrefixIndex<Task> titleCompletions = new PrefixIndex<>();
+    private final Map<String, TaskCounters> countersByAssignee = new HashMap<>();
+    private final TaskCounters counters = new TaskCounters();
+    private final TaskRollups rollups = new TaskRollups(TimeZone.getDefault());
+    // Création décroissante ; échéance croissante ; priorité décroissante puis échéance croissante
+    private final SortedView<Task> newestFirst = new SortedView<>();
+    private final SortedView<Task> byDueDateOrder = new SortedView<>();
+    private final SortedView<Task> byUrgency = new SortedView<>();
+
+    TaskStore(Collection<Task> tasks) {
+        addAll(tasks);
+    }
+
+    @Override
+    String idOf(Task task) {
+        return task.getId();
+    }
+
+    @Override
+    void add(Task task) {
+        super.add(task);
+        reindex(task);
+    }
+
+    @Override
+    boolean update(Task task) {
+        if (!super.update(task)) {
+            return false;
+        }
+        reindex(task);
+        return true;
+    }
+
+    @Override
+    Task remove(String id) {
+        Task removed = super.remove(id);
+        if (removed != null) {
+            unindex(indexed.remove(id));
+        }
+        return removed;
+    }
+
+    // ====== REQUÊTES PAR INDEX ======
+
+    List<Task> getByAssignee(String userId) {
+        return byAssignee.get(userId);
+    }
+
+    List<Task> getByCreator(String userId) {
+        return byCreator.get(userId);
+    }
+
+    List<Task> getByStatus(TaskStatus status) {
+        return byStatus.get(status);
+    }
+
+    List<Task> getByPriority(TaskPriority priority) {
+        return byPriority.get(priority);
+    }
+
+    /**
+     * Tâches dont l'échéance est dans [from, to], par échéance croissante
+     */
+    List<Task> getDueBetween(long from, long to) {
+        return byDueDate.between(from, to);
+    }
+
+    /**
+     * Tâches ni terminées ni annulées dont l'échéance est dépassée à {@code now} (Task.isOverdue)
+     */
+    List<Task> getOverdue(long now) {
+        return openByDueDate.before(now);
+    }
+
+    /**
+     * Tâches dont le titre ou la description contient {@code query} (insensible à la casse)
+     */
+    List<Task> searchText(String query) {
+        return textIndex.search(query);
+    }
+
+    /**
+     * Les {@code limit} tâches les plus pertinentes pour la requête (BM25, fautes de frappe tolérées)
+     */
+    List<Task> searchRanked(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * Tâches dont le titre contient des mots commençant par ceux de la requête
+     */
+    List<Task> completeTitle(String query, int limit) {
+        return titleCompletions.complete(query, limit);
+    }
+
+    /**
+     * Statistiques des tâches assignées à un utilisateur, sans parcours
+     */
+    TaskDAO.TaskStatistics getStatistics(String userId, long now) {
+        TaskCounters userCounters = countersByAssignee.get(userId);
+        return (userCounters != null ? userCounters : new TaskCounters()).toStatistics(now);
+    }
+
+    /**
+     * Statistiques de toutes les tâches, sans parcours
+     */
+    TaskDAO.TaskStatistics getStatistics(long now) {
+        return counters.toStatistics(now);
+    }
+
+    /**
+     * Compteurs par intervalle [bounds[i], bounds[i + 1]) selon la date de création
+     *
+     * @param userId utilisateur assigné, ou null pour toutes les tâches
+     */
+    RollupSeries getRollup(String userId, long[] bounds) {
+        return rollups.series(userId, bounds);
+    }
+
+    // ====== REQUÊTES COMPOSÉES ======
+
+    /**
+     * Choisit l'index qui fournit le moins de tâches candidates ; à égalité, le premier
+     * dans l'ordre de QueryPlan.Access (les comptes exacts avant les estimations)
+     */
+    QueryPlan plan(TaskQuery query) {
+        Map<QueryPlan.Access, Integer> estimates = new LinkedHashMap<>();
+        if (query.assignedTo != null) {
+            estimates.put(QueryPlan.Access.ASSIGNEE, byAssignee.count(query.assignedTo));
+        }
+        if (query.createdBy != null) {
+            estimates.put(QueryPlan.Access.CREATOR, byCreator.count(query.createdBy));
+        }
+        if (query.statuses != null) {
+            int count = 0;
+            for (TaskStatus status : query.statuses) {
+                count += byStatus.count(status);
+            }
+            estimates.put(QueryPlan.Access.STATUS, count);
+        }
+        if (query.priorities != null) {
+            int count = 0;
+            for (TaskPriority priority : query.priorities) {
+                count += byPriority.count(priority);
+            }
+            estimates.put(QueryPlan.Access.PRIORITY, count);
+        }
+        if (query.hasDueRange) {
+            estimates.put(QueryPlan.Access.DUE_DATE, byDueDate.estimate(query.dueFrom, query.dueTo));
+        }
+        if (query.overdue) {
+            estimates.put(QueryPlan.Access.OVERDUE, query.overdueAt == Long.MIN_VALUE
+                    ? 0 : openByDueDate.estimate(Long.MIN_VALUE, query.overdueAt - 1));
+        }
+        if (query.text != null) {
+            estimates.put(QueryPlan.Access.TEXT, textIndex.estimate(query.text));
+        }
+        estimates.put(QueryPlan.Access.SCAN, size());
+
+        QueryPlan.Access best = QueryPlan.Access.SCAN;
+        for (Map.Entry<QueryPlan.Access, Integer> entry : estimates.entrySet()) {
+            if (entry.getValue() < estimates.get(best)) {
+                best = entry.getKey();
+            }
+        }
+        // Tri d'une vue triée : la parcourir coûte environ (offset + limit) * n / candidats,
+        // l'index choisi ses candidats plus leur tri
+        if (sortedView(query) != null) {
+            long window = (long) query.offset + query.limit;
+            int candidates = estimates.get(best);
+            if (best == QueryPlan.Access.SCAN || window * size() < (long) candidates * candidates) {
+                estimates.put(QueryPlan.Access.SORTED_VIEW,
+                        (int) Math.min(size(), candidates == 0 ? 0 : window * size() / candidates));
+                best = QueryPlan.Access.SORTED_VIEW;
+            }
+        }
+        return new QueryPlan(best, estimates, isPresorted(best, query));
+    }
+
+    /**
+     * Vue triée dans l'ordre de la requête (clés égales : ordre du cache), ou null
+     */
+    private SortedView<Task> sortedView(TaskQuery query) {
+        List<TaskQuery.Order> orders = query.orders;
+        if (orders.size() == 1 && orders.get(0).key == TaskQuery.SortKey.CREATED_DATE && orders.get(0).descending) {
+            return newestFirst;
+        }
+        if (orders.size() == 1 && orders.get(0).key == TaskQuery.SortKey.DUE_DATE && !orders.get(0).descending) {
+            return byDueDateOrder;
+        }
+        if (orders.size() == 2 && orders.get(0).key == TaskQuery.SortKey.PRIORITY && orders.get(0).descending
+                && orders.get(1).key == TaskQuery.SortKey.DUE_DATE && !orders.get(1).descending) {
+            return byUrgency;
+        }
+        return null;
+    }
+
+    /**
+     * Les candidats de l'index sont-ils déjà dans l'ordre demandé ?
+     */
+    private static boolean isPresorted(QueryPlan.Access access, TaskQuery query) {
+        switch (access) {
+            case DUE_DATE:
+            case OVERDUE:
+                // Index trié par échéance puis ordre du cache
+                return query.orders.size() == 1
+                        && query.orders.get(0).key == TaskQuery.SortKey.DUE_DATE && !query.orders.get(0).descending;
+            case STATUS:
+                return query.orders.isEmpty() && query.statuses.size() == 1;
+            case PRIORITY:
+                return query.orders.isEmpty() && query.priorities.size() == 1;
+            case SORTED_VIEW:
+                return true;
+            default:
+                // Groupes des index secondaires, trigrammes et cache : ordre du cache
+                return query.orders.isEmpty();
+        }
+    }
+
+    List<Task> query(TaskQuery query) {
+        return execute(plan(query), query);
+    }
+
+    /**
+     * Plan choisi, exécuté pour rapporter le nombre de résultats et la durée réels
+     */
+    String explain(TaskQuery query) {
+        long start = System.nanoTime();
+        QueryPlan plan = plan(query);
+        int count = execute(plan, query).size();
+        long micros = (System.nanoTime() - start) / 1_000;
+        return plan.explain(query) + "\n  exécution : " + count + " tâches en " + micros + " µs";
+    }
+
+    List<Task> execute(QueryPlan plan, TaskQuery query) {
+        if (plan.access == QueryPlan.Access.SORTED_VIEW && !query.hasCriteria()) {
+            // Sans critère, la page se lit directement par rang
+            return sortedView(query).range(query.offset, query.limit);
+        }
+        List<Task> results = new ArrayList<>();
+        if (plan.presorted) {
+            // Arrêt dès que la page demandée est complète
+            int skipped = 0;
+            for (Task task : candidates(plan.access, query)) {
+                if (results.size() >= query.limit) {
+                    break;
+                }
+                if (query.matches(task, plan.access)) {
+                    if (skipped < query.offset) {
+                        skipped++;
+                    } else {
+                        results.add(task);
+                    }
+                }
+            }
+            return results;
+        }
+
+        for (Task task : candidates(plan.access, query)) {
+            if (query.matches(task, plan.access)) {
+                results.add(task);
+            }
+        }
+        // Sans clé de tri, ordre du cache ; à égalité de clés aussi
+        final Comparator<Task> comparator = query.comparator();
+        Collections.sort(results, (a, b) -> {
+            int result = comparator != null ? comparator.compare(a, b) : 0;
+            return result != 0 ? result : Long.compare(indexed.get(a.getId()).seq, indexed.get(b.getId()).seq);
+        });
+
+        int from = Math.min(query.offset, results.size());
+        int to = (int) Math.min((long) from + query.limit, results.size());
+        return new ArrayList<>(results.subList(from, to));
+    }
+
+    /**
+     * Page suivante de la requête par échéance croissante (puis ordre du cache), après le curseur
+     * Le tri, limit et offset de la requête sont ignorés : la position est donnée par le curseur.
+     *
+     * @param after curseur de la page précédente, ou null pour la première page
+     */
+    TaskPage page(TaskQuery query, TaskCursor after, int pageSize) {
+        QueryPlan plan = plan(query);
+        int wanted = pageSize + 1;
+        List<Task> tasks;
+        // Parcourir l'index des échéances coûte environ wanted * n / candidats ;
+        // trier les candidats de l'index choisi en coûte environ autant que de candidats
+        if (plan.access == QueryPlan.Access.DUE_DATE || plan.access == QueryPlan.Access.OVERDUE
+                || (long) plan.estimate() * plan.estimate() >= (long) wanted * size()) {
+            tasks = walkDueDates(query, plan, after, wanted);
+        } else {
+            tasks = selectByDueDate(query, plan, after, wanted);
+        }
+
+        if (tasks.size() <= pageSize) {
+            return new TaskPage(tasks, null);
+        }
+        Task last = tasks.get(pageSize - 1);
+        IndexedTask entry = indexed.get(last.getId());
+        return new TaskPage(new ArrayList<>(tasks.subList(0, pageSize)),
+                new TaskCursor(entry.dueDate, last.getId(), entry.seq));
+    }
+
+    /**
+     * Parcourt l'index des échéances depuis le curseur jusqu'à {@code wanted} tâches retenues
+     */
+    private List<Task> walkDueDates(TaskQuery query, QueryPlan plan, TaskCursor after, int wanted) {
+        DueDateIndex index = query.overdue ? openByDueDate : byDueDate;
+        long fromDue = query.hasDueRange ? query.dueFrom : Long.MIN_VALUE;
+        long toDue = query.hasDueRange ? query.dueTo : Long.MAX_VALUE;
+        if (query.overdue) {
+            if (query.overdueAt == Long.MIN_VALUE) {
+                return new ArrayList<>();
+            }
+            toDue = Math.min(toDue, query.overdueAt - 1);
+        }
+        long fromSeq = Long.MIN_VALUE;
+        if (after != null && !after.isBefore(fromDue, Long.MIN_VALUE)) {
+            fromDue = after.getDueDate();
+            fromSeq = after.seq;
+        }
+
+        QueryPlan.Access covered = plan.access == QueryPlan.Access.DUE_DATE || plan.access == QueryPlan.Access.OVERDUE
+                ? plan.access : QueryPlan.Access.SCAN;
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : index.viewAfter(fromDue, fromSeq, toDue)) {
+            if (query.matches(task, covered)) {
+                tasks.add(task);
+                if (tasks.size() == wanted) {
+                    break;
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Tâche candidate et sa position (échéance indexée, séquence) dans la pagination
+     */
+    private static final class Positioned {
+        final Task task;
+        final long dueDate;
+        final long seq;
+
+        Positioned(Task task, IndexedTask entry) {
+            this.task = task;
+            this.dueDate = entry.dueDate;
+            this.seq = entry.seq;
+        }
+
+        boolean isBefore(long otherDueDate, long otherSeq) {
+            return dueDate < otherDueDate || (dueDate == otherDueDate && seq < otherSeq);
+        }
+    }
+
+    /**
+     * Garde les {@code wanted} premières tâches après le curseur parmi les candidats de l'index choisi
+     */
+    private List<Task> selectByDueDate(TaskQuery query, QueryPlan plan, TaskCursor after, int wanted) {
+        // Tas max borné : la racine est la moins bonne des tâches retenues
+        PriorityQueue<Positioned> kept = new PriorityQueue<>(wanted,
+                (a, b) -> a.isBefore(b.dueDate, b.seq) ? 1 : (b.isBefore(a.dueDate, a.seq) ? -1 : 0));
+        for (Task task : candidates(plan.access, query)) {
+            IndexedTask entry = indexed.get(task.getId());
+            if (after != null && !after.isBefore(entry.dueDate, entry.seq)) {
+                continue;
+            }
+            // Écarte avant les filtres ce qui viendrait après toutes les tâches retenues
+            if (kept.size() == wanted && kept.peek().isBefore(entry.dueDate, entry.seq)
+                    || !query.matches(task, plan.access)) {
+                continue;
+            }
+            if (kept.size() == wanted) {
+                kept.poll();
+            }
+            kept.add(new Positioned(task, entry));
+        }
+
+        Positioned[] ordered = kept.toArray(new Positioned[0]);
+        Arrays.sort(ordered, Collections.reverseOrder(kept.comparator()));
+        List<Task> tasks = new ArrayList<>(ordered.length);
+        for (Positioned positioned : ordered) {
+            tasks.add(positioned.task);
+        }
+        return tasks;
+    }
+
+    private Collection<Task> candidates(QueryPlan.Access access, TaskQuery query) {
+        switch (access) {
+            case ASSIGNEE:
+                return byAssignee.view(query.assignedTo);
+            case CREATOR:
+                return byCreator.view(query.createdBy);
+            case STATUS: {
+                List<Task> candidates = new ArrayList<>();
+                for (TaskStatus status : query.statuses) {
+                    candidates.addAll(byStatus.view(status));
+                }
+                return candidates;
+            }
+            case PRIORITY: {
+                List<Task> candidates = new ArrayList<>();
+                for (TaskPriority priority : query.priorities) {
+                    candidates.addAll(byPriority.view(priority));
+                }
+                return candidates;
+            }
+            case DUE_DATE:
+                return byDueDate.viewBetween(query.dueFrom, query.dueTo);
+            case OVERDUE:
+                return openByDueDate.viewBefore(query.overdueAt);
+            case TEXT:
+                return textIndex.search(query.text);
+            case SORTED_VIEW:
+                return sortedView(query);
+            default:
+                return values();
+        }
+    }
+
+    int countByAssignee(String userId) {
+        return byAssignee.count(userId);
+    }
+
+    int countByStatus(TaskStatus status) {
+        return byStatus.count(status);
+    }
+
+    // ====== MAINTENANCE DES INDEX ======
+
+    /**
+     * Indexe la tâche sous ses valeurs actuelles ; une tâche déjà indexée garde sa séquence
+     */
+    private void reindex(Task task) {
+        IndexedTask previous = indexed.get(task.getId());
+        if (previous != null) {
+            unindex(previous);
+        }
+
+        // Séquence attribuée par RecordStore : ordre du cache
+        long seq = seqOf(task.getId());
+        IndexedTask current = new IndexedTask(seq, task);
+        indexed.put(task.getId(), current);
+
+        byAssignee.put(current.assignedTo, seq, task);
+        byCreator.put(current.createdBy, seq, task);
+        byStatus.put(current.status, seq, task);
+        byPriority.put(current.priority, seq, task);
+        byDueDate.put(current.dueDate, seq, task);
+        if (current.isOpen()) {
+            openByDueDate.put(current.dueDate, seq, task);
+        }
+        textIndex.add(seq, task);
+        searchIndex.add(seq, task);
+        titleCompletions.put(seq, task, task.getTitle());
+        newestFirst.put(~current.createdDate, 0, seq, task);
+        byDueDateOrder.put(current.dueDate, 0, seq, task);
+        byUrgency.put(urgency(current.priority), current.dueDate, seq, task);
+
+        TaskCounters userCounters = countersByAssignee.get(current.assignedTo);
+        if (userCounters == null) {
+            userCounters = new TaskCounters();
+            countersByAssignee.put(current.assignedTo, userCounters);
+        }
+        userCounters.add(current.status, current.dueDate, current.isOpen());
+        counters.add(current.status, current.dueDate, current.isOpen());
+        rollups.add(current.assignedTo, current.createdDate, current.isCompleted());
+    }
+
+    private void unindex(IndexedTask entry) {
+        byAssignee.remove(entry.assignedTo, entry.seq);
+        byCreator.remove(entry.createdBy, entry.seq);
+        byStatus.remove(entry.status, entry.seq);
+        byPriority.remove(entry.priority, entry.seq);
+        byDueDate.remove(entry.dueDate, entry.seq);
+        if (entry.isOpen()) {
+            openByDueDate.remove(entry.dueDate, entry.seq);
+        }
+        textIndex.remove(entry.seq);
+        searchIndex.remove(entry.seq);
+        titleCompletions.remove(entry.seq);
+        newestFirst.remove(~entry.createdDate, 0, entry.seq);
+        byDueDateOrder.remove(entry.dueDate, 0, entry.seq);
+        byUrgency.remove(urgency(entry.priority), entry.dueDate, entry.seq);
+
+        TaskCounters userCounters = countersByAssignee.get(entry.assignedTo);
+        userCounters.remove(entry.status, entry.dueDate, entry.isOpen());
+        if (userCounters.isEmpty()) {
+            countersByAssignee.remove(entry.assignedTo);
+        }
+        counters.remove(entry.status, entry.dueDate, entry.isOpen());
+        rollups.remove(entry.assignedTo, entry.createdDate, entry.isCompleted());
+    }
+
+    /**
+     * Clé croissante de la vue par urgence : priorité la plus haute d'abord, sans priorité en dernier
+     * (~x inverse l'ordre sans débordement)
+     */
+    private static long urgency(TaskPriority priority) {
+        return ~(long) (priority != null ? priority.ordinal() : -1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.taskmanagment.database;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Découpage en mots commun aux index de texte et à leurs requêtes
+ * Minuscules, accents retirés ("Préparer" -> "preparer"), séparation sur tout caractère
+ * qui n'est ni lettre ni chiffre ("jean.dupont@mail.com" -> jean, dupont, mail, com).
+ */
+final class TextNormalizer {
+
+    private TextNormalizer() {}
+
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder word = new StringBuilder();
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString().toLowerCase(Locale.ROOT));
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString().toLowerCase(Locale.ROOT));
+        }
+        return words;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index inversé de trigrammes sur le titre et la description des tâches (texte en minuscules)
+ * Une recherche "contient q" ne regarde que les tâches présentes dans les listes de tous
+ * les trigrammes de q, puis vérifie la sous-chaîne : même résultat que
+ * title.contains(q) || description.contains(q), sans parcourir toutes les tâches.
+ * Les requêtes de moins de 3 caractères parcourent les textes déjà normalisés.
+ *
+ * La suppression est paresseuse : les listes peuvent garder des séquences périmées,
+ * écartées par la vérification ; elles sont reconstruites quand les entrées périmées
+ * dépassent les entrées vivantes.
+ *
+ * Non thread-safe : XMLDatabaseManager synchronise les accès.
+ */
+class TrigramIndex {
+
+    /**
+     * Texte normalisé d'une tâche indexée
+     */
+    private static final class Document {
+        final Task task;
+        final String title;
+        final String description;
+
+        Document(Task task) {
+            this.task = task;
+            this.title = normalize(task.getTitle());
+            this.description = normalize(task.getDescription());
+        }
+
+        boolean contains(String query) {
+            return title.contains(query) || description.contains(query);
+        }
+    }
+
+    /**
+     * Liste triée de séquences (les nouvelles tâches arrivent en fin de liste)
+     */
+    private static final class Postings {
+        long[] seqs = new long[4];
+        int size;
+
+        void add(long seq) {
+            if (size == 0 || seqs[size - 1] < seq) {
+                // Cas courant : nouvelle tâche, séquence la plus grande
+                if (size == seqs.length) {
+                    seqs = Arrays.copyOf(seqs, size * 2);
+                }
+                seqs[size++] = seq;
+                return;
+            }
+
+            int index = Arrays.binarySearch(seqs, 0, size, seq);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == seqs.length) {
+                seqs = Arrays.copyOf(seqs, size * 2);
+            }
+            System.arraycopy(seqs, index, seqs, index + 1, size - index);
+            seqs[index] = seq;
+            size++;
+        }
+
+        boolean contains(long seq) {
+            return Arrays.binarySearch(seqs, 0, size, seq) >= 0;
+        }
+    }
+
+    private final TreeMap<Long, Document> documents = new TreeMap<>();
+    private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+    private long liveEntries;
+    private long staleEntries;
+
+    /**
+     * Normalisation commune aux textes indexés et aux requêtes
+     */
+    static String normalize(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT) : "";
+    }
+
+    void add(long seq, Task task) {
+        Document document = new Document(task);
+        documents.put(seq, document);
+        liveEntries += addPostings(seq, document);
+    }
+
+    void remove(long seq) {
+        Document document = documents.remove(seq);
+        if (document == null) {
+            return;
+        }
+
+        // Les entrées restent dans les listes jusqu'à la prochaine reconstruction
+        int count = trigramsOf(document).length;
+        liveEntries -= count;
+        staleEntries += count;
+
+        if (staleEntries > liveEntries) {
+            rebuild();
+        }
+    }
+
+    private int addPostings(long seq, Document document) {
+        long[] trigrams = trigramsOf(document);
+        for (long trigram : trigrams) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings == null) {
+                postings = new Postings();
+                postingsByTrigram.put(trigram, postings);
+            }
+            postings.add(seq);
+        }
+        return trigrams.length;
+    }
+
+    /**
+     * Reconstruit les listes à partir des seuls documents vivants
+     */
+    private void rebuild() {
+        postingsByTrigram.clear();
+        liveEntries = 0;
+        staleEntries = 0;
+        for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+            liveEntries += addPostings(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Tâches dont le titre ou la description contient {@code query} (insensible à la casse),
+     * dans l'ordre du cache
+     */
+    List<Task> search(String query) {
+        String q = normalize(query);
+        List<Task> results = new ArrayList<>();
+
+        if (q.length() < 3) {
+            for (Document document : documents.values()) {
+                if (document.contains(q)) {
+                    results.add(document.task);
+                }
+            }
+            return results;
+        }
+
+        // Listes des trigrammes de la requête, de la plus courte à la plus longue
+        long[] trigrams = trigrams(q, "");
+        Postings[] lists = new Postings[trigrams.length];
+        int count = 0;
+        for (long trigram : trigrams) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings == null) {
+                return results;
+            }
+            lists[count++] = postings;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        Postings shortest = lists[0];
+        for (int i = 0; i < shortest.size; i++) {
+            long seq = shortest.seqs[i];
+            if (inAll(lists, seq)) {
+                Document document = documents.get(seq);
+                // Séquence périmée, ou trigrammes venant des deux champs / non contigus
+                if (document != null && document.contains(q)) {
+                    results.add(document.task);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Borne supérieure du nombre de résultats de search(query) : taille de la plus courte
+     * liste de trigrammes (ou nombre de tâches pour une requête de moins de 3 caractères)
+     */
+    int estimate(String query) {
+        String q = normalize(query);
+        if (q.length() < 3) {
+            return documents.size();
+        }
+        int shortest = documents.size();
+        for (long trigram : trigrams(q, "")) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings == null) {
+                return 0;
+            }
+            shortest = Math.min(shortest, postings.size);
+        }
+        return shortest;
+    }
+
+    /**
+     * Le texte indexé de la tâche contient-il {@code query} (déjà normalisée) ?
+     */
+    static boolean matches(Task task, String normalizedQuery) {
+        return normalize(task.getTitle()).contains(normalizedQuery)
+                || normalize(task.getDescription()).contains(normalizedQuery);
+    }
+
+    private static boolean inAll(Postings[] lists, long seq) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(seq)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] trigramsOf(Document document) {
+        return trigrams(document.title, document.description);
+    }
+
+    /**
+     * Trigrammes distincts de deux textes, triés
+     */
+    private static long[] trigrams(String first, String second) {
+        long[] trigrams = new long[Math.max(0, first.length() - 2) + Math.max(0, second.length() - 2)];
+        int count = collect(first, trigrams, 0);
+        count = collect(second, trigrams, count);
+
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static int collect(String text, long[] trigrams, int offset) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams[offset++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return offset;
+    }
+}
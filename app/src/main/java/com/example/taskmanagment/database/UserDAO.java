@@ -6,7 +6,6 @@ import android.content.Context;
 import com.example.taskmanagment.models.User;
 import com.example.taskmanagment.models.UserType;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,6 +19,10 @@ public class UserDAO {
         this.dbManager = XMLDatabaseManager.getInstance(context);
     }
 
+    UserDAO(XMLDatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
     /**
      * Récupère tous les utilisateurs
      */
@@ -35,16 +38,26 @@ public class UserDAO {
     }
 
     /**
-     * Récupère un utilisateur par nom d'utilisateur
+     * Complétion : utilisateurs dont le nom d'utilisateur, le nom complet ou l'email
+     * contient un mot commençant par chaque mot saisi
+     */
+    public List<User> completeUsers(String prefix, int limit) {
+        return dbManager.completeUsers(prefix, limit);
+    }
+
+    /**
+     * Récupère un utilisateur par nom d'utilisateur (casse exacte)
      */
     public User getUserByUsername(String username) {
-        List<User> users = dbManager.getAllUsers();
-        for (User user : users) {
-            if (user.getUsername().equals(username)) {
-                return user;
-            }
-        }
-        return null;
+        User user = dbManager.getUserByUsername(username);
+        return user != null && user.getUsername().equals(username) ? user : null;
+    }
+
+    /**
+     * Récupère un utilisateur par email (sans distinction de casse)
+     */
+    public User getUserByEmail(String email) {
+        return dbManager.getUserByEmail(email);
     }
 
     /**
@@ -62,16 +75,7 @@ public class UserDAO {
      * Récupère tous les utilisateurs d'un type spécifique
      */
     public List<User> getUsersByType(UserType userType) {
-        List<User> allUsers = dbManager.getAllUsers();
-        List<User> filteredUsers = new ArrayList<>();
-
-        for (User user : allUsers) {
-            if (user.getUserType() == userType) {
-                filteredUsers.add(user);
-            }
-        }
-
-        return filteredUsers;
+        return dbManager.getUsersByType(userType);
     }
 
     /**
@@ -92,10 +96,7 @@ public class UserDAO {
      * Insère un nouvel utilisateur
      */
     public boolean insertUser(User user) {
-        // Vérifier si le nom d'utilisateur existe déjà
-        if (getUserByUsername(user.getUsername()) != null) {
-            return false;
-        }
+        // Refusé si le nom d'utilisateur existe déjà (vérifié sous le verrou d'écriture)
         return dbManager.addUser(user);
     }
 
@@ -113,43 +114,55 @@ public class UserDAO {
         return dbManager.deleteUser(userId);
     }
 
+    /**
+     * Met à jour l'email et le nom complet d'un utilisateur
+     */
+    public boolean updateUserProfile(String userId, String email, String fullName) {
+        return dbManager.modifyUser(userId, user -> {
+            user.setEmail(email);
+            user.setFullName(fullName);
+            return true;
+        });
+    }
+
     /**
      * Change le mot de passe d'un utilisateur
      */
     public boolean changePassword(String userId, String oldPassword, String newPassword) {
-        User user = getUserById(userId);
-        if (user != null && user.getPassword().equals(oldPassword)) {
+        return dbManager.modifyUser(userId, user -> {
+            if (!user.getPassword().equals(oldPassword)) {
+                return false;
+            }
             user.setPassword(newPassword);
-            return updateUser(user);
-        }
-        return false;
+            return true;
+        });
     }
 
     /**
-     * Vérifie si un nom d'utilisateur existe
+     * Vérifie si un nom d'utilisateur existe (sans distinction de casse)
      */
     public boolean usernameExists(String username) {
-        return getUserByUsername(username) != null;
+        return dbManager.getUserByUsername(username) != null;
     }
 
     /**
      * Compte le nombre total d'utilisateurs
      */
     public int getTotalUserCount() {
-        return dbManager.getAllUsers().size();
+        return dbManager.getUserCount();
     }
 
     /**
      * Compte le nombre d'employés
      */
     public int getEmployeeCount() {
-        return getAllEmployees().size();
+        return dbManager.getUserCountByType(UserType.EMPLOYEE);
     }
 
     /**
      * Compte le nombre d'administrateurs
      */
     public int getAdminCount() {
-        return getAllAdmins().size();
+        return dbManager.getUserCountByType(UserType.ADMIN);
     }
 }
\ No newline at end of file
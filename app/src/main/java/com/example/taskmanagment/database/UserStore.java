@@ -0,0 +1,179 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.models.UserType;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Annuaire des utilisateurs : cache indexé par id, avec
+ * - nom d'utilisateur et email sans distinction de casse (connexion, doublons en O(1)) ;
+ *   des variantes de casse ("Admin" / "admin") restent toutes indexées
+ * - partitions par type d'utilisateur (listes et comptes sans parcours)
+ * - index de complétion sur le nom d'utilisateur, le nom complet et l'email
+ *
+ * Chaque utilisateur garde les valeurs sous lesquelles il est indexé : un utilisateur
+ * modifié (copie dans XMLDatabaseManager) est réindexé par update.
+ */
+class UserStore extends RecordStore<User> {
+
+    /**
+     * Valeurs indexées d'un utilisateur au moment de son indexation
+     */
+    private static final class IndexedUser {
+        final long seq;
+        final String username;
+        final String email;
+        final UserType userType;
+
+        IndexedUser(long seq, User user) {
+            this.seq = seq;
+            this.username = fold(user.getUsername());
+            this.email = fold(user.getEmail());
+            this.userType = user.getUserType();
+        }
+    }
+
+    private final Map<String, IndexedUser> indexed = new HashMap<>();
+    // Clés sans casse ; plusieurs utilisateurs par clé, dans l'ordre d'insertion
+    private final SecondaryIndex<String, User> byUsername = new SecondaryIndex<>();
+    private final SecondaryIndex<String, User> byEmail = new SecondaryIndex<>();
+    private final SecondaryIndex<UserType, User> byType = new SecondaryIndex<>();
+    private final PrefixIndex<User> completions = new PrefixIndex<>();
+
+    UserStore(Collection<User> users) {
+        addAll(users);
+    }
+
+    @Override
+    String idOf(User user) {
+        return user.getId();
+    }
+
+    @Override
+    void add(User user) {
+        super.add(user);
+        reindex(user);
+    }
+
+    @Override
+    boolean update(User user) {
+        if (!super.update(user)) {
+            return false;
+        }
+        reindex(user);
+        return true;
+    }
+
+    @Override
+    User remove(String id) {
+        User removed = super.remove(id);
+        if (removed != null) {
+            unindex(indexed.remove(id));
+        }
+        return removed;
+    }
+
+    // ====== REQUÊTES PAR INDEX ======
+
+    /**
+     * Utilisateur dont le nom d'utilisateur est égal à {@code username} sans distinction de casse ;
+     * entre variantes de casse, celui dont la casse est exacte, sinon le premier inséré
+     */
+    User getByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        User first = null;
+        for (User user : byUsername.view(fold(username))) {
+            if (username.equals(user.getUsername())) {
+                return user;
+            }
+            if (first == null) {
+                first = user;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Utilisateur dont l'email est égal à {@code email} sans distinction de casse
+     * (même choix entre variantes de casse que getByUsername)
+     */
+    User getByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        User first = null;
+        for (User user : byEmail.view(fold(email))) {
+            if (email.equals(user.getEmail())) {
+                return user;
+            }
+            if (first == null) {
+                first = user;
+            }
+        }
+        return first;
+    }
+
+    List<User> getByType(UserType userType) {
+        return byType.get(userType);
+    }
+
+    int countByType(UserType userType) {
+        return byType.count(userType);
+    }
+
+    /**
+     * Utilisateurs dont le nom d'utilisateur, le nom complet ou l'email
+     * contient des mots commençant par ceux de la requête
+     */
+    List<User> complete(String query, int limit) {
+        return completions.complete(query, limit);
+    }
+
+    // ====== MAINTENANCE DES INDEX ======
+
+    private static String fold(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Indexe l'utilisateur sous ses valeurs actuelles ; un utilisateur déjà indexé garde sa séquence
+     */
+    private void reindex(User user) {
+        IndexedUser previous = indexed.get(user.getId());
+        if (previous != null) {
+            unindex(previous);
+        }
+
+        long seq = seqOf(user.getId());
+        IndexedUser current = new IndexedUser(seq, user);
+        indexed.put(user.getId(), current);
+
+        if (current.username != null) {
+            byUsername.put(current.username, seq, user);
+        }
+        if (current.email != null) {
+            byEmail.put(current.email, seq, user);
+        }
+        byType.put(current.userType, seq, user);
+        completions.put(seq, user, user.getUsername(), user.getFullName(), user.getEmail());
+    }
+
+    private void unindex(IndexedUser entry) {
+        // Retiré par séquence : une variante de casse ("Admin" / "admin") reste indexée
+        if (entry.username != null) {
+            byUsername.remove(entry.username, entry.seq);
+        }
+        if (entry.email != null) {
+            byEmail.remove(entry.email, entry.seq);
+        }
+        byType.remove(entry.userType, entry.seq);
+        completions.remove(entry.seq);
+    }
+}
@@ -5,133 +5,576 @@ import android.util.Log;
 
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
 import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.models.UserType;
+import com.example.taskmanagment.utils.RecordValidator;
+import com.example.taskmanagment.utils.SnapshotFile;
+import com.example.taskmanagment.utils.ValidationCertificate;
 import com.example.taskmanagment.utils.XMLParser;
 import com.example.taskmanagment.utils.XMLValidator;
 import com.example.taskmanagment.utils.XMLWriter;
 
+import org.xml.sax.SAXException;
+
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import javax.xml.validation.Schema;
 
 /**
  * Gestionnaire de base de données XML
  * Design Pattern: Singleton
  * Gère toutes les opérations de lecture/écriture des fichiers XML avec validation XSD
+ * Les mutations de tâches sont ajoutées au journal (TaskJournal) ; tasks.xml est un snapshot
+ * réécrit en arrière-plan quand le journal dépasse le seuil de compaction (256 Ko). Si le journal
+ * n'a pas pu être rejoué, la compaction est suspendue : ses générations ne sont jamais supprimées.
+ *
+ * Écriture différée (write-behind) : les mutations modifient le cache immédiatement et sont
+ * validées sur disque par lots sur le thread d'E/S, après un délai ou un nombre de mutations.
+ * flush() attend que toutes les mutations en attente soient durables.
+ *
+ * Concurrence (GuardedStore) : les lectures s'exécutent en parallèle, les écritures sont
+ * sérialisées, et getAllUsers / getAllTasks retournent la version courante, immuable, de la liste.
+ * Les tâches et utilisateurs du cache sont figés (Task.freeze, User.freeze) : une version de la liste reste cohérente
+ * pendant que les écritures continuent. modifyTask / modifyUser appliquent un
+ * lire-modifier-écrire de façon atomique.
+ *
+ * Validation : chaque tâche ou utilisateur ajouté ou modifié est vérifié en mémoire selon les
+ * contraintes des XSD (RecordValidator) avant d'entrer dans le cache et le journal ; un
+ * snapshot est ensuite écrit en un seul passage, sans relecture du fichier.
+ *
+ * Démarrage : initializeAsync / whenReady chargent la base sur un thread dédié (users.xml et
+ * tasks.xml en parallèle) ; getInstance attend cette initialisation si elle est en cours.
+ * Les durées des phases sont dans getStartupTimings().
  */
 public class XMLDatabaseManager {
     private static final String TAG = "XMLDatabaseManager";
-    private static XMLDatabaseManager instance;
+    private static volatile XMLDatabaseManager instance;
     private Context context;
 
+    // Initialisation unique, lancée par initializeAsync (écran de démarrage) ou par getInstance
+    private static FutureTask<XMLDatabaseManager> initialization;
+    private static boolean initializationStarted;
+    private static List<ReadyCallback> readyCallbacks = new ArrayList<>();
+
     private static final String USERS_FILE = "users.xml";
     private static final String TASKS_FILE = "tasks.xml";
+    private static final String TASKS_JOURNAL = "tasks.journal";
+
+    // Taille du journal actif au-delà de laquelle un nouveau snapshot tasks.xml est écrit
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 256 * 1024;
+
+    // Caches indexés par id, dans l'ordre des fichiers XML
+    private final GuardedStore<User, UserStore> usersCache =
+            new GuardedStore<>(new UserStore(new ArrayList<User>()));
+    private final GuardedStore<Task, TaskStore> tasksCache =
+            new GuardedStore<>(new TaskStore(new ArrayList<Task>()));
+
+    private final DashboardAggregator dashboardAggregator = new DashboardAggregator();
 
-    private List<User> usersCache;
-    private List<Task> tasksCache;
+    // Écriture différée : délai avant validation d'un lot et nombre de mutations qui la force
+    private static final long DEFAULT_FLUSH_DELAY_MS = 500;
+    private static final int DEFAULT_FLUSH_MAX_DIRTY = 32;
+
+    private final TaskJournal taskJournal;
+    private volatile long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    // Le journal n'a pas pu être rejoué : le cache ne contient pas toutes ses mutations,
+    // un snapshot écrit maintenant ne doit pas permettre de supprimer ses générations
+    private volatile boolean journalReplayFailed;
+
+    // Validation en mémoire des enregistrements modifiés (null : schéma non pris en charge,
+    // le fichier écrit est alors revalidé en entier)
+    private final RecordValidator taskValidator;
+    private final RecordValidator userValidator;
+
+    // Thread unique pour toutes les écritures : lots du journal, users.xml et compaction
+    private final ScheduledExecutorService ioExecutor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "xml-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private long flushDelayMs = DEFAULT_FLUSH_DELAY_MS;
+    private int flushMaxDirty = DEFAULT_FLUSH_MAX_DIRTY;
+    private int dirtyMutations;
+    private boolean usersDirty;
+    private Future<Boolean> pendingFlush;
 
     /**
-     * Constructeur privé pour Singleton
+     * Modification d'un enregistrement du cache, appliquée sous le verrou d'écriture
      */
-    private XMLDatabaseManager(Context context) {
+    public interface Mutation<T> {
+        /**
+         * @return false pour ne rien enregistrer (condition non remplie, enregistrement inchangé)
+         */
+        boolean apply(T record);
+    }
+
+    /**
+     * Appelé une fois la base chargée, sur le thread d'initialisation
+     */
+    public interface ReadyCallback {
+        /**
+         * @param manager la base prête, ou null si l'initialisation a échoué
+         */
+        void onReady(XMLDatabaseManager manager);
+    }
+
+    private final StartupTimings startupTimings = new StartupTimings();
+
+    /**
+     * Constructeur du Singleton (accessible au package pour les tests sur un répertoire temporaire)
+     */
+    XMLDatabaseManager(Context context) {
         this.context = context.getApplicationContext();
+        this.taskJournal = new TaskJournal(this.context.getFilesDir(), TASKS_JOURNAL);
+        this.taskValidator = loadRecordValidator(R.raw.tasks_schema, "task");
+        this.userValidator = loadRecordValidator(R.raw.users_schema, "user");
         initializeCache();
     }
 
     /**
      * Obtient l'instance unique (Singleton)
+     * Si l'initialisation est en cours (initializeAsync), attend sa fin au lieu d'en lancer
+     * une seconde ; sinon charge la base sur le thread appelant.
      */
-    public static synchronized XMLDatabaseManager getInstance(Context context) {
-        if (instance == null) {
-            instance = new XMLDatabaseManager(context);
+    public static XMLDatabaseManager getInstance(Context context) {
+        XMLDatabaseManager current = instance;
+        if (current != null) {
+            return current;
+        }
+        FutureTask<XMLDatabaseManager> task = initialization(context);
+        // Sans effet si le thread d'initialisation l'exécute déjà : get() attend alors sa fin
+        task.run();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the database", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Database initialization failed", e.getCause());
         }
-        return instance;
+    }
+
+    /**
+     * Lance le chargement de la base sur un thread dédié et retourne aussitôt
+     * Users et tasks sont chargés et validés en parallèle ; une fois la base prête, les
+     * index et le tableau de bord sont préchauffés sur le même thread.
+     */
+    public static Future<XMLDatabaseManager> initializeAsync(Context context) {
+        final FutureTask<XMLDatabaseManager> task;
+        synchronized (XMLDatabaseManager.class) {
+            task = initialization(context);
+            if (initializationStarted) {
+                return task;
+            }
+            initializationStarted = true;
+        }
+        Thread thread = new Thread(() -> {
+            task.run();
+            XMLDatabaseManager manager = instance;
+            notifyReady(manager);
+            if (manager != null) {
+                Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
+                manager.prewarm();
+            }
+        }, "xml-init");
+        thread.start();
+        return task;
+    }
+
+    /**
+     * Lance l'initialisation si besoin et appelle {@code callback} dès que la base est prête
+     * (tout de suite, sur le thread appelant, si elle l'est déjà)
+     */
+    public static void whenReady(Context context, ReadyCallback callback) {
+        synchronized (XMLDatabaseManager.class) {
+            if (readyCallbacks != null) {
+                readyCallbacks.add(callback);
+                callback = null;
+            }
+        }
+        if (callback != null) {
+            callback.onReady(instance);
+        } else {
+            initializeAsync(context);
+        }
+    }
+
+    private static synchronized FutureTask<XMLDatabaseManager> initialization(Context context) {
+        if (initialization == null) {
+            final Context appContext = context.getApplicationContext();
+            initialization = new FutureTask<>(() -> {
+                XMLDatabaseManager manager = new XMLDatabaseManager(appContext);
+                instance = manager;
+                return manager;
+            });
+        }
+        return initialization;
+    }
+
+    private static void notifyReady(XMLDatabaseManager manager) {
+        List<ReadyCallback> callbacks;
+        synchronized (XMLDatabaseManager.class) {
+            callbacks = readyCallbacks;
+            readyCallbacks = null;
+        }
+        if (callbacks == null) {
+            return;
+        }
+        for (ReadyCallback callback : callbacks) {
+            callback.onReady(manager);
+        }
+    }
+
+    /**
+     * Durées des phases du dernier chargement (users, tasks, journal, index, préchauffage)
+     */
+    public StartupTimings getStartupTimings() {
+        return startupTimings;
     }
 
     /**
      * Initialise le cache en chargeant les données depuis les fichiers XML
      * avec validation XSD
+     * users.xml est chargé sur un second thread pendant que celui-ci charge tasks.xml
+     * et rejoue le journal ; les caches ne sont remplacés qu'une fois les deux prêts.
      */
     private void initializeCache() {
         Log.d(TAG, "========== Initializing XML Database with XSD Validation ==========");
+        final long start = System.nanoTime();
+
+        FutureTask<UserStore> usersLoad = new FutureTask<>(() -> {
+            long usersStart = System.nanoTime();
+            List<User> users = loadUsers();
+            for (User user : users) {
+                user.freeze();
+            }
+            UserStore store = new UserStore(users);
+            startupTimings.recordSince("users", usersStart);
+            return store;
+        });
+        new Thread(usersLoad, "xml-load-users").start();
+
+        long phase = System.nanoTime();
+        List<Task> snapshot = loadTasks();
+        startupTimings.recordSince("tasks", phase);
+
+        phase = System.nanoTime();
+        List<Task> loaded = replayTaskJournal(snapshot);
+        startupTimings.recordSince("journal", phase);
+
+        phase = System.nanoTime();
+        for (Task task : loaded) {
+            task.freeze();
+        }
+        TaskStore tasks = new TaskStore(loaded);
+        startupTimings.recordSince("task indexes", phase);
+
+        UserStore users = awaitUsers(usersLoad);
+        usersCache.replace(users);
+        tasksCache.replace(tasks);
+        startupTimings.recordSince("total", start);
+
+        Log.i(TAG, "✅ Startup timings: " + startupTimings);
+        Log.d(TAG, "========== XML Database Initialization Complete ==========");
+    }
 
-        // Charger les utilisateurs avec validation XSD
+    private UserStore awaitUsers(FutureTask<UserStore> usersLoad) {
         try {
-            File usersFile = new File(context.getFilesDir(), USERS_FILE);
+            return usersLoad.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "❌ Error loading users", e.getCause());
+        }
+        return new UserStore(new ArrayList<User>());
+    }
 
-            if (!usersFile.exists()) {
-                Log.d(TAG, "First run: copying users.xml from resources");
-                copyResourceToFile(R.raw.users, USERS_FILE);
-            }
+    /**
+     * Préchauffe ce que les premiers écrans lisent : statistiques (seuil des retards avancé
+     * à maintenant), agrégats du tableau de bord, première page et vue des plus urgentes
+     */
+    private void prewarm() {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        getTaskStatistics(now);
+        getDashboardSummary(now, null);
+        getTaskPage(new TaskQuery(), null, 50);
+        queryTasks(new TaskQuery()
+                .orderByDescending(TaskQuery.SortKey.PRIORITY)
+                .orderBy(TaskQuery.SortKey.DUE_DATE)
+                .limit(20));
+        startupTimings.recordSince("prewarm", start);
+        Log.d(TAG, "✅ Indexes and dashboard prewarmed: " + startupTimings);
+    }
 
-            // VALIDATION XSD AVANT LE PARSING
-            Log.d(TAG, "Step 1: Validating users.xml against XSD schema");
-            InputStream validationStream = new FileInputStream(usersFile);
-            boolean isValid = XMLValidator.validateUsersXML(context, validationStream);
-            validationStream.close();
+    /**
+     * Lecture d'un snapshot validé (users.xml ou tasks.xml)
+     */
+    private interface SnapshotReader<T> {
+        List<T> read(InputStream inputStream, Schema schema) throws Exception;
+    }
 
-            if (!isValid) {
-                Log.e(TAG, "❌ Users XML validation FAILED! Using empty list.");
-                usersCache = new ArrayList<>();
-                return;
-            }
+    /**
+     * Lecture sans validation d'un snapshot couvert par son certificat
+     */
+    private interface CertifiedReader<T> {
+        List<T> read(InputStream inputStream);
+    }
+
+    /**
+     * Écriture du contenu d'un snapshot
+     */
+    private interface SnapshotContent {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Charge users.xml : une seule lecture du fichier alimente à la fois
+     * le validateur XSD et la construction des utilisateurs
+     */
+    private List<User> loadUsers() {
+        return loadSnapshot(USERS_FILE, R.raw.users, R.raw.users_schema, "Users",
+                XMLParser::parseUsersXML, XMLParser::parseUsersXML);
+    }
 
-            Log.i(TAG, "✅ Users XML validation PASSED");
+    /**
+     * Charge tasks.xml : une seule lecture du fichier alimente à la fois
+     * le validateur XSD et la construction des tâches
+     */
+    private List<Task> loadTasks() {
+        return loadSnapshot(TASKS_FILE, R.raw.tasks, R.raw.tasks_schema, "Tasks",
+                XMLParser::parseTasksXML, XMLParser::parseTasksXML);
+    }
 
-            // PARSING DU XML VALIDÉ
-            Log.d(TAG, "Step 2: Parsing users.xml");
-            InputStream usersStream = new FileInputStream(usersFile);
-            usersCache = XMLParser.parseUsersXML(usersStream);
-            usersStream.close();
+    /**
+     * Charge un snapshot XML validé ; si le fichier courant est illisible (crash pendant une écriture),
+     * la génération suivante valide (temporaire synchronisé puis .bak) est restaurée
+     * Un fichier inchangé depuis sa dernière validation (certificat : taille, CRC, schéma)
+     * est lu sans validation XSD ni compilation du schéma.
+     */
+    private <T> List<T> loadSnapshot(String fileName, int resourceId, int xsdResourceId, String label,
+                                     SnapshotReader<T> reader, CertifiedReader<T> certifiedReader) {
+        SnapshotFile snapshotFile = new SnapshotFile(new File(context.getFilesDir(), fileName));
+
+        if (snapshotFile.isMissing()) {
+            Log.d(TAG, "First run: copying " + fileName + " from resources");
+            copyResourceToFile(resourceId, fileName);
+        }
 
-            Log.i(TAG, "✅ Successfully loaded " + usersCache.size() + " users");
+        Long schemaCrc = schemaChecksum(xsdResourceId);
+        ValidationCertificate certificate = ValidationCertificate.read(snapshotFile.getCertificateFile());
+        if (certificate != null && schemaCrc != null
+                && certificate.mayMatch(snapshotFile.getBaseFile(), schemaCrc)) {
+            List<T> records = readCertified(snapshotFile.getBaseFile(), certificate, schemaCrc, certifiedReader);
+            if (records != null) {
+                Log.i(TAG, "✅ " + label + " XML unchanged since last validation, XSD validation skipped");
+                Log.i(TAG, "✅ Successfully loaded " + records.size() + " " + label.toLowerCase());
+                return records;
+            }
+            Log.w(TAG, fileName + " changed since last validation: full XSD validation");
+        }
 
+        Schema schema;
+        try {
+            schema = XMLValidator.getSchema(context, xsdResourceId);
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error loading users: " + e.getMessage());
+            Log.e(TAG, "❌ Error loading " + fileName + " schema: " + e.getMessage());
             e.printStackTrace();
-            usersCache = new ArrayList<>();
+            return new ArrayList<>();
         }
 
-        // Charger les tâches avec validation XSD
-        try {
-            File tasksFile = new File(context.getFilesDir(), TASKS_FILE);
+        for (File candidate : snapshotFile.getRecoveryCandidates()) {
+            try {
+                // VALIDATION XSD ET PARSING EN UN SEUL PASSAGE
+                Log.d(TAG, "Validating and parsing " + candidate.getName() + " against XSD schema");
+                ValidationCertificate.ChecksumStream inputStream = ValidationCertificate.open(candidate);
+                List<T> records;
+                long contentCrc;
+                try {
+                    records = reader.read(inputStream, schema);
+                    contentCrc = inputStream.finish();
+                } finally {
+                    inputStream.release();
+                }
+
+                // Le temporaire récupéré est renommé : la taille se lit sur le fichier restauré
+                snapshotFile.restore(candidate);
+                if (schemaCrc != null) {
+                    new ValidationCertificate(snapshotFile.getBaseFile().length(), contentCrc, schemaCrc)
+                            .write(snapshotFile.getCertificateFile());
+                }
 
-            if (!tasksFile.exists()) {
-                Log.d(TAG, "First run: copying tasks.xml from resources");
-                copyResourceToFile(R.raw.tasks, TASKS_FILE);
+                Log.i(TAG, "✅ " + label + " XML validation PASSED");
+                Log.i(TAG, "✅ Successfully loaded " + records.size() + " " + label.toLowerCase());
+                return records;
+
+            } catch (SAXException e) {
+                Log.e(TAG, "❌ " + label + " XML validation FAILED for " + candidate.getName() + ": " + e.getMessage());
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error loading " + candidate.getName() + ": " + e.getMessage());
+                e.printStackTrace();
             }
+        }
 
-            // VALIDATION XSD AVANT LE PARSING
-            Log.d(TAG, "Step 1: Validating tasks.xml against XSD schema");
-            InputStream validationStream = new FileInputStream(tasksFile);
-            boolean isValid = XMLValidator.validateTasksXML(context, validationStream);
-            validationStream.close();
+        Log.e(TAG, "❌ No valid " + fileName + " generation found! Using empty list.");
+        return new ArrayList<>();
+    }
 
-            if (!isValid) {
-                Log.e(TAG, "❌ Tasks XML validation FAILED! Using empty list.");
-                tasksCache = new ArrayList<>();
-                return;
+    /**
+     * Lit un fichier certifié sans validation, en calculant son CRC au passage
+     *
+     * @return null si le contenu ne correspond pas au certificat (fichier modifié ou restauré)
+     */
+    private <T> List<T> readCertified(File file, ValidationCertificate certificate, long schemaCrc,
+                                      CertifiedReader<T> reader) {
+        try {
+            ValidationCertificate.ChecksumStream inputStream = ValidationCertificate.open(file);
+            List<T> records;
+            long contentCrc;
+            try {
+                records = reader.read(inputStream);
+                contentCrc = inputStream.finish();
+            } finally {
+                inputStream.release();
             }
+            if (certificate.matches(file.length(), contentCrc, schemaCrc)) {
+                return records;
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Error reading " + file.getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
 
-            Log.i(TAG, "✅ Tasks XML validation PASSED");
+    /**
+     * CRC du schéma pour les certificats, ou null s'il est illisible (validation complète)
+     */
+    private Long schemaChecksum(int xsdResourceId) {
+        try {
+            return XMLValidator.getSchemaChecksum(context, xsdResourceId);
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Error reading schema checksum: " + e.getMessage());
+            return null;
+        }
+    }
 
-            // PARSING DU XML VALIDÉ
-            Log.d(TAG, "Step 2: Parsing tasks.xml");
-            InputStream tasksStream = new FileInputStream(tasksFile);
-            tasksCache = XMLParser.parseTasksXML(tasksStream);
-            tasksStream.close();
+    /**
+     * Rejoue le journal des mutations sur les tâches du snapshot tasks.xml
+     */
+    private List<Task> replayTaskJournal(List<Task> snapshot) {
+        Map<String, Task> tasksById = new LinkedHashMap<>();
+        for (Task task : snapshot) {
+            tasksById.put(task.getId(), task);
+        }
 
-            Log.i(TAG, "✅ Successfully loaded " + tasksCache.size() + " tasks");
+        try {
+            TaskJournal.ReplayResult replayed = taskJournal.replay(tasksById);
+            journalReplayFailed = false;
+            if (replayed.records == 0) {
+                return snapshot;
+            }
 
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error loading tasks: " + e.getMessage());
+            Log.i(TAG, "✅ Replayed " + replayed.records + " task mutations from journal");
+            dropInvalidReplayedTasks(tasksById, replayed.taskIds, snapshot);
+            return new ArrayList<>(tasksById.values());
+
+        } catch (IOException e) {
+            // Les générations restent sur disque, intactes, jusqu'à un rejeu réussi
+            journalReplayFailed = true;
+            Log.e(TAG, "❌ Error replaying task journal, compaction suspended: " + e.getMessage());
             e.printStackTrace();
-            tasksCache = new ArrayList<>();
+            return snapshot;
         }
+    }
 
-        Log.d(TAG, "========== XML Database Initialization Complete ==========");
+    /**
+     * Vérifie les seules tâches écrites par le journal (les autres viennent du snapshot validé) ;
+     * un journal antérieur à la validation en mémoire peut contenir des tâches invalides.
+     * Une tâche invalide reprend sa version du snapshot, ou est écartée si elle n'y figure pas :
+     * sinon aucune compaction ne pourrait réussir et le journal grandirait sans fin.
+     */
+    private void dropInvalidReplayedTasks(Map<String, Task> tasksById, Set<String> replayedIds,
+                                          List<Task> snapshot) {
+        for (String id : replayedIds) {
+            Task task = tasksById.get(id);
+            String error = task != null ? checkTask(task) : null;
+            if (error == null) {
+                continue;
+            }
+            Task previous = findTask(snapshot, id);
+            if (previous != null) {
+                tasksById.put(id, previous);
+                Log.e(TAG, "❌ Invalid task in journal, keeping snapshot version: " + task + " (" + error + ")");
+            } else {
+                tasksById.remove(id);
+                Log.e(TAG, "❌ Invalid task in journal, dropped: " + task + " (" + error + ")");
+            }
+        }
+    }
+
+    private static Task findTask(List<Task> tasks, String taskId) {
+        for (Task task : tasks) {
+            if (taskId.equals(task.getId())) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validateur en mémoire construit depuis le schéma XSD, ou null si le schéma est illisible
+     * ou utilise une contrainte non prise en charge
+     */
+    private RecordValidator loadRecordValidator(int xsdResourceId, String recordElement) {
+        try {
+            InputStream xsdInputStream = context.getResources().openRawResource(xsdResourceId);
+            try {
+                return RecordValidator.fromSchema(xsdInputStream, recordElement);
+            } finally {
+                xsdInputStream.close();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "❌ No in-memory validator for " + recordElement + ", full file validation kept: "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return l'erreur de validation de la tâche selon tasks_schema.xml, ou null
+     */
+    private String checkTask(Task task) {
+        return taskValidator != null ? taskValidator.validate(task, XMLWriter.TASK_FIELDS) : null;
+    }
+
+    /**
+     * @return l'erreur de validation de l'utilisateur selon users_schema.xml, ou null
+     */
+    private String checkUser(User user) {
+        return userValidator != null ? userValidator.validate(user, XMLWriter.USER_FIELDS) : null;
     }
 
     /**
@@ -140,9 +583,9 @@ public class XMLDatabaseManager {
     private void copyResourceToFile(int resourceId, String fileName) {
         try {
             InputStream inputStream = context.getResources().openRawResource(resourceId);
-            File outputFile = new File(context.getFilesDir(), fileName);
+            SnapshotFile snapshotFile = new SnapshotFile(new File(context.getFilesDir(), fileName));
 
-            java.io.FileOutputStream outputStream = new java.io.FileOutputStream(outputFile);
+            FileOutputStream outputStream = snapshotFile.startWrite();
             byte[] buffer = new byte[1024];
             int length;
 
@@ -150,7 +593,7 @@ public class XMLDatabaseManager {
                 outputStream.write(buffer, 0, length);
             }
 
-            outputStream.close();
+            snapshotFile.finishWrite(outputStream);
             inputStream.close();
 
             Log.d(TAG, "✅ Copied resource to file: " + fileName);
@@ -162,149 +605,534 @@ public class XMLDatabaseManager {
 
     /**
      * Sauvegarde les utilisateurs dans le fichier XML
-     * Valide le XML après l'écriture
      */
-    private boolean saveUsers() {
+    private boolean saveUsers(final List<User> users) {
         Log.d(TAG, "Saving users to XML");
-        boolean writeSuccess = XMLWriter.writeUsersToXML(context, usersCache, USERS_FILE);
+        // Chaque utilisateur du cache (figé) a été validé à son chargement ou à sa modification
+        return saveSnapshot(USERS_FILE, R.raw.users_schema, userValidator == null,
+                outputStream -> XMLWriter.writeUsers(outputStream, users, true));
+    }
 
-        if (writeSuccess) {
-            // Valider le XML après écriture
-            try {
-                File usersFile = new File(context.getFilesDir(), USERS_FILE);
-                InputStream validationStream = new FileInputStream(usersFile);
-                boolean isValid = XMLValidator.validateUsersXML(context, validationStream);
-                validationStream.close();
-
-                if (isValid) {
-                    Log.i(TAG, "✅ Users XML saved and validated successfully");
-                    return true;
-                } else {
-                    Log.e(TAG, "❌ Users XML saved but validation FAILED!");
-                    return false;
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "❌ Error validating saved users XML: " + e.getMessage());
+    /**
+     * Sauvegarde un snapshot des tâches dans le fichier XML
+     */
+    private boolean saveTasks(final List<Task> tasks) {
+        Log.d(TAG, "Saving tasks to XML");
+        // Chaque tâche du cache a été validée à son chargement, à son rejeu ou à sa modification
+        return saveSnapshot(TASKS_FILE, R.raw.tasks_schema, taskValidator == null,
+                outputStream -> XMLWriter.writeTasks(outputStream, tasks, true));
+    }
+
+    /**
+     * Écrit le snapshot dans un fichier temporaire puis remplace atomiquement le fichier :
+     * un snapshot interrompu ne remplace jamais la génération courante
+     * Les enregistrements sont validés en mémoire avant d'entrer dans le cache : l'écriture est
+     * un seul passage séquentiel. {@code validateFile} relit et valide le temporaire en entier
+     * (sans validateur en mémoire, ou enregistrements non vérifiés), un fichier invalide est écarté.
+     */
+    private boolean saveSnapshot(String fileName, int xsdResourceId, boolean validateFile,
+                                 SnapshotContent content) {
+        SnapshotFile snapshotFile = new SnapshotFile(new File(context.getFilesDir(), fileName));
+        FileOutputStream outputStream = null;
+
+        try {
+            outputStream = snapshotFile.startWrite();
+            CheckedOutputStream checkedStream = new CheckedOutputStream(outputStream, new CRC32());
+            content.writeTo(checkedStream);
+            checkedStream.flush();
+
+            if (validateFile && !validateWritten(snapshotFile.getTempFile(), xsdResourceId)) {
+                Log.e(TAG, "❌ " + fileName + " written but validation FAILED! Keeping previous file.");
+                snapshotFile.failWrite(outputStream);
                 return false;
             }
+
+            snapshotFile.finishWrite(outputStream);
+            certify(snapshotFile, xsdResourceId, checkedStream.getChecksum().getValue());
+            Log.i(TAG, "✅ " + fileName + " saved successfully");
+            return true;
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error saving " + fileName + ": " + e.getMessage());
+            if (outputStream != null) {
+                snapshotFile.failWrite(outputStream);
+            }
+            return false;
         }
+    }
 
-        return false;
+    /**
+     * Validation XSD complète du fichier écrit
+     */
+    private boolean validateWritten(File file, int xsdResourceId) throws IOException {
+        InputStream validationStream = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return XMLValidator.validateXML(context, validationStream, xsdResourceId);
+        } finally {
+            validationStream.close();
+        }
     }
 
     /**
-     * Sauvegarde les tâches dans le fichier XML
-     * Valide le XML après l'écriture
+     * Certificat du fichier validé qui vient d'être mis en place
      */
-    private boolean saveTasks() {
-        Log.d(TAG, "Saving tasks to XML");
-        boolean writeSuccess = XMLWriter.writeTasksToXML(context, tasksCache, TASKS_FILE);
+    private void certify(SnapshotFile snapshotFile, int xsdResourceId, long contentCrc) {
+        Long schemaCrc = schemaChecksum(xsdResourceId);
+        if (schemaCrc == null) {
+            ValidationCertificate.delete(snapshotFile.getCertificateFile());
+            return;
+        }
+        new ValidationCertificate(snapshotFile.getBaseFile().length(), contentCrc, schemaCrc)
+                .write(snapshotFile.getCertificateFile());
+    }
 
-        if (writeSuccess) {
-            // Valider le XML après écriture
-            try {
-                File tasksFile = new File(context.getFilesDir(), TASKS_FILE);
-                InputStream validationStream = new FileInputStream(tasksFile);
-                boolean isValid = XMLValidator.validateTasksXML(context, validationStream);
-                validationStream.close();
-
-                if (isValid) {
-                    Log.i(TAG, " Tasks XML saved and validated successfully");
-                    return true;
-                } else {
-                    Log.e(TAG, " Tasks XML saved but validation FAILED!");
-                    return false;
-                }
-            } catch (Exception e) {
-                Log.e(TAG, " Error validating saved tasks XML: " + e.getMessage());
-                return false;
+    // ====== ÉCRITURE DIFFÉRÉE ======
+
+    /**
+     * Configure l'écriture différée
+     *
+     * @param delayMs délai maximal avant la validation d'un lot (0 : valider à chaque mutation)
+     * @param maxDirty nombre de mutations en attente qui déclenche la validation sans attendre le délai
+     */
+    public synchronized void setWriteBehind(long delayMs, int maxDirty) {
+        this.flushDelayMs = Math.max(0, delayMs);
+        this.flushMaxDirty = Math.max(1, maxDirty);
+    }
+
+    /**
+     * Taille du journal actif qui déclenche la compaction (tests)
+     */
+    void setCompactionThreshold(long bytes) {
+        this.compactionThreshold = bytes;
+    }
+
+    /**
+     * Encode la mutation dans le journal, avant de modifier le cache (sous le verrou d'écriture) :
+     * si l'encodage échoue, le cache reste inchangé
+     */
+    private boolean journalTaskPut(Task task) {
+        try {
+            taskJournal.appendPut(task);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "❌ Error appending task to journal: " + e.getMessage());
+            return false;
+        }
+        markDirty();
+        return true;
+    }
+
+    private boolean journalTaskDelete(String taskId) {
+        try {
+            taskJournal.appendDelete(taskId);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "❌ Error appending task deletion to journal: " + e.getMessage());
+            return false;
+        }
+        markDirty();
+        return true;
+    }
+
+    private synchronized boolean markUsersDirty() {
+        usersDirty = true;
+        markDirty();
+        return true;
+    }
+
+    /**
+     * Compte une mutation en attente et planifie la validation du lot
+     * (appelé sous le verrou d'écriture du cache : ordre des verrous cache puis this)
+     */
+    private synchronized void markDirty() {
+        dirtyMutations++;
+
+        if (dirtyMutations >= flushMaxDirty || flushDelayMs == 0) {
+            requestFlush();
+        } else if (pendingFlush == null) {
+            pendingFlush = ioExecutor.schedule(this::flushPending, flushDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Demande la validation immédiate des mutations en attente, sans attendre
+     * (par exemple quand l'application passe en arrière-plan)
+     */
+    public synchronized Future<Boolean> requestFlush() {
+        Future<Boolean> scheduled = pendingFlush;
+        if (scheduled != null && scheduled.cancel(false)) {
+            pendingFlush = null;
+        }
+        if (pendingFlush == null) {
+            pendingFlush = ioExecutor.submit(this::flushPending);
+        }
+        return pendingFlush;
+    }
+
+    /**
+     * Valide toutes les mutations en attente et attend qu'elles soient durables
+     * Ne pas appeler depuis le thread d'E/S
+     *
+     * @return true si toutes les écritures ont réussi
+     */
+    public boolean flush() {
+        try {
+            // Soumis après les lots déjà planifiés : couvre toutes les mutations faites avant l'appel
+            return ioExecutor.submit(this::flushPending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            Log.e(TAG, "❌ Error flushing XML database: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Écrit le lot en attente (thread d'E/S) : un seul fsync pour toutes les mutations de tâches,
+     * une seule réécriture de users.xml, puis compaction du journal si nécessaire
+     */
+    private boolean flushPending() {
+        boolean writeUsers;
+        synchronized (this) {
+            pendingFlush = null;
+            dirtyMutations = 0;
+            writeUsers = usersDirty;
+            usersDirty = false;
+        }
+        // Pris après avoir baissé l'indicateur : une mutation plus récente le relève
+        List<User> usersSnapshot = writeUsers ? usersCache.snapshot() : null;
+
+        boolean success = true;
+
+        try {
+            int written = taskJournal.sync();
+            if (written > 0) {
+                Log.d(TAG, "Committed " + written + " task mutations to journal");
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Error writing task journal: " + e.getMessage());
+            success = false;
+        }
+
+        if (usersSnapshot != null && !saveUsers(usersSnapshot)) {
+            synchronized (this) {
+                usersDirty = true;
             }
+            success = false;
+        }
+
+        compactTasksIfNeeded();
+        return success;
+    }
+
+    /**
+     * Ferme la génération active du journal et écrit le snapshot correspondant (thread d'E/S) ;
+     * les générations couvertes ne sont supprimées qu'une fois le snapshot écrit et validé.
+     * Le snapshot peut contenir des mutations de la génération suivante : le rejeu est idempotent.
+     */
+    private void compactTasksIfNeeded() {
+        if (taskJournal.size() < compactionThreshold) {
+            return;
+        }
+        if (journalReplayFailed) {
+            Log.w(TAG, "Task journal was not replayed: keeping all generations, no compaction");
+            return;
+        }
+
+        int generation;
+        try {
+            generation = taskJournal.rotate();
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Error rotating task journal: " + e.getMessage());
+            return;
         }
 
-        return false;
+        if (saveTasks(tasksCache.snapshot())) {
+            taskJournal.deleteUpTo(generation);
+            Log.d(TAG, "Compacted task journal up to generation " + generation);
+        }
     }
 
     // ====== MÉTHODES PUBLIQUES CRUD ======
 
+    /**
+     * Tous les utilisateurs, en lecture seule (version courante, en O(1), sans copie ni verrou)
+     */
     public List<User> getAllUsers() {
-        return new ArrayList<>(usersCache);
+        return usersCache.snapshot();
     }
 
+    /**
+     * Toutes les tâches, figées, en lecture seule (version courante, en O(1), sans copie ni verrou) ;
+     * la liste retournée ne change plus, même si des écritures suivent
+     */
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasksCache);
+        return tasksCache.snapshot();
     }
 
     public User getUserById(String userId) {
-        for (User user : usersCache) {
-            if (user.getId().equals(userId)) {
-                return user;
-            }
-        }
-        return null;
+        return usersCache.read(store -> store.get(userId));
     }
 
     public Task getTaskById(String taskId) {
-        for (Task task : tasksCache) {
-            if (task.getId().equals(taskId)) {
-                return task;
-            }
-        }
-        return null;
+        return tasksCache.read(store -> store.get(taskId));
+    }
+
+    // ====== ANNUAIRE DES UTILISATEURS ======
+
+    public User getUserByUsername(String username) {
+        return usersCache.read(store -> store.getByUsername(username));
+    }
+
+    public User getUserByEmail(String email) {
+        return usersCache.read(store -> store.getByEmail(email));
     }
 
+    public List<User> getUsersByType(UserType userType) {
+        return usersCache.read(store -> store.getByType(userType));
+    }
+
+    public int getUserCount() {
+        return usersCache.read(UserStore::size);
+    }
+
+    public int getUserCountByType(UserType userType) {
+        return usersCache.read(store -> store.countByType(userType));
+    }
+
+    public List<User> completeUsers(String prefix, int limit) {
+        return usersCache.read(store -> store.complete(prefix, limit));
+    }
+
+    public List<Task> completeTaskTitles(String prefix, int limit) {
+        return tasksCache.read(store -> store.completeTitle(prefix, limit));
+    }
+
+    // ====== REQUÊTES PAR INDEX SECONDAIRE ======
+
+    public List<Task> getTasksByAssignee(String userId) {
+        return tasksCache.read(store -> store.getByAssignee(userId));
+    }
+
+    public List<Task> getTasksByCreator(String userId) {
+        return tasksCache.read(store -> store.getByCreator(userId));
+    }
+
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return tasksCache.read(store -> store.getByStatus(status));
+    }
+
+    public List<Task> getTasksByPriority(TaskPriority priority) {
+        return tasksCache.read(store -> store.getByPriority(priority));
+    }
+
+    public List<Task> getTasksDueBetween(long from, long to) {
+        return tasksCache.read(store -> store.getDueBetween(from, to));
+    }
+
+    public List<Task> getOverdueTasks(long now) {
+        return tasksCache.read(store -> store.getOverdue(now));
+    }
+
+    public List<Task> searchTasksContaining(String query) {
+        return tasksCache.read(store -> store.searchText(query));
+    }
+
+    public List<Task> searchTasks(String query, int limit) {
+        return tasksCache.read(store -> store.searchRanked(query, limit));
+    }
+
+    public int getTaskCount() {
+        return tasksCache.read(TaskStore::size);
+    }
+
+    public int getTaskCountByAssignee(String userId) {
+        return tasksCache.read(store -> store.countByAssignee(userId));
+    }
+
+    public TaskDAO.TaskStatistics getTaskStatistics(String userId, long now) {
+        return tasksCache.read(store -> store.getStatistics(userId, now));
+    }
+
+    public TaskDAO.TaskStatistics getTaskStatistics(long now) {
+        return tasksCache.read(store -> store.getStatistics(now));
+    }
+
+    /**
+     * Agrège le tableau de bord administrateur en un parcours du cache, sans copie
+     *
+     * @param reuse résultat précédent à remplir à nouveau, ou null
+     */
+    public DashboardSummary getDashboardSummary(long now, DashboardSummary reuse) {
+        // Verrous de lecture pris dans l'ordre tâches puis utilisateurs
+        return tasksCache.read(tasks -> usersCache.read(
+                users -> dashboardAggregator.aggregate(tasks.values(), users, now, reuse)));
+    }
+
+    /**
+     * Compteurs journaliers sommés par intervalle (bornes en millisecondes, à minuit local)
+     */
+    public RollupSeries getTaskRollup(String userId, long[] bounds) {
+        return tasksCache.read(store -> store.getRollup(userId, bounds));
+    }
+
+    public List<Task> queryTasks(TaskQuery query) {
+        return tasksCache.read(store -> store.query(query));
+    }
+
+    public TaskPage getTaskPage(TaskQuery query, TaskCursor after, int pageSize) {
+        return tasksCache.read(store -> store.page(query, after, pageSize));
+    }
+
+    public String explainTaskQuery(TaskQuery query) {
+        return tasksCache.read(store -> store.explain(query));
+    }
+
+    public int getTaskCountByStatus(TaskStatus status) {
+        return tasksCache.read(store -> store.countByStatus(status));
+    }
+
+    // ====== ÉCRITURES (sérialisées, journal puis cache sous le même verrou) ======
+
+    /**
+     * Ajoute une copie figée de l'utilisateur, sauf si son id ou son nom d'utilisateur est déjà pris
+     * (vérification et ajout atomiques)
+     */
     public boolean addUser(User user) {
-        usersCache.add(user);
-        return saveUsers();
+        final User record = frozen(user);
+        if (!isValid(record)) {
+            return false;
+        }
+        return usersCache.write(store -> {
+            if (store.get(record.getId()) != null || store.getByUsername(record.getUsername()) != null) {
+                return false;
+            }
+            store.add(record);
+            return markUsersDirty();
+        });
     }
 
+    /**
+     * Ajoute une copie figée de la tâche, sauf si son id est déjà pris
+     * (une tâche existante n'est jamais écrasée)
+     */
     public boolean addTask(Task task) {
-        tasksCache.add(task);
-        return saveTasks();
+        final Task record = frozen(task);
+        if (!isValid(record)) {
+            return false;
+        }
+        return tasksCache.write(store -> {
+            if (store.get(record.getId()) != null || !journalTaskPut(record)) {
+                return false;
+            }
+            store.add(record);
+            return true;
+        });
     }
 
+    /**
+     * Remplace l'utilisateur du cache par une copie figée de {@code user}
+     */
     public boolean updateUser(User user) {
-        for (int i = 0; i < usersCache.size(); i++) {
-            if (usersCache.get(i).getId().equals(user.getId())) {
-                usersCache.set(i, user);
-                return saveUsers();
-            }
-        }
-        return false;
+        final User record = frozen(user);
+        return isValid(record) && usersCache.write(store -> store.update(record) && markUsersDirty());
     }
 
+    /**
+     * Remplace la tâche du cache par une copie figée de {@code task}
+     */
     public boolean updateTask(Task task) {
-        for (int i = 0; i < tasksCache.size(); i++) {
-            if (tasksCache.get(i).getId().equals(task.getId())) {
-                tasksCache.set(i, task);
-                return saveTasks();
+        final Task record = frozen(task);
+        return isValid(record) && tasksCache.write(store ->
+                store.get(record.getId()) != null && journalTaskPut(record) && store.update(record));
+    }
+
+    /**
+     * Applique la modification à une copie de l'utilisateur du cache et l'enregistre, sans
+     * qu'une autre écriture puisse s'intercaler entre la lecture et l'enregistrement
+     *
+     * @return false si l'id est inconnu, si la modification a renoncé ou si le résultat est invalide
+     */
+    public boolean modifyUser(String userId, Mutation<User> mutation) {
+        return usersCache.write(store -> {
+            User current = store.get(userId);
+            if (current == null) {
+                return false;
             }
-        }
-        return false;
+            User user = current.copy();
+            return mutation.apply(user) && isValid(user) && store.update(user.freeze()) && markUsersDirty();
+        });
     }
 
-    public boolean deleteUser(String userId) {
-        for (int i = 0; i < usersCache.size(); i++) {
-            if (usersCache.get(i).getId().equals(userId)) {
-                usersCache.remove(i);
-                return saveUsers();
+    /**
+     * Idem pour une tâche (changement de statut, de priorité, ...) : la modification
+     * porte sur une copie, figée ensuite à la place de la tâche du cache
+     */
+    public boolean modifyTask(String taskId, Mutation<Task> mutation) {
+        return tasksCache.write(store -> {
+            Task current = store.get(taskId);
+            if (current == null) {
+                return false;
             }
+            Task task = current.copy();
+            return mutation.apply(task) && isValid(task) && journalTaskPut(task.freeze()) && store.update(task);
+        });
+    }
+
+    private static Task frozen(Task task) {
+        return task.isFrozen() ? task : task.copy().freeze();
+    }
+
+    private static User frozen(User user) {
+        return user.isFrozen() ? user : user.copy().freeze();
+    }
+
+    /**
+     * Validation en mémoire avant l'entrée dans le cache et le journal :
+     * un enregistrement invalide n'atteint jamais le disque
+     */
+    private boolean isValid(Task task) {
+        String error = checkTask(task);
+        if (error != null) {
+            Log.e(TAG, "❌ Invalid task " + task.getId() + ": " + error);
         }
-        return false;
+        return error == null;
     }
 
-    public boolean deleteTask(String taskId) {
-        for (int i = 0; i < tasksCache.size(); i++) {
-            if (tasksCache.get(i).getId().equals(taskId)) {
-                tasksCache.remove(i);
-                return saveTasks();
-            }
+    private boolean isValid(User user) {
+        String error = checkUser(user);
+        if (error != null) {
+            Log.e(TAG, "❌ Invalid user " + user.getId() + ": " + error);
         }
-        return false;
+        return error == null;
     }
 
+    public boolean deleteUser(String userId) {
+        return usersCache.write(store -> store.remove(userId) != null && markUsersDirty());
+    }
+
+    public boolean deleteTask(String taskId) {
+        return tasksCache.write(store ->
+                store.get(taskId) != null && journalTaskDelete(taskId) && store.remove(taskId) != null);
+    }
+
+    /**
+     * Recharge depuis le disque après avoir validé les mutations en attente
+     * (sur le thread d'E/S, pour ne pas croiser une écriture en cours ; les écritures
+     * sont bloquées jusqu'au rechargement pour qu'aucune ne se perde entre les deux)
+     */
     public void reload() {
         Log.d(TAG, "Reloading XML database");
-        initializeCache();
+        try {
+            ioExecutor.submit(() -> tasksCache.write(tasks -> usersCache.write(users -> {
+                flushPending();
+                initializeCache();
+                return true;
+            }))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "❌ Error reloading XML database: " + e.getMessage());
+        }
     }
 }
 
@@ -8,6 +8,9 @@ import java.util.Locale;
 /**
  * Modèle représentant une tâche dans le système
  * Implémente Serializable pour pouvoir être passé entre activités
+ *
+ * Les tâches du cache (XMLDatabaseManager) sont figées : pour modifier une tâche,
+ * modifier sa copie (copy()) puis la passer à updateTask.
  */
 public class Task implements Serializable {
     private String id;
@@ -20,6 +23,8 @@ public class Task implements Serializable {
     private long createdDate;
     private long dueDate;
     private long completedDate;
+    // Non sérialisé : une tâche reçue d'une autre activité est une copie modifiable
+    private transient boolean frozen;
 
     // Constructeur vide
     public Task() {
@@ -86,26 +91,32 @@ public class Task implements Serializable {
 
     // Setters
     public void setId(String id) {
+        checkMutable();
         this.id = id;
     }
 
     public void setTitle(String title) {
+        checkMutable();
         this.title = title;
     }
 
     public void setDescription(String description) {
+        checkMutable();
         this.description = description;
     }
 
     public void setAssignedTo(String assignedTo) {
+        checkMutable();
         this.assignedTo = assignedTo;
     }
 
     public void setCreatedBy(String createdBy) {
+        checkMutable();
         this.createdBy = createdBy;
     }
 
     public void setStatus(TaskStatus status) {
+        checkMutable();
         this.status = status;
         if (status == TaskStatus.COMPLETED && completedDate == 0) {
             this.completedDate = System.currentTimeMillis();
@@ -113,21 +124,61 @@ public class Task implements Serializable {
     }
 
     public void setPriority(TaskPriority priority) {
+        checkMutable();
         this.priority = priority;
     }
 
     public void setCreatedDate(long createdDate) {
+        checkMutable();
         this.createdDate = createdDate;
     }
 
     public void setDueDate(long dueDate) {
+        checkMutable();
         this.dueDate = dueDate;
     }
 
     public void setCompletedDate(long completedDate) {
+        checkMutable();
         this.completedDate = completedDate;
     }
 
+    /**
+     * Copie modifiable de la tâche (même figée)
+     */
+    public Task copy() {
+        Task copy = new Task();
+        copy.id = id;
+        copy.title = title;
+        copy.description = description;
+        copy.assignedTo = assignedTo;
+        copy.createdBy = createdBy;
+        copy.status = status;
+        copy.priority = priority;
+        copy.createdDate = createdDate;
+        copy.dueDate = dueDate;
+        copy.completedDate = completedDate;
+        return copy;
+    }
+
+    /**
+     * Fige la tâche : ses setters lèvent ensuite IllegalStateException
+     */
+    public Task freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("Tâche " + id + " figée : modifier une copie (Task.copy())");
+        }
+    }
+
     /**
      * Obtenir la date de création formatée
      */
@@ -15,6 +15,8 @@ public class User implements Serializable {
     private String email;
     private String fullName;
     private long createdDate;
+    // Non sérialisé : un utilisateur reçu d'une autre activité est une copie modifiable
+    private transient boolean frozen;
 
     // Constructeur vide
     public User() {
@@ -64,30 +66,37 @@ public class User implements Serializable {
 
     // Setters
     public void setId(String id) {
+        checkMutable();
         this.id = id;
     }
 
     public void setUsername(String username) {
+        checkMutable();
         this.username = username;
     }
 
     public void setPassword(String password) {
+        checkMutable();
         this.password = password;
     }
 
     public void setUserType(UserType userType) {
+        checkMutable();
         this.userType = userType;
     }
 
     public void setEmail(String email) {
+        checkMutable();
         this.email = email;
     }
 
     public void setFullName(String fullName) {
+        checkMutable();
         this.fullName = fullName;
     }
 
     public void setCreatedDate(long createdDate) {
+        checkMutable();
         this.createdDate = createdDate;
     }
 
@@ -105,6 +114,33 @@ public class User implements Serializable {
         return userType == UserType.EMPLOYEE;
     }
 
+    /**
+     * Copie modifiable de l'utilisateur (même figé)
+     */
+    public User copy() {
+        User copy = new User(id, username, password, userType, email, fullName);
+        copy.createdDate = createdDate;
+        return copy;
+    }
+
+    /**
+     * Fige l'utilisateur : ses setters lèvent ensuite IllegalStateException
+     */
+    public User freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("Utilisateur " + id + " figé : modifier une copie (User.copy())");
+        }
+    }
+
     @Override
     public String toString() {
         return "User{" +
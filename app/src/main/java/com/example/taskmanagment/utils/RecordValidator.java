@@ -0,0 +1,307 @@
+package com.example.taskmanagment.utils;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * Validation en mémoire d'un enregistrement (une tâche, un utilisateur) selon les
+ * contraintes du schéma XSD : séquence des champs, champs obligatoires, xs:long,
+ * minLength / maxLength / length, pattern, enumeration
+ * Les règles sont lues dans le fichier XSD lui-même (tasks_schema.xml, users_schema.xml) :
+ * une contrainte ajoutée au schéma s'applique sans modifier le code. Un schéma qui utilise
+ * autre chose (autre type de base, autre facette) est refusé par fromSchema : l'appelant
+ * garde alors la validation XSD complète du fichier.
+ *
+ * Les patterns XSD sont évalués comme des expressions Java ancrées (même syntaxe pour les
+ * classes de caractères utilisées par les schémas de l'application).
+ */
+public class RecordValidator {
+    private static final String XS = XMLConstants.W3C_XML_SCHEMA_NS_URI;
+    private static final Pattern LONG_LEXICAL = Pattern.compile("[+-]?[0-9]+");
+
+    /**
+     * Contraintes d'un champ (élément simple de la séquence)
+     */
+    private static final class FieldRule {
+        final String name;
+        final boolean required;
+        boolean numeric;
+        int minLength;
+        int maxLength = Integer.MAX_VALUE;
+        // Une étape de restriction par liste : un pattern de chaque étape doit correspondre
+        final List<List<Pattern>> patterns = new ArrayList<>();
+        Set<String> enumeration;
+
+        FieldRule(String name, boolean required) {
+            this.name = name;
+            this.required = required;
+        }
+
+        /**
+         * @return null si la valeur est valide, sinon la raison
+         */
+        String check(String value) {
+            if (numeric) {
+                String collapsed = value.trim();
+                if (!LONG_LEXICAL.matcher(collapsed).matches()) {
+                    return name + ": '" + value + "' is not a valid xs:long";
+                }
+                try {
+                    Long.parseLong(collapsed.startsWith("+") ? collapsed.substring(1) : collapsed);
+                } catch (NumberFormatException e) {
+                    return name + ": '" + value + "' is out of xs:long range";
+                }
+                return null;
+            }
+
+            // Longueur en unités UTF-16, comme Xerces (un émoji compte pour 2)
+            int length = value.length();
+            if (length < minLength) {
+                return name + ": length " + length + " < minLength " + minLength;
+            }
+            if (length > maxLength) {
+                return name + ": length " + length + " > maxLength " + maxLength;
+            }
+            if (enumeration != null && !enumeration.contains(value)) {
+                return name + ": '" + value + "' not in " + enumeration;
+            }
+            for (List<Pattern> step : patterns) {
+                if (!matchesAny(step, value)) {
+                    return name + ": '" + value + "' does not match " + step;
+                }
+            }
+            return null;
+        }
+
+        private static boolean matchesAny(List<Pattern> step, String value) {
+            for (Pattern pattern : step) {
+                if (pattern.matcher(value).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final String recordElement;
+    private final List<FieldRule> rules;
+
+    private RecordValidator(String recordElement, List<FieldRule> rules) {
+        this.recordElement = recordElement;
+        this.rules = rules;
+    }
+
+    public String getRecordElement() {
+        return recordElement;
+    }
+
+    /**
+     * Construit le validateur de l'élément {@code recordElement} (ex. "task") à partir du XSD
+     *
+     * @throws IllegalArgumentException si le schéma utilise une construction non prise en charge
+     */
+    public static RecordValidator fromSchema(InputStream xsdInputStream, String recordElement)
+            throws IOException, SAXException, ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document document = factory.newDocumentBuilder().parse(xsdInputStream);
+        Element schema = document.getDocumentElement();
+
+        Map<String, Element> elements = new HashMap<>();
+        Map<String, Element> complexTypes = new HashMap<>();
+        Map<String, Element> simpleTypes = new HashMap<>();
+        collectDeclarations(schema, elements, complexTypes, simpleTypes);
+
+        Element record = elements.get(recordElement);
+        if (record == null) {
+            throw new IllegalArgumentException("No element '" + recordElement + "' in schema");
+        }
+        Element recordType = complexTypes.get(localName(record.getAttribute("type")));
+        Element sequence = recordType != null ? child(recordType, "sequence") : null;
+        if (sequence == null) {
+            throw new IllegalArgumentException("'" + recordElement + "' is not a sequence of fields");
+        }
+
+        List<FieldRule> rules = new ArrayList<>();
+        for (Element field : children(sequence, "element")) {
+            String maxOccurs = field.getAttribute("maxOccurs");
+            if (!maxOccurs.isEmpty() && !"1".equals(maxOccurs)) {
+                throw new IllegalArgumentException("Repeated field '" + field.getAttribute("name") + "'");
+            }
+            FieldRule rule = new FieldRule(field.getAttribute("name"), !"0".equals(field.getAttribute("minOccurs")));
+            applyType(rule, field.getAttribute("type"), simpleTypes);
+            rules.add(rule);
+        }
+        return new RecordValidator(recordElement, rules);
+    }
+
+    /**
+     * Valide l'enregistrement tel qu'il sera écrit
+     *
+     * @return null s'il respecte le schéma, sinon la première erreur
+     */
+    public <T> String validate(T record, XMLWriter.RecordFields<T> fields) {
+        Checker checker = new Checker();
+        try {
+            fields.write(record, checker);
+        } catch (IOException | RuntimeException e) {
+            return "unreadable " + recordElement + ": " + e;
+        }
+        return checker.finish();
+    }
+
+    /**
+     * Parcourt les champs dans l'ordre de la séquence du schéma
+     */
+    private final class Checker implements XMLWriter.FieldSink {
+        private int next;
+        private String error;
+
+        @Override
+        public void field(String name, String value) {
+            if (error != null) {
+                return;
+            }
+            while (next < rules.size() && !rules.get(next).name.equals(name)) {
+                if (rules.get(next).required) {
+                    error = "missing " + rules.get(next).name + " before " + name;
+                    return;
+                }
+                next++;
+            }
+            if (next == rules.size()) {
+                error = "unexpected field " + name;
+                return;
+            }
+            error = rules.get(next++).check(value != null ? XMLWriter.writtenText(value) : "");
+        }
+
+        String finish() {
+            for (int i = next; error == null && i < rules.size(); i++) {
+                if (rules.get(i).required) {
+                    error = "missing " + rules.get(i).name;
+                }
+            }
+            return error;
+        }
+    }
+
+    // ====== LECTURE DU SCHÉMA ======
+
+    private static void collectDeclarations(Element schema, Map<String, Element> elements,
+                                            Map<String, Element> complexTypes, Map<String, Element> simpleTypes) {
+        for (Element declaration : children(schema, null)) {
+            String name = declaration.getAttribute("name");
+            String kind = declaration.getLocalName();
+            if ("element".equals(kind)) {
+                elements.put(name, declaration);
+                // Éléments locaux (ex. task dans tasks) : le type est référencé par nom
+                Element complexType = child(declaration, "complexType");
+                Element sequence = complexType != null ? child(complexType, "sequence") : null;
+                if (sequence != null) {
+                    for (Element nested : children(sequence, "element")) {
+                        elements.put(nested.getAttribute("name"), nested);
+                    }
+                }
+            } else if ("complexType".equals(kind)) {
+                complexTypes.put(name, declaration);
+            } else if ("simpleType".equals(kind)) {
+                simpleTypes.put(name, declaration);
+            }
+        }
+    }
+
+    private static void applyType(FieldRule rule, String typeName, Map<String, Element> simpleTypes) {
+        String type = localName(typeName);
+        if (typeName.indexOf(':') >= 0 && !simpleTypes.containsKey(type)) {
+            if ("string".equals(type)) {
+                return;
+            }
+            if ("long".equals(type)) {
+                rule.numeric = true;
+                return;
+            }
+            throw new IllegalArgumentException("Unsupported type " + typeName + " for " + rule.name);
+        }
+
+        Element simpleType = simpleTypes.get(type);
+        Element restriction = simpleType != null ? child(simpleType, "restriction") : null;
+        if (restriction == null) {
+            throw new IllegalArgumentException("Unsupported type " + typeName + " for " + rule.name);
+        }
+        // Facettes de la base d'abord (chaîne de restrictions)
+        applyType(rule, restriction.getAttribute("base"), simpleTypes);
+
+        List<Pattern> patterns = new ArrayList<>();
+        for (Element facet : children(restriction, null)) {
+            String value = facet.getAttribute("value");
+            String kind = facet.getLocalName();
+            if ("annotation".equals(kind)) {
+                continue;
+            }
+            if (rule.numeric) {
+                throw new IllegalArgumentException("Unsupported facet " + kind + " on numeric " + rule.name);
+            }
+            if ("minLength".equals(kind)) {
+                rule.minLength = Math.max(rule.minLength, Integer.parseInt(value));
+            } else if ("maxLength".equals(kind)) {
+                rule.maxLength = Math.min(rule.maxLength, Integer.parseInt(value));
+            } else if ("length".equals(kind)) {
+                rule.minLength = Math.max(rule.minLength, Integer.parseInt(value));
+                rule.maxLength = Math.min(rule.maxLength, Integer.parseInt(value));
+            } else if ("pattern".equals(kind)) {
+                patterns.add(Pattern.compile(value));
+            } else if ("enumeration".equals(kind)) {
+                if (rule.enumeration == null) {
+                    rule.enumeration = new HashSet<>();
+                }
+                rule.enumeration.add(value);
+            } else {
+                throw new IllegalArgumentException("Unsupported facet " + kind + " for " + rule.name);
+            }
+        }
+        if (!patterns.isEmpty()) {
+            rule.patterns.add(patterns);
+        }
+    }
+
+    private static String localName(String qualifiedName) {
+        int colon = qualifiedName.indexOf(':');
+        return colon >= 0 ? qualifiedName.substring(colon + 1) : qualifiedName;
+    }
+
+    private static Element child(Element parent, String localName) {
+        List<Element> found = children(parent, localName);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Éléments XSD enfants directs (tous si {@code localName} est null)
+     */
+    private static List<Element> children(Element parent, String localName) {
+        List<Element> found = new ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE && XS.equals(node.getNamespaceURI())
+                    && (localName == null || localName.equals(node.getLocalName()))) {
+                found.add((Element) node);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.taskmanagment.utils;
+
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Écriture atomique d'un fichier snapshot (users.xml, tasks.xml)
+ * Le contenu est écrit dans "fichier.tmp" et synchronisé (fsync), puis le fichier courant
+ * devient "fichier.bak" et le temporaire prend sa place par renommage.
+ * Un lecteur ne voit donc jamais un fichier à moitié écrit, et la génération
+ * précédente reste disponible pour la récupération après un crash.
+ * Le répertoire est ensuite synchronisé pour que les renommages eux-mêmes survivent
+ * à une coupure de courant.
+ */
+public class SnapshotFile {
+    private static final String TAG = "SnapshotFile";
+
+    private final File baseFile;
+    private final File tempFile;
+    private final File backupFile;
+    private final File certificateFile;
+
+    public SnapshotFile(File baseFile) {
+        this.baseFile = baseFile;
+        this.tempFile = new File(baseFile.getPath() + ".tmp");
+        this.backupFile = new File(baseFile.getPath() + ".bak");
+        this.certificateFile = new File(baseFile.getPath() + ".cert");
+    }
+
+    public File getBaseFile() {
+        return baseFile;
+    }
+
+    /**
+     * Fichier temporaire en cours d'écriture (validable avant finishWrite)
+     */
+    public File getTempFile() {
+        return tempFile;
+    }
+
+    /**
+     * Certificat de validation du fichier courant (ValidationCertificate)
+     */
+    public File getCertificateFile() {
+        return certificateFile;
+    }
+
+    /**
+     * Vrai si aucune génération (courante, temporaire ou précédente) n'existe
+     */
+    public boolean isMissing() {
+        return !baseFile.exists() && !tempFile.exists() && !backupFile.exists();
+    }
+
+    /**
+     * Ouvre le fichier temporaire en écriture
+     */
+    public FileOutputStream startWrite() throws IOException {
+        return new FileOutputStream(tempFile);
+    }
+
+    /**
+     * Synchronise et ferme le temporaire, conserve la génération courante en .bak
+     * puis remplace le fichier par le temporaire
+     */
+    public void finishWrite(FileOutputStream outputStream) throws IOException {
+        try {
+            outputStream.flush();
+            outputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+
+        if (baseFile.exists()) {
+            if (backupFile.exists() && !backupFile.delete()) {
+                throw new IOException("Could not delete " + backupFile.getName());
+            }
+            if (!baseFile.renameTo(backupFile)) {
+                throw new IOException("Could not rename " + baseFile.getName() + " to " + backupFile.getName());
+            }
+        }
+
+        if (!tempFile.renameTo(baseFile)) {
+            throw new IOException("Could not rename " + tempFile.getName() + " to " + baseFile.getName());
+        }
+        syncDirectory();
+    }
+
+    /**
+     * Abandonne l'écriture : le fichier courant reste inchangé
+     */
+    public void failWrite(FileOutputStream outputStream) {
+        try {
+            outputStream.close();
+        } catch (IOException ignored) {
+            // déjà en échec
+        }
+        if (tempFile.exists() && !tempFile.delete()) {
+            Log.w(TAG, "Could not delete " + tempFile.getName());
+        }
+    }
+
+    /**
+     * Fichiers à essayer au chargement, du plus récent au plus ancien :
+     * le fichier courant, le temporaire s'il a été synchronisé mais pas encore renommé
+     * (crash entre les deux renommages), puis la génération précédente
+     */
+    public List<File> getRecoveryCandidates() {
+        List<File> candidates = new ArrayList<>();
+        if (baseFile.exists()) {
+            candidates.add(baseFile);
+        } else if (tempFile.exists()) {
+            candidates.add(tempFile);
+        }
+        if (backupFile.exists()) {
+            candidates.add(backupFile);
+        }
+        return candidates;
+    }
+
+    /**
+     * Remet en place une génération récupérée comme fichier courant
+     */
+    public void restore(File candidate) throws IOException {
+        if (candidate.equals(baseFile)) {
+            return;
+        }
+
+        Log.w(TAG, "Restoring " + baseFile.getName() + " from " + candidate.getName());
+
+        // Le fichier courant illisible est écarté ; la génération restaurée garde son .bak
+        if (baseFile.exists() && !baseFile.delete()) {
+            throw new IOException("Could not delete " + baseFile.getName());
+        }
+        if (candidate.equals(tempFile)) {
+            if (!tempFile.renameTo(baseFile)) {
+                throw new IOException("Could not rename " + tempFile.getName() + " to " + baseFile.getName());
+            }
+        } else {
+            copy(candidate, baseFile);
+        }
+        syncDirectory();
+    }
+
+    /**
+     * fsync du répertoire : rend durables les renommages et la création du fichier
+     * (java.nio.file n'est pas disponible avant l'API 26, FileInputStream n'ouvre pas
+     * un répertoire). Au mieux : le contenu est déjà synchronisé, un échec est seulement journalisé.
+     */
+    private void syncDirectory() {
+        File directory = baseFile.getAbsoluteFile().getParentFile();
+        if (directory == null) {
+            return;
+        }
+        try {
+            FileDescriptor fd = Os.open(directory.getPath(), OsConstants.O_RDONLY, 0);
+            try {
+                Os.fsync(fd);
+            } finally {
+                Os.close(fd);
+            }
+        } catch (ErrnoException e) {
+            Log.w(TAG, "Could not sync directory " + directory.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static void copy(File source, File target) throws IOException {
+        FileInputStream in = new FileInputStream(source);
+        try {
+            FileOutputStream out = new FileOutputStream(target);
+            try {
+                byte[] buffer = new byte[16 * 1024];
+                int length;
+                while ((length = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, length);
+                }
+                out.getFD().sync();
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
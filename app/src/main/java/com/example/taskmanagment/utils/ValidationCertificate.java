@@ -0,0 +1,183 @@
+package com.example.taskmanagment.utils;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Certificat de validation d'un snapshot (users.xml.cert, tasks.xml.cert)
+ * Enregistré après chaque validation XSD réussie : taille, CRC32 du contenu validé
+ * et CRC32 du schéma utilisé. Au démarrage, un fichier dont la taille et le CRC (calculé
+ * en flux pendant le parsing) correspondent au certificat, avec le même schéma, a déjà
+ * été validé : la validation XSD complète peut être sautée. Un fichier modifié de
+ * l'extérieur ou restauré ne correspond plus et repasse par la validation complète.
+ */
+public class ValidationCertificate {
+    private static final String TAG = "ValidationCertificate";
+
+    private static final String VERSION = "1";
+
+    private final long size;
+    private final long contentCrc;
+    private final long schemaCrc;
+
+    public ValidationCertificate(long size, long contentCrc, long schemaCrc) {
+        this.size = size;
+        this.contentCrc = contentCrc;
+        this.schemaCrc = schemaCrc;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getContentCrc() {
+        return contentCrc;
+    }
+
+    public long getSchemaCrc() {
+        return schemaCrc;
+    }
+
+    /**
+     * Vérification sans lecture du contenu : même taille et même schéma
+     * (le CRC du contenu se vérifie ensuite avec {@link #matches})
+     */
+    public boolean mayMatch(File file, long currentSchemaCrc) {
+        return file.length() == size && currentSchemaCrc == schemaCrc;
+    }
+
+    public boolean matches(long fileSize, long fileCrc, long currentSchemaCrc) {
+        return fileSize == size && fileCrc == contentCrc && currentSchemaCrc == schemaCrc;
+    }
+
+    /**
+     * Lit le certificat
+     *
+     * @return null s'il est absent, illisible ou d'une autre version
+     */
+    public static ValidationCertificate read(File certificateFile) {
+        if (!certificateFile.exists()) {
+            return null;
+        }
+        try {
+            Properties properties = new Properties();
+            InputStream inputStream = new FileInputStream(certificateFile);
+            try {
+                properties.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
+            if (!VERSION.equals(properties.getProperty("version"))) {
+                return null;
+            }
+            return new ValidationCertificate(
+                    Long.parseLong(properties.getProperty("size")),
+                    Long.parseLong(properties.getProperty("crc")),
+                    Long.parseLong(properties.getProperty("schema")));
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Ignoring unreadable certificate " + certificateFile.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Écrit le certificat (temporaire puis renommage) ; un certificat perdu ou périmé
+     * ne coûte qu'une validation complète au prochain démarrage
+     */
+    public void write(File certificateFile) {
+        File tempFile = new File(certificateFile.getPath() + ".tmp");
+        try {
+            Properties properties = new Properties();
+            properties.setProperty("version", VERSION);
+            properties.setProperty("size", String.valueOf(size));
+            properties.setProperty("crc", String.valueOf(contentCrc));
+            properties.setProperty("schema", String.valueOf(schemaCrc));
+
+            OutputStream outputStream = new FileOutputStream(tempFile);
+            try {
+                properties.store(outputStream, null);
+            } finally {
+                outputStream.close();
+            }
+            if (!tempFile.renameTo(certificateFile)) {
+                throw new IOException("Could not rename " + tempFile.getName() + " to " + certificateFile.getName());
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Error writing " + certificateFile.getName() + ": " + e.getMessage());
+            delete(certificateFile);
+        }
+    }
+
+    public static void delete(File certificateFile) {
+        if (certificateFile.exists() && !certificateFile.delete()) {
+            Log.w(TAG, "Could not delete " + certificateFile.getName());
+        }
+    }
+
+    /**
+     * CRC32 de tout le flux (lu jusqu'à la fin, non fermé)
+     */
+    public static long checksum(InputStream inputStream) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[16 * 1024];
+        int length;
+        while ((length = inputStream.read(buffer)) > 0) {
+            crc.update(buffer, 0, length);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Ouvre le fichier pour un parseur en calculant son CRC32 au passage
+     */
+    public static ChecksumStream open(File file) throws IOException {
+        return new ChecksumStream(new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    /**
+     * Flux qui calcule le CRC32 de tout le fichier pendant qu'un parseur le lit
+     * Les parseurs (SAX, pull) ferment le flux en fin de document : la fermeture est
+     * ignorée, finish() lit la fin éventuelle du fichier puis le ferme.
+     */
+    public static final class ChecksumStream extends FilterInputStream {
+        private final CheckedInputStream checked;
+
+        ChecksumStream(InputStream inputStream) {
+            super(new CheckedInputStream(inputStream, new CRC32()));
+            this.checked = (CheckedInputStream) in;
+        }
+
+        @Override
+        public void close() {
+            // fermé par finish() ou release()
+        }
+
+        /**
+         * @return le CRC32 de tout le fichier
+         */
+        public long finish() throws IOException {
+            byte[] buffer = new byte[16 * 1024];
+            while (checked.read(buffer) > 0) {
+                // le CRC est calculé au passage
+            }
+            long crc = checked.getChecksum().getValue();
+            release();
+            return crc;
+        }
+
+        public void release() throws IOException {
+            checked.close();
+        }
+    }
+}
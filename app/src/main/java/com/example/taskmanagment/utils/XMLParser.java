@@ -12,34 +12,379 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
 
 /**
  * Classe utilitaire pour parser les fichiers XML
- * Utilise DOM (Document Object Model) pour la lecture
+ * Utilise XmlPullParser (lecture en flux, un seul passage par enregistrement)
+ * ou SAX chaîné à la validation XSD pour valider et parser en une seule lecture
+ * L'ancienne lecture DOM est conservée pour comparaison (benchmark)
  */
 public class XMLParser {
     private static final String TAG = "XMLParser";
 
+    private static final String USER_TAG = "user";
+    private static final String TASK_TAG = "task";
+
     /**
-     * Parse un fichier XML contenant des utilisateurs
+     * Parse un fichier XML contenant des utilisateurs (lecture en flux)
      */
     public static List<User> parseUsersXML(InputStream inputStream) {
         List<User> users = new ArrayList<>();
 
+        try {
+            XmlPullParser parser = newPullParser(inputStream);
+
+            User current = null;
+            String field = null;
+            StringBuilder text = new StringBuilder();
+
+            int event = parser.getEventType();
+            while (event != XmlPullParser.END_DOCUMENT) {
+                if (event == XmlPullParser.START_TAG) {
+                    if (USER_TAG.equals(parser.getName())) {
+                        current = newUserRecord();
+                    } else if (current != null) {
+                        field = parser.getName();
+                        text.setLength(0);
+                    }
+                } else if (event == XmlPullParser.TEXT) {
+                    if (field != null) {
+                        text.append(parser.getText());
+                    }
+                } else if (event == XmlPullParser.END_TAG) {
+                    if (USER_TAG.equals(parser.getName())) {
+                        users.add(current);
+                        current = null;
+                    } else if (field != null) {
+                        setUserField(current, field, text.toString());
+                        field = null;
+                    }
+                }
+                event = parser.next();
+            }
+
+            Log.d(TAG, "Successfully parsed " + users.size() + " users");
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing users XML: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return users;
+    }
+
+    /**
+     * Parse un fichier XML contenant des tâches (lecture en flux)
+     */
+    public static List<Task> parseTasksXML(InputStream inputStream) {
+        List<Task> tasks = new ArrayList<>();
+
+        try {
+            XmlPullParser parser = newPullParser(inputStream);
+
+            Task current = null;
+            String field = null;
+            StringBuilder text = new StringBuilder();
+
+            int event = parser.getEventType();
+            while (event != XmlPullParser.END_DOCUMENT) {
+                if (event == XmlPullParser.START_TAG) {
+                    if (TASK_TAG.equals(parser.getName())) {
+                        current = newTaskRecord();
+                    } else if (current != null) {
+                        field = parser.getName();
+                        text.setLength(0);
+                    }
+                } else if (event == XmlPullParser.TEXT) {
+                    if (field != null) {
+                        text.append(parser.getText());
+                    }
+                } else if (event == XmlPullParser.END_TAG) {
+                    if (TASK_TAG.equals(parser.getName())) {
+                        tasks.add(current);
+                        current = null;
+                    } else if (field != null) {
+                        setTaskField(current, field, text.toString());
+                        field = null;
+                    }
+                }
+                event = parser.next();
+            }
+
+            Log.d(TAG, "Successfully parsed " + tasks.size() + " tasks");
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing tasks XML: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Valide et parse users.xml en une seule lecture du flux
+     *
+     * @throws SAXException si le XML est mal formé ou invalide selon le schéma
+     */
+    public static List<User> parseUsersXML(InputStream inputStream, Schema schema)
+            throws SAXException, IOException, ParserConfigurationException {
+        RecordHandler<User> handler = new RecordHandler<User>(USER_TAG) {
+            @Override
+            User newRecord() {
+                return newUserRecord();
+            }
+
+            @Override
+            void setField(User record, String field, String value) {
+                setUserField(record, field, value);
+            }
+        };
+
+        parseValidated(inputStream, schema, handler);
+        Log.d(TAG, "Successfully validated and parsed " + handler.records.size() + " users");
+        return handler.records;
+    }
+
+    /**
+     * Valide et parse tasks.xml en une seule lecture du flux
+     *
+     * @throws SAXException si le XML est mal formé ou invalide selon le schéma
+     */
+    public static List<Task> parseTasksXML(InputStream inputStream, Schema schema)
+            throws SAXException, IOException, ParserConfigurationException {
+        RecordHandler<Task> handler = new RecordHandler<Task>(TASK_TAG) {
+            @Override
+            Task newRecord() {
+                return newTaskRecord();
+            }
+
+            @Override
+            void setField(Task record, String field, String value) {
+                setTaskField(record, field, value);
+            }
+        };
+
+        parseValidated(inputStream, schema, handler);
+        Log.d(TAG, "Successfully validated and parsed " + handler.records.size() + " tasks");
+        return handler.records;
+    }
+
+    /**
+     * Lecteur SAX -> ValidatorHandler (XSD) -> construction des enregistrements
+     * Sans ErrorHandler, toute erreur de validation lève une SAXException
+     */
+    private static void parseValidated(InputStream inputStream, Schema schema, DefaultHandler recordHandler)
+            throws SAXException, IOException, ParserConfigurationException {
+        ValidatorHandler validatorHandler = schema.newValidatorHandler();
+        validatorHandler.setContentHandler(recordHandler);
+
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        XMLReader reader = factory.newSAXParser().getXMLReader();
+        reader.setContentHandler(validatorHandler);
+        reader.parse(new InputSource(inputStream));
+    }
+
+    /**
+     * Construit les enregistrements à partir des événements SAX déjà validés
+     */
+    private abstract static class RecordHandler<T> extends DefaultHandler {
+        final List<T> records = new ArrayList<>();
+
+        private final String recordTag;
+        private final StringBuilder text = new StringBuilder();
+        private T current;
+        private String field;
+
+        RecordHandler(String recordTag) {
+            this.recordTag = recordTag;
+        }
+
+        abstract T newRecord();
+
+        abstract void setField(T record, String field, String value);
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (recordTag.equals(localName)) {
+                current = newRecord();
+            } else if (current != null) {
+                field = localName;
+                text.setLength(0);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (field != null) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (recordTag.equals(localName)) {
+                records.add(current);
+                current = null;
+            } else if (field != null) {
+                setField(current, field, text.toString());
+                field = null;
+            }
+        }
+    }
+
+    /**
+     * Crée un parser XmlPullParser sur le flux (encodage détecté depuis le prologue XML)
+     */
+    private static XmlPullParser newPullParser(InputStream inputStream) throws XmlPullParserException, IOException {
+        XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
+        factory.setNamespaceAware(false);
+        XmlPullParser parser = factory.newPullParser();
+        parser.setInput(inputStream, null);
+        return parser;
+    }
+
+    /**
+     * Nouvel utilisateur avec les mêmes valeurs par défaut que la lecture DOM
+     * (champs absents = chaîne vide, type EMPLOYEE)
+     */
+    static User newUserRecord() {
+        User user = new User();
+        user.setId("");
+        user.setUsername("");
+        user.setPassword("");
+        user.setUserType(UserType.EMPLOYEE);
+        user.setEmail("");
+        user.setFullName("");
+        return user;
+    }
+
+    /**
+     * Affecte la valeur texte d'un champ <user> à l'utilisateur
+     */
+    static void setUserField(User user, String field, String value) {
+        switch (field) {
+            case "id":
+                user.setId(value);
+                break;
+            case "username":
+                user.setUsername(value);
+                break;
+            case "password":
+                user.setPassword(value);
+                break;
+            case "userType":
+                user.setUserType(UserType.fromString(value));
+                break;
+            case "email":
+                user.setEmail(value);
+                break;
+            case "fullName":
+                user.setFullName(value);
+                break;
+            case "createdDate":
+                if (!value.isEmpty()) {
+                    user.setCreatedDate(Long.parseLong(value));
+                }
+                break;
+        }
+    }
+
+    /**
+     * Nouvelle tâche avec les mêmes valeurs par défaut que la lecture DOM
+     * (champs absents = chaîne vide)
+     */
+    static Task newTaskRecord() {
+        Task task = new Task();
+        task.setId("");
+        task.setTitle("");
+        task.setDescription("");
+        task.setAssignedTo("");
+        task.setCreatedBy("");
+        return task;
+    }
+
+    /**
+     * Affecte la valeur texte d'un champ <task> à la tâche
+     */
+    static void setTaskField(Task task, String field, String value) {
+        switch (field) {
+            case "id":
+                task.setId(value);
+                break;
+            case "title":
+                task.setTitle(value);
+                break;
+            case "description":
+                task.setDescription(value);
+                break;
+            case "assignedTo":
+                task.setAssignedTo(value);
+                break;
+            case "createdBy":
+                task.setCreatedBy(value);
+                break;
+            case "status":
+                task.setStatus(TaskStatus.fromString(value));
+                break;
+            case "priority":
+                if (!value.isEmpty()) {
+                    task.setPriority(TaskPriority.fromString(value));
+                }
+                break;
+            case "createdDate":
+                if (!value.isEmpty()) {
+                    task.setCreatedDate(Long.parseLong(value));
+                }
+                break;
+            case "dueDate":
+                if (!value.isEmpty()) {
+                    task.setDueDate(Long.parseLong(value));
+                }
+                break;
+            case "completedDate":
+                if (!value.isEmpty()) {
+                    task.setCompletedDate(Long.parseLong(value));
+                }
+                break;
+        }
+    }
+
+    // ====== LECTURE DOM (ancienne implémentation, utilisée par le benchmark) ======
+
+    /**
+     * Parse un fichier XML contenant des utilisateurs avec DOM
+     */
+    static List<User> parseUsersXMLWithDOM(InputStream inputStream) {
+        List<User> users = new ArrayList<>();
+
         try {
             DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
             DocumentBuilder builder = factory.newDocumentBuilder();
             Document document = builder.parse(inputStream);
             document.getDocumentElement().normalize();
 
-            NodeList userNodes = document.getElementsByTagName("user");
+            NodeList userNodes = document.getElementsByTagName(USER_TAG);
 
             for (int i = 0; i < userNodes.getLength(); i++) {
                 Node userNode = userNodes.item(i);
@@ -83,9 +428,9 @@ public class XMLParser {
     }
 
     /**
-     * Parse un fichier XML contenant des tâches
+     * Parse un fichier XML contenant des tâches avec DOM
      */
-    public static List<Task> parseTasksXML(InputStream inputStream) {
+    static List<Task> parseTasksXMLWithDOM(InputStream inputStream) {
         List<Task> tasks = new ArrayList<>();
 
         try {
@@ -94,7 +439,7 @@ public class XMLParser {
             Document document = builder.parse(inputStream);
             document.getDocumentElement().normalize();
 
-            NodeList taskNodes = document.getElementsByTagName("task");
+            NodeList taskNodes = document.getElementsByTagName(TASK_TAG);
 
             for (int i = 0; i < taskNodes.getLength(); i++) {
                 Node taskNode = taskNodes.item(i);
@@ -165,4 +510,4 @@ public class XMLParser {
         }
         return "";
     }
-}
\ No newline at end of file
+}
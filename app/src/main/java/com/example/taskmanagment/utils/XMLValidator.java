@@ -7,7 +7,11 @@ import com.example.taskmanagment.R;
 
 import org.xml.sax.SAXException;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.XMLConstants;
 import javax.xml.transform.stream.StreamSource;
@@ -18,10 +22,112 @@ import javax.xml.validation.Validator;
 /**
  * Classe utilitaire pour valider les fichiers XML contre leurs schémas XSD
  * Utilise Apache Xerces pour supporter la validation sur Android
+ * Les schémas sont compilés une seule fois (partagés entre threads),
+ * les validateurs sont réutilisés par thread
  */
 public class XMLValidator {
     private static final String TAG = "XMLValidator";
 
+    // Schémas compilés, indexés par ID de ressource XSD (Schema est thread-safe)
+    private static final Map<Integer, Schema> SCHEMAS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Integer, Object> SCHEMA_LOCKS = new ConcurrentHashMap<>();
+
+    // CRC32 des fichiers XSD : version du schéma dans les certificats de validation
+    private static final Map<Integer, Long> SCHEMA_CHECKSUMS = new ConcurrentHashMap<>();
+
+    // Validator n'est pas thread-safe : un par thread et par schéma
+    private static final ThreadLocal<Map<Integer, Validator>> VALIDATORS = new ThreadLocal<Map<Integer, Validator>>() {
+        @Override
+        protected Map<Integer, Validator> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    static {
+        // IMPORTANT : Forcer l'utilisation de Xerces sur Android
+        System.setProperty("javax.xml.validation.SchemaFactory:" + XMLConstants.W3C_XML_SCHEMA_NS_URI,
+                "org.apache.xerces.jaxp.validation.XMLSchemaFactory");
+    }
+
+    /**
+     * Retourne le schéma compilé (compilé au premier appel puis mis en cache)
+     * Appelé seulement quand un fichier doit être validé : un démarrage dont les fichiers
+     * sont certifiés (ValidationCertificate) ne compile aucun schéma.
+     */
+    public static Schema getSchema(Context context, int xsdResourceId) throws SAXException, IOException {
+        Schema schema = SCHEMAS.get(xsdResourceId);
+        if (schema != null) {
+            return schema;
+        }
+
+        // Un SchemaFactory par compilation : users et tasks se compilent en parallèle,
+        // un même schéma une seule fois
+        Object lock = new Object();
+        Object existing = SCHEMA_LOCKS.putIfAbsent(xsdResourceId, lock);
+        synchronized (existing != null ? existing : lock) {
+            schema = SCHEMAS.get(xsdResourceId);
+            if (schema == null) {
+                schema = compileSchema(context, xsdResourceId);
+                SCHEMAS.put(xsdResourceId, schema);
+            }
+            return schema;
+        }
+    }
+
+    /**
+     * CRC32 du fichier XSD (lu sans compiler le schéma), mis en cache
+     */
+    public static long getSchemaChecksum(Context context, int xsdResourceId) throws IOException {
+        Long checksum = SCHEMA_CHECKSUMS.get(xsdResourceId);
+        if (checksum == null) {
+            InputStream xsdInputStream = context.getResources().openRawResource(xsdResourceId);
+            try {
+                checksum = ValidationCertificate.checksum(xsdInputStream);
+            } finally {
+                xsdInputStream.close();
+            }
+            SCHEMA_CHECKSUMS.put(xsdResourceId, checksum);
+        }
+        return checksum;
+    }
+
+    /**
+     * Compile le schéma XSD depuis les ressources
+     */
+    private static Schema compileSchema(Context context, int xsdResourceId) throws SAXException, IOException {
+        long start = System.currentTimeMillis();
+
+        // Créer le SchemaFactory avec Xerces
+        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+
+        // Charger le schéma XSD depuis les ressources
+        InputStream xsdInputStream = context.getResources().openRawResource(xsdResourceId);
+        try {
+            Schema schema = schemaFactory.newSchema(new StreamSource(xsdInputStream));
+            Log.d(TAG, "Compiled XSD schema in " + (System.currentTimeMillis() - start) + " ms");
+            return schema;
+        } finally {
+            xsdInputStream.close();
+        }
+    }
+
+    /**
+     * Retourne le validateur du thread courant pour ce schéma, remis à zéro
+     */
+    private static Validator getValidator(Context context, int xsdResourceId) throws SAXException, IOException {
+        Map<Integer, Validator> validators = VALIDATORS.get();
+        Validator validator = validators.get(xsdResourceId);
+
+        if (validator == null) {
+            validator = getSchema(context, xsdResourceId).newValidator();
+            validators.put(xsdResourceId, validator);
+        } else {
+            validator.reset();
+        }
+
+        return validator;
+    }
+
     /**
      * Valide un fichier XML contre un schéma XSD
      *
@@ -32,27 +138,14 @@ public class XMLValidator {
      */
     public static boolean validateXML(Context context, InputStream xmlInputStream, int xsdResourceId) {
         try {
-            // IMPORTANT : Forcer l'utilisation de Xerces sur Android
-            System.setProperty("javax.xml.validation.SchemaFactory:" + XMLConstants.W3C_XML_SCHEMA_NS_URI,
-                    "org.apache.xerces.jaxp.validation.XMLSchemaFactory");
-
-            // Créer le SchemaFactory avec Xerces
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-
-            // Charger le schéma XSD depuis les ressources
-            InputStream xsdInputStream = context.getResources().openRawResource(xsdResourceId);
-            StreamSource xsdSource = new StreamSource(xsdInputStream);
-            Schema schema = schemaFactory.newSchema(xsdSource);
-
-            // Créer le validateur
-            Validator validator = schema.newValidator();
+            // Validateur réutilisé (schéma déjà compilé)
+            Validator validator = getValidator(context, xsdResourceId);
 
             // Valider le XML
             StreamSource xmlSource = new StreamSource(xmlInputStream);
             validator.validate(xmlSource);
 
             Log.i(TAG, "✅ XML validation successful");
-            xsdInputStream.close();
 
             return true;
 
@@ -82,4 +175,4 @@ public class XMLValidator {
         Log.d(TAG, "Validating tasks.xml against tasks_schema.xsd");
         return validateXML(context, xmlInputStream, R.raw.tasks_schema);
     }
-}
\ No newline at end of file
+}
@@ -11,8 +11,14 @@ import com.example.taskmanagment.models.User;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -25,34 +31,44 @@ import javax.xml.transform.stream.StreamResult;
 
 /**
  * Classe utilitaire pour écrire des données dans des fichiers XML
- * Utilise DOM pour la création et la modification de documents XML
+ * Écrit les enregistrements en flux dans un tampon, sans construire de document DOM
+ * Les fichiers sont remplacés atomiquement (voir SnapshotFile)
+ * L'ancienne écriture DOM + Transformer est conservée pour comparaison (benchmark)
  */
 public class XMLWriter {
     private static final String TAG = "XMLWriter";
 
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final String INDENT = "    ";
+
     /**
-     * Écrit une liste d'utilisateurs dans un fichier XML
+     * Écrit une liste d'utilisateurs dans un fichier XML (indenté)
      */
     public static boolean writeUsersToXML(Context context, List<User> users, String fileName) {
+        return writeUsersToXML(context, users, fileName, true);
+    }
+
+    /**
+     * Écrit une liste d'utilisateurs dans un fichier XML
+     *
+     * @param indent false pour une sortie compacte, sans indentation ni retours à la ligne
+     */
+    public static boolean writeUsersToXML(Context context, List<User> users, String fileName, boolean indent) {
+        SnapshotFile snapshotFile = new SnapshotFile(new File(context.getFilesDir(), fileName));
+        FileOutputStream outputStream = null;
+
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.newDocument();
-
-            // Créer l'élément racine
-            Element rootElement = document.createElement("users");
-            document.appendChild(rootElement);
-
-            // Ajouter chaque utilisateur
-            for (User user : users) {
-                Element userElement = createUserElement(document, user);
-                rootElement.appendChild(userElement);
-            }
+            outputStream = snapshotFile.startWrite();
+            writeUsers(outputStream, users, indent);
+            snapshotFile.finishWrite(outputStream);
 
-            // Écrire le document dans un fichier
-            return writeDocumentToFile(context, document, fileName);
+            Log.d(TAG, "Successfully wrote XML to file: " + fileName);
+            return true;
 
         } catch (Exception e) {
+            if (outputStream != null) {
+                snapshotFile.failWrite(outputStream);
+            }
             Log.e(TAG, "Error writing users to XML: " + e.getMessage());
             e.printStackTrace();
             return false;
@@ -60,51 +76,275 @@ public class XMLWriter {
     }
 
     /**
-     * Crée un élément XML pour un utilisateur
+     * Écrit une liste de tâches dans un fichier XML (indenté)
      */
-    private static Element createUserElement(Document document, User user) {
-        Element userElement = document.createElement("user");
-
-        appendChild(document, userElement, "id", user.getId());
-        appendChild(document, userElement, "username", user.getUsername());
-        appendChild(document, userElement, "password", user.getPassword());
-        appendChild(document, userElement, "userType", user.getUserType().name());
-        appendChild(document, userElement, "email", user.getEmail());
-        appendChild(document, userElement, "fullName", user.getFullName());
-        appendChild(document, userElement, "createdDate", String.valueOf(user.getCreatedDate()));
-
-        return userElement;
+    public static boolean writeTasksToXML(Context context, List<Task> tasks, String fileName) {
+        return writeTasksToXML(context, tasks, fileName, true);
     }
 
     /**
      * Écrit une liste de tâches dans un fichier XML
+     *
+     * @param indent false pour une sortie compacte, sans indentation ni retours à la ligne
      */
-    public static boolean writeTasksToXML(Context context, List<Task> tasks, String fileName) {
+    public static boolean writeTasksToXML(Context context, List<Task> tasks, String fileName, boolean indent) {
+        SnapshotFile snapshotFile = new SnapshotFile(new File(context.getFilesDir(), fileName));
+        FileOutputStream outputStream = null;
+
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.newDocument();
-
-            // Créer l'élément racine
-            Element rootElement = document.createElement("tasks");
-            document.appendChild(rootElement);
-
-            // Ajouter chaque tâche
-            for (Task task : tasks) {
-                Element taskElement = createTaskElement(document, task);
-                rootElement.appendChild(taskElement);
-            }
+            outputStream = snapshotFile.startWrite();
+            writeTasks(outputStream, tasks, indent);
+            snapshotFile.finishWrite(outputStream);
 
-            // Écrire le document dans un fichier
-            return writeDocumentToFile(context, document, fileName);
+            Log.d(TAG, "Successfully wrote XML to file: " + fileName);
+            return true;
 
         } catch (Exception e) {
+            if (outputStream != null) {
+                snapshotFile.failWrite(outputStream);
+            }
             Log.e(TAG, "Error writing tasks to XML: " + e.getMessage());
             e.printStackTrace();
             return false;
         }
     }
 
+    /**
+     * Reçoit les champs d'un enregistrement, dans l'ordre du fichier
+     * (valeur telle qu'elle sera écrite, null pour un élément vide)
+     */
+    public interface FieldSink {
+        void field(String name, String value) throws IOException;
+    }
+
+    /**
+     * Champs d'un enregistrement : partagés par l'écriture et la validation en mémoire
+     * (RecordValidator), qui voit donc exactement ce qui sera écrit
+     */
+    public interface RecordFields<T> {
+        void write(T record, FieldSink sink) throws IOException;
+    }
+
+    public static final RecordFields<User> USER_FIELDS = (user, sink) -> {
+        sink.field("id", user.getId());
+        sink.field("username", user.getUsername());
+        sink.field("password", user.getPassword());
+        sink.field("userType", user.getUserType() != null ? user.getUserType().name() : null);
+        sink.field("email", user.getEmail());
+        sink.field("fullName", user.getFullName());
+        sink.field("createdDate", String.valueOf(user.getCreatedDate()));
+    };
+
+    public static final RecordFields<Task> TASK_FIELDS = (task, sink) -> {
+        sink.field("id", task.getId());
+        sink.field("title", task.getTitle());
+        sink.field("description", task.getDescription());
+        sink.field("assignedTo", task.getAssignedTo());
+        sink.field("createdBy", task.getCreatedBy());
+        sink.field("status", task.getStatus() != null ? task.getStatus().name() : null);
+        sink.field("priority", task.getPriority() != null ? task.getPriority().name() : null);
+        sink.field("createdDate", String.valueOf(task.getCreatedDate()));
+        sink.field("dueDate", String.valueOf(task.getDueDate()));
+
+        if (task.getCompletedDate() > 0) {
+            sink.field("completedDate", String.valueOf(task.getCompletedDate()));
+        }
+    };
+
+    /**
+     * Texte tel que le relira un parseur : sans les caractères interdits en XML 1.0,
+     * que l'écriture supprime
+     */
+    public static String writtenText(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isDropped(text.charAt(i))) {
+                StringBuilder kept = new StringBuilder(text.length());
+                for (int j = 0; j < text.length(); j++) {
+                    if (!isDropped(text.charAt(j))) {
+                        kept.append(text.charAt(j));
+                    }
+                }
+                return kept.toString();
+            }
+        }
+        return text;
+    }
+
+    private static boolean isDropped(char c) {
+        return (c < 0x20 && c != '\t' && c != '\n' && c != '\r') || c == 0xFFFE || c == 0xFFFF;
+    }
+
+    /**
+     * Écrit les utilisateurs au format users.xml dans le flux (le flux n'est pas fermé)
+     */
+    public static void writeUsers(OutputStream outputStream, List<User> users, boolean indent) throws IOException {
+        RecordWriter writer = new RecordWriter(outputStream, indent);
+        writer.startDocument("users");
+
+        for (User user : users) {
+            writer.startRecord("user");
+            USER_FIELDS.write(user, writer);
+            writer.endRecord("user");
+        }
+
+        writer.endDocument("users");
+    }
+
+    /**
+     * Écrit les tâches au format tasks.xml dans le flux (le flux n'est pas fermé)
+     */
+    public static void writeTasks(OutputStream outputStream, List<Task> tasks, boolean indent) throws IOException {
+        RecordWriter writer = new RecordWriter(outputStream, indent);
+        writer.startDocument("tasks");
+
+        for (Task task : tasks) {
+            writer.startRecord("task");
+            TASK_FIELDS.write(task, writer);
+            writer.endRecord("task");
+        }
+
+        writer.endDocument("tasks");
+    }
+
+    /**
+     * Écrivain XML minimal : racine > enregistrements > champs texte
+     */
+    private static class RecordWriter implements FieldSink {
+        private final Writer out;
+        private final boolean indent;
+
+        RecordWriter(OutputStream outputStream, boolean indent) {
+            this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.indent = indent;
+        }
+
+        void startDocument(String root) throws IOException {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            newLine();
+            out.write('<');
+            out.write(root);
+            out.write('>');
+            newLine();
+        }
+
+        void startRecord(String name) throws IOException {
+            indent(1);
+            out.write('<');
+            out.write(name);
+            out.write('>');
+            newLine();
+        }
+
+        @Override
+        public void field(String name, String value) throws IOException {
+            indent(2);
+            out.write('<');
+            out.write(name);
+            out.write('>');
+            if (value != null) {
+                escape(value);
+            }
+            out.write("</");
+            out.write(name);
+            out.write('>');
+            newLine();
+        }
+
+        void endRecord(String name) throws IOException {
+            indent(1);
+            out.write("</");
+            out.write(name);
+            out.write('>');
+            newLine();
+        }
+
+        void endDocument(String root) throws IOException {
+            out.write("</");
+            out.write(root);
+            out.write('>');
+            newLine();
+            out.flush();
+        }
+
+        private void indent(int level) throws IOException {
+            if (indent) {
+                for (int i = 0; i < level; i++) {
+                    out.write(INDENT);
+                }
+            }
+        }
+
+        private void newLine() throws IOException {
+            if (indent) {
+                out.write('\n');
+            }
+        }
+
+        /**
+         * Échappe le texte d'un élément ; les caractères interdits en XML 1.0 sont ignorés
+         */
+        private void escape(String text) throws IOException {
+            int start = 0;
+            int length = text.length();
+
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                String replacement;
+
+                if (c == '&') {
+                    replacement = "&amp;";
+                } else if (c == '<') {
+                    replacement = "&lt;";
+                } else if (c == '>') {
+                    replacement = "&gt;";
+                } else if (c == '\r') {
+                    replacement = "&#13;";
+                } else if (isDropped(c)) {
+                    replacement = "";
+                } else {
+                    continue;
+                }
+
+                out.write(text, start, i - start);
+                out.write(replacement);
+                start = i + 1;
+            }
+
+            out.write(text, start, length - start);
+        }
+    }
+
+    // ====== ÉCRITURE DOM (ancienne implémentation, utilisée par le benchmark) ======
+
+    /**
+     * Écrit les tâches avec DOM + Transformer indenté
+     */
+    static void writeTasksWithDOM(OutputStream outputStream, List<Task> tasks) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        Document document = builder.newDocument();
+
+        // Créer l'élément racine
+        Element rootElement = document.createElement("tasks");
+        document.appendChild(rootElement);
+
+        // Ajouter chaque tâche
+        for (Task task : tasks) {
+            Element taskElement = createTaskElement(document, task);
+            rootElement.appendChild(taskElement);
+        }
+
+        TransformerFactory transformerFactory = TransformerFactory.newInstance();
+        Transformer transformer = transformerFactory.newTransformer();
+
+        // Formatage du XML
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+
+        transformer.transform(new DOMSource(document), new StreamResult(outputStream));
+    }
+
     /**
      * Crée un élément XML pour une tâche
      */
@@ -136,38 +376,4 @@ public class XMLWriter {
         element.setTextContent(textContent != null ? textContent : "");
         parent.appendChild(element);
     }
-
-    /**
-     * Écrit un document XML dans un fichier
-     */
-    private static boolean writeDocumentToFile(Context context, Document document, String fileName) {
-        try {
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-
-            // Formatage du XML
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-
-            // Créer le fichier de sortie
-            File outputFile = new File(context.getFilesDir(), fileName);
-            FileOutputStream outputStream = new FileOutputStream(outputFile);
-
-            // Transformer le document en fichier
-            DOMSource source = new DOMSource(document);
-            StreamResult result = new StreamResult(outputStream);
-            transformer.transform(source, result);
-
-            outputStream.close();
-
-            Log.d(TAG, "Successfully wrote XML to file: " + fileName);
-            return true;
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error writing document to file: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
-    }
 }
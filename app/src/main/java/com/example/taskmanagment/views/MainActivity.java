@@ -19,6 +19,7 @@ import androidx.fragment.app.Fragment;
 
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.controllers.AuthController;
+import com.example.taskmanagment.database.XMLDatabaseManager;
 import com.example.taskmanagment.models.User;
 import com.example.taskmanagment.utils.LanguageManager;
 import com.example.taskmanagment.views.fragments.AddUserFragment;
@@ -276,6 +277,13 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         finish();
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Valider sur disque les modifications en attente avant un éventuel arrêt du processus
+        XMLDatabaseManager.getInstance(this).requestFlush();
+    }
+
     @Override
     public void onBackPressed() {
         if (drawerLayout.isDrawerOpen(GravityCompat.START)) {
@@ -4,6 +4,8 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
 import android.widget.ImageView;
@@ -21,7 +23,14 @@ import com.example.taskmanagment.utils.LanguageManager;
  */
 public class SplashActivity extends AppCompatActivity {
 
-    private static final int SPLASH_DURATION = 3000; // 3 secondes
+    private static final String TAG = "SplashActivity";
+
+    // Durée minimale : le logo et le texte finissent leur animation (1 seconde)
+    private static final long MIN_SPLASH_DURATION = 1000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private long startedAt;
+    private boolean navigated;
 
     private ImageView imgLogo;
     private ImageView imgLoadingDot1, imgLoadingDot2, imgLoadingDot3;
@@ -29,6 +38,8 @@ public class SplashActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        startedAt = SystemClock.uptimeMillis();
+
         // Appliquer la langue
         LanguageManager.applyLanguage(this);
 
@@ -41,13 +52,14 @@ public class SplashActivity extends AppCompatActivity {
         // Démarrer les animations
         startAnimations();
 
-        // Initialiser la base de données en arrière-plan
+        // Initialiser la base de données en arrière-plan, naviguer dès qu'elle est prête
         initializeDatabase();
+    }
 
-        // Naviguer après le délai
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            navigateToNextScreen();
-        }, SPLASH_DURATION);
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacksAndMessages(null);
+        super.onDestroy();
     }
 
     /**
@@ -81,30 +93,47 @@ public class SplashActivity extends AppCompatActivity {
         Animation rotateAnimation3 = AnimationUtils.loadAnimation(this, R.anim.rotate_loading);
 
         // Décalage des animations pour effet de vague
-        new Handler(Looper.getMainLooper()).postDelayed(() ->
+        handler.postDelayed(() ->
                 imgLoadingDot1.startAnimation(rotateAnimation1), 0);
 
-        new Handler(Looper.getMainLooper()).postDelayed(() ->
+        handler.postDelayed(() ->
                 imgLoadingDot2.startAnimation(rotateAnimation2), 200);
 
-        new Handler(Looper.getMainLooper()).postDelayed(() ->
+        handler.postDelayed(() ->
                 imgLoadingDot3.startAnimation(rotateAnimation3), 400);
     }
 
     /**
-     * Initialiser la base de données
+     * Initialiser la base de données (charge et valide les XML sur le thread d'initialisation)
      */
     private void initializeDatabase() {
-        new Thread(() -> {
-            // Initialiser XMLDatabaseManager (charge et valide les XML)
-            XMLDatabaseManager.getInstance(this);
-        }).start();
+        XMLDatabaseManager.whenReady(this, manager -> handler.post(() -> onDatabaseReady(manager)));
+    }
+
+    /**
+     * Base prête : navigation une fois la durée minimale d'animation écoulée
+     */
+    private void onDatabaseReady(XMLDatabaseManager manager) {
+        if (isFinishing() || isDestroyed()) return;
+
+        long elapsed = SystemClock.uptimeMillis() - startedAt;
+        if (manager != null) {
+            manager.getStartupTimings().record("splash ready", elapsed);
+            Log.i(TAG, "✅ Database ready after " + elapsed + " ms: " + manager.getStartupTimings());
+        } else {
+            Log.e(TAG, "❌ Database initialization failed after " + elapsed + " ms");
+        }
+
+        handler.postDelayed(this::navigateToNextScreen, Math.max(0, MIN_SPLASH_DURATION - elapsed));
     }
 
     /**
      * Naviguer vers l'écran suivant
      */
     private void navigateToNextScreen() {
+        if (navigated || isFinishing()) return;
+        navigated = true;
+
         AuthController authController = new AuthController(this);
 
         Intent intent;
@@ -16,16 +16,8 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.example.taskmanagment.R;
-import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.controllers.UserController;
 import com.example.taskmanagment.models.UserType;
-import com.example.taskmanagment.utils.XMLParser;
-import com.example.taskmanagment.utils.XMLWriter;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
 
 public class AddUserFragment extends Fragment {
 
@@ -33,6 +25,8 @@ public class AddUserFragment extends Fragment {
     private Spinner spUserType; // optionnel si tu veux choisir ADMIN/EMPLOYEE
     private Button btnSave;
 
+    private UserController userController;
+
     public AddUserFragment() {}
 
     @Nullable
@@ -43,6 +37,8 @@ public class AddUserFragment extends Fragment {
 
         View v = inflater.inflate(R.layout.fragment_add_user, container, false);
 
+        userController = new UserController(requireContext());
+
         etUsername = v.findViewById(R.id.et_username);
         etPassword = v.findViewById(R.id.et_password);
         etEmail = v.findViewById(R.id.et_email);
@@ -68,29 +64,13 @@ public class AddUserFragment extends Fragment {
             return;
         }
 
-        // 1) Charger users
-        List<User> users = loadUsers(ctx);
-
-        // 2) Vérifier si username existe déjà
-        for (User u : users) {
-            if (u.getUsername() != null && u.getUsername().equalsIgnoreCase(username)) {
-                Toast.makeText(ctx, R.string.username_exists, Toast.LENGTH_SHORT).show();
-                return;
-            }
+        // 1) Vérifier si username existe déjà (annuaire en mémoire, sans distinction de casse)
+        if (userController.usernameExists(username)) {
+            Toast.makeText(ctx, R.string.username_exists, Toast.LENGTH_SHORT).show();
+            return;
         }
 
-        // 3) Créer user + ID auto
-        int nextId = getNextUserId(users);
-
-        User newUser = new User();
-        newUser.setId(String.valueOf(nextId));
-        newUser.setUsername(username);
-        newUser.setPassword(password);
-        newUser.setEmail(email);
-        newUser.setFullName(fullName);
-        newUser.setCreatedDate(System.currentTimeMillis());
-
-        // Type (si spinner موجود)
+        // 2) Type (si spinner موجود)
         // Exemple: "ADMIN" / "EMPLOYEE"
         UserType type = UserType.EMPLOYEE;
         if (spUserType != null) {
@@ -98,12 +78,9 @@ public class AddUserFragment extends Fragment {
             if ("ADMIN".equalsIgnoreCase(selected)) type = UserType.ADMIN;
             else if ("EMPLOYEE".equalsIgnoreCase(selected)) type = UserType.EMPLOYEE;
         }
-        newUser.setUserType(type);
 
-        users.add(newUser);
-
-        // 4) Écrire dans Internal Storage -> users.xml
-        boolean ok = XMLWriter.writeUsersToXML(ctx, users, "users.xml");
+        // 3) Créer user (Factory) et l'enregistrer via UserDAO -> XMLDatabaseManager
+        boolean ok = userController.createUser(type, username, password, email, fullName);
 
         if (ok) {
             Toast.makeText(ctx, R.string.user_added_success, Toast.LENGTH_SHORT).show();
@@ -113,43 +90,4 @@ public class AddUserFragment extends Fragment {
             Toast.makeText(ctx, R.string.save_failed, Toast.LENGTH_SHORT).show();
         }
     }
-
-    /**
-     * Lire users depuis filesDir/users.xml s'il existe, sinon depuis raw/users.xml
-     */
-    private List<User> loadUsers(Context ctx) {
-        try {
-            File internalFile = new File(ctx.getFilesDir(), "users.xml");
-            InputStream is;
-
-            if (internalFile.exists()) {
-                is = new FileInputStream(internalFile);
-            } else {
-                // ⚠️ Remplace R.raw.users par le nom réel de ton fichier dans res/raw
-                is = ctx.getResources().openRawResource(R.raw.users);
-            }
-
-            List<User> users = XMLParser.parseUsersXML(is);
-            is.close();
-            return users != null ? users : new ArrayList<>();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ArrayList<>();
-        }
-    }
-
-    /**
-     * Calculer un nouvel ID (max + 1)
-     */
-    private int getNextUserId(List<User> users) {
-        int max = 0;
-        for (User u : users) {
-            try {
-                int id = Integer.parseInt(u.getId());
-                if (id > max) max = id;
-            } catch (Exception ignored) {}
-        }
-        return max + 1;
-    }
 }
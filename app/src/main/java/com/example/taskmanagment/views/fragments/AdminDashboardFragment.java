@@ -1,7 +1,6 @@
 package com.example.taskmanagment.views.fragments;
 
 import android.graphics.Color;
-import android.os.Build;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -10,13 +9,12 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.annotation.RequiresApi;
 import androidx.fragment.app.Fragment;
 
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.controllers.TaskController;
-import com.example.taskmanagment.controllers.UserController;
-import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.database.DashboardSummary;
+import com.example.taskmanagment.database.RollupSeries;
 import com.example.taskmanagment.models.TaskPriority;
 import com.example.taskmanagment.models.TaskStatus;
 import com.example.taskmanagment.models.User;
@@ -39,9 +37,7 @@ import com.github.mikephil.charting.formatter.PercentFormatter;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class AdminDashboardFragment extends Fragment {
 
@@ -56,7 +52,9 @@ public class AdminDashboardFragment extends Fragment {
     private BarChart barChartEmployees;
 
     private TaskController taskController;
-    private UserController userController;
+
+    // Agrégats du dernier rafraîchissement, réutilisés au suivant
+    private DashboardSummary summary;
 
     @Nullable
     @Override
@@ -67,7 +65,6 @@ public class AdminDashboardFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_admin_dashboard, container, false);
 
         taskController = new TaskController(requireContext());
-        userController = new UserController(requireContext());
 
         initViews(view);
         loadDataFromXML();
@@ -104,27 +101,21 @@ public class AdminDashboardFragment extends Fragment {
     }
 
     private void loadDataFromXML() {
-        loadStatistics();
+        // Un seul parcours des tâches pour les statistiques et les trois graphiques
+        summary = taskController.getDashboardSummary(summary);
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            setupWeeklyChart();
-            setupPriorityPieChart();
-            setupEmployeesBarChart();
-        }
+        loadStatistics();
+        setupWeeklyChart();
+        setupPriorityPieChart();
+        setupEmployeesBarChart();
     }
 
     private void loadStatistics() {
-        List<Task> allTasks = taskController.getAllTasks();
-
-        int totalTasks = allTasks.size();
-        int completed = 0, inProgress = 0;
-
-        for (Task task : allTasks) {
-            if (task.getStatus() == TaskStatus.COMPLETED) completed++;
-            if (task.getStatus() == TaskStatus.IN_PROGRESS) inProgress++;
-        }
+        int totalTasks = summary.getTotalTasks();
+        int completed = summary.getCount(TaskStatus.COMPLETED);
+        int inProgress = summary.getCount(TaskStatus.IN_PROGRESS);
 
-        int totalUsers = userController.getAllEmployees().size();
+        int totalUsers = summary.getEmployeeCount();
 
         tvTotalTasks.setText(String.valueOf(totalTasks));
         tvTotalUsers.setText(String.valueOf(totalUsers));
@@ -152,40 +143,32 @@ public class AdminDashboardFragment extends Fragment {
         });
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.N)
     private void setupWeeklyChart() {
-        List<Task> allTasks = taskController.getAllTasks();
-
-        Map<Integer, Integer> currentWeek = new HashMap<>();
-        Map<Integer, Integer> lastWeek = new HashMap<>();
-
-        Calendar calendar = Calendar.getInstance();
-        long now = System.currentTimeMillis();
-        long oneWeekAgo = now - (7L * 24 * 60 * 60 * 1000);
-        long twoWeeksAgo = now - (14L * 24 * 60 * 60 * 1000);
-
-        for (Task task : allTasks) {
-            long createdTime = task.getCreatedDate();
-            calendar.setTimeInMillis(createdTime);
-            int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK); // 1..7
-
-            if (createdTime >= oneWeekAgo) {
-                currentWeek.put(dayOfWeek, currentWeek.getOrDefault(dayOfWeek, 0) + 1);
-            } else if (createdTime >= twoWeeksAgo) {
-                lastWeek.put(dayOfWeek, lastWeek.getOrDefault(dayOfWeek, 0) + 1);
-            }
-        }
-
         List<Entry> currentEntries = new ArrayList<>();
         List<Entry> lastEntries = new ArrayList<>();
 
         // Dim..Sam (IndexAxis formatter)
         String[] days = {"D", "L", "M", "M", "J", "V", "S"};
 
-        // Calendar.DAY_OF_WEEK: 1=Sunday..7=Saturday
-        for (int i = 1; i <= 7; i++) {
-            currentEntries.add(new Entry(i - 1, currentWeek.getOrDefault(i, 0)));
-            lastEntries.add(new Entry(i - 1, lastWeek.getOrDefault(i, 0)));
+        // 14 derniers jours pré-agrégés : 0..6 semaine dernière, 7..13 cette semaine (aujourd'hui compris)
+        RollupSeries daily = taskController.getDailyRollup(null, 14);
+        int[] currentWeek = new int[7];
+        int[] lastWeek = new int[7];
+        Calendar calendar = Calendar.getInstance();
+        for (int i = 0; i < daily.size(); i++) {
+            // Calendar.DAY_OF_WEEK: 1=Sunday..7=Saturday
+            calendar.setTimeInMillis(daily.getStart(i));
+            int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK) - 1;
+            if (i < 7) {
+                lastWeek[dayOfWeek] = daily.getCreated(i);
+            } else {
+                currentWeek[dayOfWeek] = daily.getCreated(i);
+            }
+        }
+
+        for (int i = 0; i < 7; i++) {
+            currentEntries.add(new Entry(i, currentWeek[i]));
+            lastEntries.add(new Entry(i, lastWeek[i]));
         }
 
         LineDataSet currentDataSet = new LineDataSet(currentEntries, "Cette semaine");
@@ -232,21 +215,12 @@ public class AdminDashboardFragment extends Fragment {
         lineChartWeekly.invalidate();
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.N)
     private void setupPriorityPieChart() {
-        List<Task> allTasks = taskController.getAllTasks();
-        Map<TaskPriority, Integer> priorityCount = new HashMap<>();
-
-        for (Task task : allTasks) {
-            TaskPriority priority = task.getPriority();
-            if (priority == null) continue;
-            priorityCount.put(priority, priorityCount.getOrDefault(priority, 0) + 1);
-        }
-
         List<PieEntry> entries = new ArrayList<>();
-        for (Map.Entry<TaskPriority, Integer> e : priorityCount.entrySet()) {
-            if (e.getValue() > 0) {
-                entries.add(new PieEntry(e.getValue(), e.getKey().getDisplayName()));
+        for (TaskPriority priority : TaskPriority.values()) {
+            int count = summary.getCount(priority);
+            if (count > 0) {
+                entries.add(new PieEntry(count, priority.getDisplayName()));
             }
         }
 
@@ -282,35 +256,21 @@ public class AdminDashboardFragment extends Fragment {
         pieChartPriority.invalidate();
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.N)
     private void setupEmployeesBarChart() {
-        List<Task> allTasks = taskController.getAllTasks();
-        Map<String, Integer> employeeTaskCount = new HashMap<>();
-        Map<String, String> employeeNames = new HashMap<>();
-
-        for (Task task : allTasks) {
-            String userId = task.getAssignedTo();
-            if (userId == null) continue;
-
-            employeeTaskCount.put(userId, employeeTaskCount.getOrDefault(userId, 0) + 1);
-
-            if (!employeeNames.containsKey(userId)) {
-                User u = userController.getUserById(userId);
-                String name = (u != null && u.getFullName() != null && !u.getFullName().isEmpty())
-                        ? u.getFullName().split(" ")[0]
-                        : "U" + userId;
-                employeeNames.put(userId, name);
-            }
-        }
-
         List<BarEntry> entries = new ArrayList<>();
         List<String> labels = new ArrayList<>();
         List<Integer> colors = new ArrayList<>();
 
         int index = 0;
-        for (Map.Entry<String, Integer> e : employeeTaskCount.entrySet()) {
-            entries.add(new BarEntry(index, e.getValue()));
-            labels.add(employeeNames.get(e.getKey()));
+        for (String userId : summary.getAssigneeIds()) {
+            // Utilisateurs déjà résolus par l'agrégation (jointure en lot)
+            User u = summary.getAssignee(userId);
+            String name = (u != null && u.getFullName() != null && !u.getFullName().isEmpty())
+                    ? u.getFullName().split(" ")[0]
+                    : "U" + userId;
+
+            entries.add(new BarEntry(index, summary.getTaskCount(userId)));
+            labels.add(name);
             colors.add(index % 2 == 0 ? Color.BLACK : Color.parseColor("#FFB3B3"));
             index++;
         }
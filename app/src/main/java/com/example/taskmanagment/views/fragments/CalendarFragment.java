@@ -18,10 +18,10 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.adapters.TaskAdapter;
 import com.example.taskmanagment.controllers.TaskController;
+import com.example.taskmanagment.database.TaskQuery;
 import com.example.taskmanagment.models.Task;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
@@ -126,8 +126,6 @@ public class CalendarFragment extends Fragment {
         // Mettre à jour le titre
         tvSelectedDate.setText(dateFormat.format(dateMillis));
 
-        List<Task> allTasks = taskController.getAllTasks();
-
         // Bornes de la journée
         Calendar startOfDay = Calendar.getInstance();
         startOfDay.setTimeInMillis(dateMillis);
@@ -145,14 +143,10 @@ public class CalendarFragment extends Fragment {
         endOfDay.set(Calendar.MILLISECOND, 999);
         long endMillis = endOfDay.getTimeInMillis();
 
-        // ✅ Filtrage compatible Android < N (pas de stream)
-        List<Task> tasksForDate = new ArrayList<>();
-        for (Task task : allTasks) {
-            long dueDate = task.getDueDate();
-            if (dueDate >= startMillis && dueDate <= endMillis) {
-                tasksForDate.add(task);
-            }
-        }
+        // ✅ Requête par intervalle sur l'index des échéances, déjà triée par échéance
+        List<Task> tasksForDate = taskController.queryTasks(new TaskQuery()
+                .dueBetween(startMillis, endMillis)
+                .orderBy(TaskQuery.SortKey.DUE_DATE));
 
         if (tasksForDate.isEmpty()) {
             recyclerViewTasks.setVisibility(View.GONE);
@@ -3,14 +3,19 @@ package com.example.taskmanagment.views.fragments;
 import android.app.DatePickerDialog;
 import android.content.Context;
 import android.os.Bundle;
+import android.text.Editable;
 import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.Filter;
 import android.widget.Spinner;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -19,17 +24,13 @@ import androidx.fragment.app.Fragment;
 
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.controllers.AuthController;
+import com.example.taskmanagment.controllers.TaskController;
+import com.example.taskmanagment.controllers.UserController;
 import com.example.taskmanagment.models.Task;
 import com.example.taskmanagment.models.TaskPriority;
 import com.example.taskmanagment.models.TaskStatus;
 import com.example.taskmanagment.models.User;
-import com.example.taskmanagment.models.UserType;
-import com.example.taskmanagment.utils.XMLParser;
-import com.example.taskmanagment.utils.XMLWriter;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -39,15 +40,21 @@ import java.util.Locale;
 public class CreateTaskFragment extends Fragment {
 
     private EditText etTitle, etDescription, etDueDate;
-    private Spinner spinnerEmployee, spinnerPriority;
+    private AutoCompleteTextView actvEmployee;
+    private Spinner spinnerPriority;
     private Button btnCancel, btnSave;
 
     private long selectedDueDateMillis = 0;
 
     private AuthController authController;
+    private TaskController taskController;
+    private UserController userController;
     private User currentUser;
 
-    private List<User> employees = new ArrayList<>();
+    // Nombre de suggestions affichées pendant la saisie de l'employé
+    private static final int MAX_EMPLOYEE_SUGGESTIONS = 8;
+
+    private User selectedEmployee;
 
     public CreateTaskFragment() {}
 
@@ -60,20 +67,22 @@ public class CreateTaskFragment extends Fragment {
         View v = inflater.inflate(R.layout.fragment_create_task, container, false);
 
         authController = new AuthController(requireContext());
+        taskController = new TaskController(requireContext());
+        userController = new UserController(requireContext());
         currentUser = authController.getCurrentUser(); // celui qui crée la tâche
 
         etTitle = v.findViewById(R.id.etTitle);
         etDescription = v.findViewById(R.id.etDescription);
         etDueDate = v.findViewById(R.id.etDueDate);
 
-        spinnerEmployee = v.findViewById(R.id.spinnerEmployee);
+        actvEmployee = v.findViewById(R.id.actvEmployee);
         spinnerPriority = v.findViewById(R.id.spinnerPriority);
 
         btnCancel = v.findViewById(R.id.btnCancel);
         btnSave = v.findViewById(R.id.btnSave);
 
         setupPrioritySpinner();
-        setupEmployeeSpinner();
+        setupEmployeeAutocomplete();
         setupDueDatePicker();
 
         btnCancel.setOnClickListener(view -> requireActivity().getSupportFragmentManager().popBackStack());
@@ -92,17 +101,83 @@ public class CreateTaskFragment extends Fragment {
         spinnerPriority.setAdapter(adapter);
     }
 
-    private void setupEmployeeSpinner() {
-        employees = loadEmployees(requireContext());
+    // -------------------- EMPLOYÉ (SAISIE AVEC COMPLÉTION) --------------------
+
+    private void setupEmployeeAutocomplete() {
+        EmployeeSuggestions suggestions = new EmployeeSuggestions();
+        actvEmployee.setAdapter(suggestions);
+
+        // Le texte remplacé par la suggestion choisie passe ici avant le clic : la sélection tient
+        actvEmployee.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
+            @Override public void afterTextChanged(Editable s) {
+                selectedEmployee = null;
+            }
+        });
+        actvEmployee.setOnItemClickListener((parent, view, position, id) ->
+                selectedEmployee = suggestions.getItem(position));
+    }
+
+    private static String employeeLabel(User u) {
+        return u.getFullName() + " (id=" + u.getId() + ")";
+    }
+
+    /**
+     * Suggestions d'employés depuis l'index de complétion du cache (UserController.completeUsers)
+     */
+    private class EmployeeSuggestions extends ArrayAdapter<User> {
+        private final Filter filter = new Filter() {
+            @Override
+            protected FilterResults performFiltering(CharSequence constraint) {
+                // Thread de filtrage : lecture du cache, sans verrou exclusif
+                List<User> found = new ArrayList<>();
+                if (constraint != null && constraint.length() > 0) {
+                    // Les administrateurs sont écartés : en demander autant de plus garde N employés
+                    int limit = MAX_EMPLOYEE_SUGGESTIONS + userController.getAdminCount();
+                    for (User u : userController.completeUsers(constraint.toString(), limit)) {
+                        if (u.isEmployee() && found.size() < MAX_EMPLOYEE_SUGGESTIONS) {
+                            found.add(u);
+                        }
+                    }
+                }
+                FilterResults results = new FilterResults();
+                results.values = found;
+                results.count = found.size();
+                return results;
+            }
 
-        List<String> employeeNames = new ArrayList<>();
-        for (User u : employees) {
-            employeeNames.add(u.getFullName() + " (id=" + u.getId() + ")");
+            @Override
+            @SuppressWarnings("unchecked")
+            protected void publishResults(CharSequence constraint, FilterResults results) {
+                clear();
+                addAll((List<User>) results.values);
+                notifyDataSetChanged();
+            }
+
+            @Override
+            public CharSequence convertResultToString(Object resultValue) {
+                return employeeLabel((User) resultValue);
+            }
+        };
+
+        EmployeeSuggestions() {
+            super(requireContext(), android.R.layout.simple_dropdown_item_1line, new ArrayList<User>());
         }
 
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(),
-                android.R.layout.simple_spinner_dropdown_item, employeeNames);
-        spinnerEmployee.setAdapter(adapter);
+        @NonNull
+        @Override
+        public View getView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
+            TextView view = (TextView) super.getView(position, convertView, parent);
+            view.setText(employeeLabel(getItem(position)));
+            return view;
+        }
+
+        @NonNull
+        @Override
+        public Filter getFilter() {
+            return filter;
+        }
     }
 
     // -------------------- DATE PICKER --------------------
@@ -147,8 +222,8 @@ public class CreateTaskFragment extends Fragment {
             return;
         }
 
-        if (employees.isEmpty()) {
-            Toast.makeText(ctx, "Aucun employé trouvé pour l’affectation", Toast.LENGTH_SHORT).show();
+        if (selectedEmployee == null) {
+            Toast.makeText(ctx, "Veuillez choisir un employé dans la liste", Toast.LENGTH_SHORT).show();
             return;
         }
 
@@ -157,15 +232,14 @@ public class CreateTaskFragment extends Fragment {
             return;
         }
 
-        // 1) Charger tasks existantes
-        List<Task> tasks = loadTasks(ctx);
+        // 1) Charger tasks existantes (cache + journal)
+        List<Task> tasks = taskController.getAllTasks();
 
         // 2) Créer un nouvel ID (max + 1)
         int newId = getNextTaskId(tasks);
 
         // 3) Récupérer employé sélectionné
-        int pos = spinnerEmployee.getSelectedItemPosition();
-        User assignedEmployee = employees.get(pos);
+        User assignedEmployee = selectedEmployee;
 
         // 4) Récupérer priorité
         String priorityStr = String.valueOf(spinnerPriority.getSelectedItem());
@@ -183,10 +257,8 @@ public class CreateTaskFragment extends Fragment {
         t.setCreatedDate(System.currentTimeMillis());
         t.setDueDate(selectedDueDateMillis);
 
-        tasks.add(t);
-
-        // 6) Écrire dans filesDir/tasks.xml
-        boolean ok = XMLWriter.writeTasksToXML(ctx, tasks, "tasks.xml");
+        // 6) Enregistrer via le contrôleur (journal des mutations)
+        boolean ok = taskController.createTask(t);
 
         if (ok) {
             Toast.makeText(ctx, "Tâche ajoutée avec succès ✅", Toast.LENGTH_SHORT).show();
@@ -198,56 +270,6 @@ public class CreateTaskFragment extends Fragment {
 
     // -------------------- LOADERS --------------------
 
-    private List<Task> loadTasks(Context ctx) {
-        try {
-            File internalFile = new File(ctx.getFilesDir(), "tasks.xml");
-            InputStream is;
-
-            if (internalFile.exists()) {
-                is = new FileInputStream(internalFile);
-            } else {
-                // ⚠️ Remplace R.raw.tasks par le vrai nom de ton fichier dans res/raw
-                is = ctx.getResources().openRawResource(R.raw.tasks);
-            }
-
-            List<Task> tasks = XMLParser.parseTasksXML(is);
-            is.close();
-            return tasks != null ? tasks : new ArrayList<>();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ArrayList<>();
-        }
-    }
-
-    private List<User> loadEmployees(Context ctx) {
-        try {
-            File internalFile = new File(ctx.getFilesDir(), "users.xml");
-            InputStream is;
-
-            if (internalFile.exists()) {
-                is = new FileInputStream(internalFile);
-            } else {
-                // ⚠️ Remplace R.raw.users par le vrai nom de ton fichier dans res/raw
-                is = ctx.getResources().openRawResource(R.raw.users);
-            }
-
-            List<User> users = XMLParser.parseUsersXML(is);
-            is.close();
-
-            List<User> employeesOnly = new ArrayList<>();
-            for (User u : users) {
-                if (u.getUserType() == UserType.EMPLOYEE) {
-                    employeesOnly.add(u);
-                }
-            }
-            return employeesOnly;
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ArrayList<>();
-        }
-    }
-
     private int getNextTaskId(List<Task> tasks) {
         int max = 0;
         for (Task t : tasks) {
@@ -1,6 +1,5 @@
 package com.example.taskmanagment.views.fragments;
 
-import android.os.Build;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -9,16 +8,14 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.annotation.RequiresApi;
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
 
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.controllers.AuthController;
 import com.example.taskmanagment.controllers.TaskController;
+import com.example.taskmanagment.database.RollupSeries;
 import com.example.taskmanagment.database.TaskDAO;
-import com.example.taskmanagment.models.Task;
-import com.example.taskmanagment.models.TaskStatus;
 import com.example.taskmanagment.models.User;
 import com.github.mikephil.charting.charts.LineChart;
 import com.github.mikephil.charting.charts.PieChart;
@@ -37,9 +34,7 @@ import android.graphics.Color;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Dashboard Employé avec design moderne (style Spendly)
@@ -55,7 +50,6 @@ public class DashboardFragment extends Fragment {
     private TaskController taskController;
     private User currentUser;
 
-    @RequiresApi(api = Build.VERSION_CODES.N)
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -81,7 +75,6 @@ public class DashboardFragment extends Fragment {
         pieChartExpenses = view.findViewById(R.id.pieChartExpenses);
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.N)
     private void loadData() {
         // Set user name
         tvUserName.setText(currentUser.getFullName());
@@ -103,39 +96,25 @@ public class DashboardFragment extends Fragment {
 
         // Setup charts
         setupCashflowChart();
-        setupExpensesPieChart();
+        setupExpensesPieChart(stats);
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.N)
     private void setupCashflowChart() {
-        List<Task> userTasks = taskController.getTasksByUser(currentUser.getId());
+        // 6 derniers mois pré-agrégés (mois en cours compris), sans parcourir les tâches
+        RollupSeries monthly = taskController.getMonthlyRollup(currentUser.getId(), 6);
 
-        // Group tasks by month
-        Map<Integer, Integer> completedByMonth = new HashMap<>();
-        Map<Integer, Integer> pendingByMonth = new HashMap<>();
-
-        Calendar calendar = Calendar.getInstance();
-        for (Task task : userTasks) {
-            calendar.setTimeInMillis(task.getCreatedDate());
-            int month = calendar.get(Calendar.MONTH);
-
-            if (task.getStatus() == TaskStatus.COMPLETED) {
-                completedByMonth.put(month, completedByMonth.getOrDefault(month, 0) + 1);
-            } else {
-                pendingByMonth.put(month, pendingByMonth.getOrDefault(month, 0) + 1);
-            }
-        }
-
-        // Prepare data for last 6 months
         List<Entry> incomeEntries = new ArrayList<>();
         List<Entry> expenseEntries = new ArrayList<>();
-        String[] months = {"Jan", "Fév", "Mar", "Avr", "Mai", "Juin"};
+        String[] monthNames = {"Jan", "Fév", "Mar", "Avr", "Mai", "Juin",
+                "Juil", "Août", "Sep", "Oct", "Nov", "Déc"};
+        String[] months = new String[monthly.size()];
 
-        int currentMonth = Calendar.getInstance().get(Calendar.MONTH);
-        for (int i = 0; i < 6; i++) {
-            int month = (currentMonth - 5 + i + 12) % 12;
-            incomeEntries.add(new Entry(i, completedByMonth.getOrDefault(month, 0) * 100));
-            expenseEntries.add(new Entry(i, pendingByMonth.getOrDefault(month, 0) * 100));
+        Calendar calendar = Calendar.getInstance();
+        for (int i = 0; i < monthly.size(); i++) {
+            calendar.setTimeInMillis(monthly.getStart(i));
+            months[i] = monthNames[calendar.get(Calendar.MONTH)];
+            incomeEntries.add(new Entry(i, monthly.getCompleted(i) * 100));
+            expenseEntries.add(new Entry(i, monthly.getPending(i) * 100));
         }
 
         // Income line (green)
@@ -184,27 +163,10 @@ public class DashboardFragment extends Fragment {
         lineChartCashflow.invalidate();
     }
 
-    private void setupExpensesPieChart() {
-        List<Task> userTasks = taskController.getTasksByUser(currentUser.getId());
-
-        // Count tasks by status
-        int pending = 0, inProgress = 0, completed = 0, cancelled = 0;
-        for (Task task : userTasks) {
-            switch (task.getStatus()) {
-                case PENDING:
-                    pending++;
-                    break;
-                case IN_PROGRESS:
-                    inProgress++;
-                    break;
-                case COMPLETED:
-                    completed++;
-                    break;
-                case CANCELLED:
-                    cancelled++;
-                    break;
-            }
-        }
+    private void setupExpensesPieChart(TaskDAO.TaskStatistics stats) {
+        // Compteurs par statut déjà tenus à jour par le cache
+        int pending = stats.pending, inProgress = stats.inProgress;
+        int completed = stats.completed, cancelled = stats.cancelled;
 
         List<PieEntry> entries = new ArrayList<>();
         if (pending > 0) entries.add(new PieEntry(pending, "En Attente"));
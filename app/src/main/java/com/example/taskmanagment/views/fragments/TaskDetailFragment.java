@@ -21,9 +21,7 @@ import com.example.taskmanagment.models.Task;
 import com.example.taskmanagment.models.TaskPriority;
 import com.example.taskmanagment.models.TaskStatus;
 import com.example.taskmanagment.models.User;
-import com.example.taskmanagment.utils.XMLWriter;
 
-import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -225,21 +223,9 @@ public class TaskDetailFragment extends Fragment {
 
     @RequiresApi(api = Build.VERSION_CODES.M)
     private void updateStatus(TaskStatus newStatus) {
-        List<Task> tasks = taskController.getAllTasks();
-
-        for (Task t : tasks) {
-            if (t.getId().equals(currentTask.getId())) {
-                t.setStatus(newStatus);
-
-                if (newStatus == TaskStatus.COMPLETED) {
-                    t.setCompletedDate(System.currentTimeMillis());
-                }
-                break;
-            }
-        }
-
-        // Écrire dans filesDir/tasks.xml
-        XMLWriter.writeTasksToXML(requireContext(), tasks, "tasks.xml");
+        // Lire-modifier-écrire atomique sur la tâche du cache (modifyTask) : une modification
+        // concurrente n'est pas écrasée ; setStatus date la complétion
+        taskController.updateTaskStatus(currentTask.getId(), newStatus);
 
         // Recharger la tâche et rafraîchir UI
         currentTask = findTaskById(currentTask.getId());
@@ -250,19 +236,8 @@ public class TaskDetailFragment extends Fragment {
     }
 
     private void deleteTask() {
-        List<Task> tasks = taskController.getAllTasks();
-        Task toRemove = null;
-
-        for (Task t : tasks) {
-            if (t.getId().equals(currentTask.getId())) {
-                toRemove = t;
-                break;
-            }
-        }
-
-        if (toRemove != null) tasks.remove(toRemove);
-
-        XMLWriter.writeTasksToXML(requireContext(), tasks, "tasks.xml");
+        // Supprimer via le contrôleur (journal des mutations)
+        taskController.deleteTask(currentTask.getId());
 
         // Retour au fragment précédent
         requireActivity().getSupportFragmentManager().popBackStack();
@@ -20,8 +20,10 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.adapters.TaskAdapter;
+import com.example.taskmanagment.adapters.TaskPageLoader;
 import com.example.taskmanagment.controllers.TaskController;
 import com.example.taskmanagment.controllers.UserController;
+import com.example.taskmanagment.database.TaskQuery;
 import com.example.taskmanagment.models.Task;
 import com.example.taskmanagment.models.TaskPriority;
 import com.example.taskmanagment.models.User;
@@ -44,8 +46,8 @@ public class TaskListFragment extends Fragment {
     private UserController userController;
 
     private TaskAdapter adapter;
+    private TaskPageLoader pageLoader;
 
-    private final List<Task> allTasks = new ArrayList<>();
     private final List<User> employees = new ArrayList<>();
 
     private String selectedUserId = "ALL";
@@ -70,7 +72,6 @@ public class TaskListFragment extends Fragment {
         setupRecycler();
         setupFilters();
 
-        loadAll();
         applyFilters();
 
         return view;
@@ -79,7 +80,6 @@ public class TaskListFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        loadAll();
         applyFilters();
     }
 
@@ -110,6 +110,21 @@ public class TaskListFragment extends Fragment {
         );
         rvTasks.setAdapter(adapter);
         rvTasks.setAdapter(adapter);
+
+        // Une page à l'ouverture, les suivantes au défilement
+        pageLoader = new TaskPageLoader(taskController, adapter, TaskPageLoader.DEFAULT_PAGE_SIZE,
+                (itemCount, hasMore) -> {
+                    boolean empty = itemCount == 0;
+                    tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
+                    rvTasks.setVisibility(empty ? View.GONE : View.VISIBLE);
+                });
+        pageLoader.attach(rvTasks);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        pageLoader.release();
     }
 
     private void openEditTask(String taskId) {
@@ -138,7 +153,6 @@ public class TaskListFragment extends Fragment {
         controller.deleteTask(task.getId());
 
         // ✅ recharger la liste
-        loadAll();
         applyFilters();
     }
 
@@ -218,45 +232,20 @@ public class TaskListFragment extends Fragment {
         });
     }
 
-    private void loadAll() {
-        allTasks.clear();
-        allTasks.addAll(taskController.getAllTasks());
-    }
-
     private void applyFilters() {
-        String q = etSearch.getText() != null ? etSearch.getText().toString().trim().toLowerCase() : "";
-
-        List<Task> out = new ArrayList<>();
-        for (Task t : allTasks) {
-
-            if (!q.isEmpty()) {
-                String title = t.getTitle() != null ? t.getTitle().toLowerCase() : "";
-                String desc = t.getDescription() != null ? t.getDescription().toLowerCase() : "";
-                if (!title.contains(q) && !desc.contains(q)) continue;
-            }
-
-            if (!"ALL".equals(selectedUserId)) {
-                if (t.getAssignedTo() == null || !selectedUserId.equals(t.getAssignedTo())) continue;
-            }
-
-            if (!"ALL".equals(selectedPriority)) {
-                TaskPriority pr = t.getPriority();
-                if (pr == null || !selectedPriority.equals(pr.name())) continue;
-            }
-
-            long due = t.getDueDate();
-            if (fromMillis != null && due < fromMillis) continue;
-            if (toMillis != null && due > toMillis) continue;
-
-            out.add(t);
+        String q = etSearch.getText() != null ? etSearch.getText().toString().trim() : "";
+
+        // L'index le plus sélectif (utilisateur, priorité, échéances ou trigrammes) fournit les candidats
+        TaskQuery query = new TaskQuery().containing(q);
+        if (!"ALL".equals(selectedUserId)) query.assignedTo(selectedUserId);
+        if (!"ALL".equals(selectedPriority)) query.priority(TaskPriority.valueOf(selectedPriority));
+        if (fromMillis != null || toMillis != null) {
+            query.dueBetween(fromMillis != null ? fromMillis : Long.MIN_VALUE,
+                    toMillis != null ? toMillis : Long.MAX_VALUE);
         }
 
-        // ✅ méthode disponible dans notre adapter
-        adapter.submit(out);
-
-        boolean empty = out.isEmpty();
-        tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
-        rvTasks.setVisibility(empty ? View.GONE : View.VISIBLE);
+        // Par échéance croissante, page par page
+        pageLoader.reset(query);
     }
 
     private void pickDate(boolean isFrom) {
@@ -19,8 +19,10 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.taskmanagment.R;
 import com.example.taskmanagment.adapters.TaskAdapter;
+import com.example.taskmanagment.adapters.TaskPageLoader;
 import com.example.taskmanagment.controllers.TaskController;
 import com.example.taskmanagment.controllers.UserController;
+import com.example.taskmanagment.database.TaskQuery;
 import com.example.taskmanagment.models.Task;
 import com.example.taskmanagment.models.TaskPriority;
 import com.example.taskmanagment.models.User;
@@ -43,8 +45,8 @@ public class TasksFragment extends Fragment {
     private UserController userController;
 
     private TaskAdapter adapter;
+    private TaskPageLoader pageLoader;
 
-    private final List<Task> allTasks = new ArrayList<>();
     private final List<User> employees = new ArrayList<>();
 
     private String selectedUserId = "ALL";
@@ -69,7 +71,6 @@ public class TasksFragment extends Fragment {
         setupRecycler();
         setupFilters();
 
-        loadAll();
         applyFilters();
 
         return view;
@@ -78,7 +79,6 @@ public class TasksFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        loadAll();
         applyFilters();
     }
 
@@ -108,6 +108,21 @@ public class TasksFragment extends Fragment {
         );
 
         rvTasks.setAdapter(adapter);
+
+        // Une page à l'ouverture, les suivantes au défilement
+        pageLoader = new TaskPageLoader(taskController, adapter, TaskPageLoader.DEFAULT_PAGE_SIZE,
+                (itemCount, hasMore) -> {
+                    boolean empty = itemCount == 0;
+                    tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
+                    rvTasks.setVisibility(empty ? View.GONE : View.VISIBLE);
+                });
+        pageLoader.attach(rvTasks);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        pageLoader.release();
     }
 
     private void setupFilters() {
@@ -178,48 +193,20 @@ public class TasksFragment extends Fragment {
         });
     }
 
-    private void loadAll() {
-        allTasks.clear();
-        allTasks.addAll(taskController.getAllTasks());
-    }
-
     private void applyFilters() {
-        String q = etSearch.getText() != null ? etSearch.getText().toString().trim().toLowerCase() : "";
-
-        List<Task> out = new ArrayList<>();
-        for (Task t : allTasks) {
-
-            // search
-            if (!q.isEmpty()) {
-                String title = t.getTitle() != null ? t.getTitle().toLowerCase() : "";
-                String desc = t.getDescription() != null ? t.getDescription().toLowerCase() : "";
-                if (!title.contains(q) && !desc.contains(q)) continue;
-            }
-
-            // user
-            if (!"ALL".equals(selectedUserId)) {
-                if (t.getAssignedTo() == null || !selectedUserId.equals(t.getAssignedTo())) continue;
-            }
-
-            // priority
-            if (!"ALL".equals(selectedPriority)) {
-                TaskPriority pr = t.getPriority();
-                if (pr == null || !selectedPriority.equals(pr.name())) continue;
-            }
-
-            // date range (dueDate)
-            long due = t.getDueDate();
-            if (fromMillis != null && due < fromMillis) continue;
-            if (toMillis != null && due > toMillis) continue;
-
-            out.add(t);
+        String q = etSearch.getText() != null ? etSearch.getText().toString().trim() : "";
+
+        // L'index le plus sélectif (utilisateur, priorité, échéances ou trigrammes) fournit les candidats
+        TaskQuery query = new TaskQuery().containing(q);
+        if (!"ALL".equals(selectedUserId)) query.assignedTo(selectedUserId);
+        if (!"ALL".equals(selectedPriority)) query.priority(TaskPriority.valueOf(selectedPriority));
+        if (fromMillis != null || toMillis != null) {
+            query.dueBetween(fromMillis != null ? fromMillis : Long.MIN_VALUE,
+                    toMillis != null ? toMillis : Long.MAX_VALUE);
         }
 
-        adapter.submit(out);
-
-        boolean empty = out.isEmpty();
-        tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
-        rvTasks.setVisibility(empty ? View.GONE : View.VISIBLE);
+        // Par échéance croissante, page par page
+        pageLoader.reset(query);
     }
 
     private void pickDate(boolean isFrom) {
@@ -274,7 +261,6 @@ public class TasksFragment extends Fragment {
                 .setMessage(R.string.confirm_delete_task)
                 .setPositiveButton(R.string.yes, (d, w) -> {
                     taskController.deleteTask(task.getId());
-                    loadAll();
                     applyFilters();
                 })
                 .setNegativeButton(R.string.no, null)
@@ -35,6 +35,8 @@ public class UsersFragment extends Fragment {
     private UserAdapter adapter;
 
     private final List<User> allUsers = new ArrayList<>();
+    // Nom, login et email en minuscules, calculés une fois par chargement (pas à chaque frappe)
+    private final List<String> searchTexts = new ArrayList<>();
 
     @Nullable
     @Override
@@ -92,19 +94,25 @@ public class UsersFragment extends Fragment {
     private void loadUsers() {
         allUsers.clear();
         allUsers.addAll(userController.getAllUsers());
+
+        searchTexts.clear();
+        for (User u : allUsers) {
+            searchTexts.add(lower(u.getFullName()) + '\n' + lower(u.getUsername()) + '\n' + lower(u.getEmail()));
+        }
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase() : "";
     }
 
     private void applyFilter(String query) {
         String q = query == null ? "" : query.trim().toLowerCase();
 
+        // Sous-chaîne du nom, du login ou de l'email ("pont" trouve "Dupont")
         List<User> out = new ArrayList<>();
-        for (User u : allUsers) {
-            String name = u.getFullName() != null ? u.getFullName().toLowerCase() : "";
-            String username = u.getUsername() != null ? u.getUsername().toLowerCase() : "";
-            String email = u.getEmail() != null ? u.getEmail().toLowerCase() : "";
-
-            if (name.contains(q) || username.contains(q) || email.contains(q)) {
-                out.add(u);
+        for (int i = 0; i < allUsers.size(); i++) {
+            if (searchTexts.get(i).contains(q)) {
+                out.add(allUsers.get(i));
             }
         }
 
@@ -183,10 +191,8 @@ public class UsersFragment extends Fragment {
                     return;
                 }
 
-                user.setFullName(newFullName);
-                user.setEmail(newEmail);
-
-                boolean ok = userController.updateUser(user);
+                // Modification atomique d'une copie, validée avant de remplacer l'utilisateur du cache
+                boolean ok = userController.updateUserProfile(user.getId(), newEmail, newFullName);
                 if (ok) {
                     Toast.makeText(requireContext(), "Utilisateur modifié ✅", Toast.LENGTH_SHORT).show();
                     loadUsers(); // recharge ta liste
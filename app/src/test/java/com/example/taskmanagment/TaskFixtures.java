@@ -0,0 +1,172 @@
+package com.example.taskmanagment;
+
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.models.UserType;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Jeux de données déterministes pour les tests et benchmarks
+ */
+public final class TaskFixtures {
+    public static final long BASE_DATE = 1704067200000L;
+    public static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final String[] WORDS = {
+            "rapport", "mensuel", "réunion", "équipe", "clients", "base", "données",
+            "préparer", "vérifier", "planifier", "budget", "formation", "inventaire", "audit"
+    };
+
+    private TaskFixtures() {}
+
+    /**
+     * Tâche n°i, assignée à l'un des {@code userCount} employés
+     */
+    public static Task task(int i, int userCount) {
+        Task task = new Task();
+        task.setId(String.valueOf(i + 1));
+        task.setTitle(WORDS[i % WORDS.length] + " " + WORDS[(i / 3) % WORDS.length] + " #" + i);
+        task.setDescription("Description de la tâche " + i + " : " + WORDS[(i * 7) % WORDS.length]
+                + " & " + WORDS[(i * 11) % WORDS.length] + " <détails>");
+        task.setAssignedTo(String.valueOf(2 + (i % userCount)));
+        task.setCreatedBy("1");
+        task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+        task.setPriority(TaskPriority.values()[(i / 2) % TaskPriority.values().length]);
+        task.setCreatedDate(BASE_DATE + (i % 365) * DAY);
+        task.setDueDate(BASE_DATE + ((i * 37) % 400) * DAY);
+        task.setCompletedDate(task.getStatus() == TaskStatus.COMPLETED ? task.getCreatedDate() + DAY : 0);
+        return task;
+    }
+
+    public static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(task(i, 50));
+        }
+        return tasks;
+    }
+
+    public static User user(int i) {
+        User user = new User();
+        user.setId(String.valueOf(i + 1));
+        user.setUsername("user_" + i);
+        user.setPassword("secret" + i);
+        user.setUserType(i == 0 ? UserType.ADMIN : UserType.EMPLOYEE);
+        user.setEmail("user" + i + "@company.com");
+        user.setFullName("Prénom" + i + " Nom" + i);
+        user.setCreatedDate(BASE_DATE + i);
+        return user;
+    }
+
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    /**
+     * Écrit {@code count} tâches au format de tasks.xml dans un fichier temporaire
+     */
+    public static File tasksXmlFile(int count) throws IOException {
+        File file = File.createTempFile("tasks-" + count + "-", ".xml");
+        file.deleteOnExit();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<tasks>\n");
+            for (int i = 0; i < count; i++) {
+                Task t = task(i, 50);
+                out.write("    <task>\n");
+                element(out, "id", t.getId());
+                element(out, "title", t.getTitle());
+                element(out, "description", t.getDescription());
+                element(out, "assignedTo", t.getAssignedTo());
+                element(out, "createdBy", t.getCreatedBy());
+                element(out, "status", t.getStatus().name());
+                element(out, "priority", t.getPriority().name());
+                element(out, "createdDate", String.valueOf(t.getCreatedDate()));
+                element(out, "dueDate", String.valueOf(t.getDueDate()));
+                if (t.getCompletedDate() > 0) {
+                    element(out, "completedDate", String.valueOf(t.getCompletedDate()));
+                }
+                out.write("    </task>\n");
+            }
+            out.write("</tasks>\n");
+        }
+        return file;
+    }
+
+    /**
+     * Écrit {@code count} utilisateurs au format de users.xml dans un fichier temporaire
+     */
+    public static File usersXmlFile(int count) throws IOException {
+        File file = File.createTempFile("users-" + count + "-", ".xml");
+        file.deleteOnExit();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<users>\n");
+            for (int i = 0; i < count; i++) {
+                User u = user(i);
+                out.write("    <user>\n");
+                element(out, "id", u.getId());
+                element(out, "username", u.getUsername());
+                element(out, "password", u.getPassword());
+                element(out, "userType", u.getUserType().name());
+                element(out, "email", u.getEmail());
+                element(out, "fullName", u.getFullName());
+                element(out, "createdDate", String.valueOf(u.getCreatedDate()));
+                out.write("    </user>\n");
+            }
+            out.write("</users>\n");
+        }
+        return file;
+    }
+
+    private static void element(Writer out, String name, String value) throws IOException {
+        out.write("        <" + name + ">");
+        out.write(value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;"));
+        out.write("</" + name + ">\n");
+    }
+
+    public static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getAssignedTo(), actual.getAssignedTo());
+        assertEquals(expected.getCreatedBy(), actual.getCreatedBy());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getCreatedDate(), actual.getCreatedDate());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getCompletedDate(), actual.getCompletedDate());
+    }
+
+    public static void assertSameUser(User expected, User actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getPassword(), actual.getPassword());
+        assertEquals(expected.getUserType(), actual.getUserType());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getFullName(), actual.getFullName());
+        assertEquals(expected.getCreatedDate(), actual.getCreatedDate());
+    }
+
+    /**
+     * Les benchmarks ne tournent qu'avec -DrunBenchmarks=true
+     */
+    public static boolean benchmarksEnabled() {
+        return Boolean.getBoolean("runBenchmarks");
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.models.UserType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Agrégation en un parcours comparée aux quatre boucles de l'ancien AdminDashboardFragment
+ */
+public class DashboardAggregatorTest {
+
+    /**
+     * Résultat de l'ancien AdminDashboardFragment.loadDataFromXML
+     */
+    static final class LegacyDashboard {
+        int total, completed, inProgress;
+        final Map<Integer, Integer> currentWeek = new HashMap<>();
+        final Map<Integer, Integer> lastWeek = new HashMap<>();
+        final Map<TaskPriority, Integer> priorityCount = new HashMap<>();
+        final Map<String, Integer> employeeTaskCount = new HashMap<>();
+        final Map<String, String> employeeNames = new HashMap<>();
+    }
+
+    @Test
+    public void matchesLegacyLoops() {
+        List<Task> tasks = TaskFixtures.tasks(2_000);
+        long now = TaskFixtures.BASE_DATE + 100 * TaskFixtures.DAY;
+        tasks.get(60).setAssignedTo("999");
+
+        TaskStore store = new TaskStore(tasks);
+        UserStore users = new UserStore(TaskFixtures.users(40));
+        DashboardSummary summary = new DashboardAggregator().aggregate(store.values(), users, now, null);
+        LegacyDashboard legacy = legacy(store.getAll(), users, now);
+
+        assertEquals(legacy.total, summary.getTotalTasks());
+        assertEquals(legacy.completed, summary.getCount(TaskStatus.COMPLETED));
+        assertEquals(legacy.inProgress, summary.getCount(TaskStatus.IN_PROGRESS));
+        assertEquals(users.countByType(UserType.EMPLOYEE), summary.getEmployeeCount());
+        for (TaskPriority priority : TaskPriority.values()) {
+            assertEquals(count(legacy.priorityCount.get(priority)), summary.getCount(priority));
+        }
+
+        assertEquals(legacy.employeeTaskCount.size(), summary.getAssigneeIds().size());
+        for (String userId : summary.getAssigneeIds()) {
+            assertEquals(count(legacy.employeeTaskCount.get(userId)), summary.getTaskCount(userId));
+            assertSame(users.get(userId), summary.getAssignee(userId));
+        }
+        assertNull(summary.getAssignee("999"));
+        assertEquals(1, summary.getTaskCount("999"));
+    }
+
+    private static int count(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Les quatre boucles de l'ancien fragment, chacune sur sa copie de getAllTasks()
+     */
+    static LegacyDashboard legacy(List<Task> source, UserStore users, long now) {
+        LegacyDashboard d = new LegacyDashboard();
+
+        List<Task> allTasks = new ArrayList<>(source);
+        d.total = allTasks.size();
+        for (Task task : allTasks) {
+            if (task.getStatus() == TaskStatus.COMPLETED) d.completed++;
+            if (task.getStatus() == TaskStatus.IN_PROGRESS) d.inProgress++;
+        }
+
+        allTasks = new ArrayList<>(source);
+        Calendar calendar = Calendar.getInstance();
+        long oneWeekAgo = now - (7L * 24 * 60 * 60 * 1000);
+        long twoWeeksAgo = now - (14L * 24 * 60 * 60 * 1000);
+        for (Task task : allTasks) {
+            long createdTime = task.getCreatedDate();
+            calendar.setTimeInMillis(createdTime);
+            int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
+            if (createdTime >= oneWeekAgo) {
+                d.currentWeek.put(dayOfWeek, count(d.currentWeek.get(dayOfWeek)) + 1);
+            } else if (createdTime >= twoWeeksAgo) {
+                d.lastWeek.put(dayOfWeek, count(d.lastWeek.get(dayOfWeek)) + 1);
+            }
+        }
+
+        allTasks = new ArrayList<>(source);
+        for (Task task : allTasks) {
+            TaskPriority priority = task.getPriority();
+            if (priority == null) continue;
+            d.priorityCount.put(priority, count(d.priorityCount.get(priority)) + 1);
+        }
+
+        allTasks = new ArrayList<>(source);
+        for (Task task : allTasks) {
+            String userId = task.getAssignedTo();
+            if (userId == null) continue;
+            d.employeeTaskCount.put(userId, count(d.employeeTaskCount.get(userId)) + 1);
+            if (!d.employeeNames.containsKey(userId)) {
+                User u = users.get(userId);
+                d.employeeNames.put(userId, u != null ? u.getFullName() : "U" + userId);
+            }
+        }
+        return d;
+    }
+}
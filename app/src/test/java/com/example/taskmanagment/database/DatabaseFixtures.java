@@ -0,0 +1,95 @@
+package com.example.taskmanagment.database;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+
+import com.example.taskmanagment.R;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Base XML sur un répertoire temporaire pour les tests JVM : les ressources raw (données
+ * initiales et schémas) sont lues dans src/main/res/raw
+ */
+final class DatabaseFixtures {
+
+    private static final File RAW = new File("src/main/res/raw");
+
+    private DatabaseFixtures() {
+    }
+
+    static File newFilesDir() throws IOException {
+        File dir = File.createTempFile("xmldb", "");
+        if (!dir.delete() || !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        return dir;
+    }
+
+    /**
+     * Ouvre la base du répertoire (copie des données initiales au premier chargement)
+     */
+    static XMLDatabaseManager open(File filesDir) {
+        return new XMLDatabaseManager(context(filesDir));
+    }
+
+    static Context context(final File filesDir) {
+        final Resources resources = new Resources(null, null, null) {
+            @Override
+            public InputStream openRawResource(int id) {
+                try {
+                    return new FileInputStream(new File(RAW, rawFileName(id)));
+                } catch (FileNotFoundException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+        };
+        return new ContextWrapper(null) {
+            @Override
+            public Context getApplicationContext() {
+                return this;
+            }
+
+            @Override
+            public File getFilesDir() {
+                return filesDir;
+            }
+
+            @Override
+            public Resources getResources() {
+                return resources;
+            }
+        };
+    }
+
+    private static String rawFileName(int id) {
+        if (id == R.raw.users) {
+            return "users.xml";
+        }
+        if (id == R.raw.tasks) {
+            return "tasks.xml";
+        }
+        if (id == R.raw.users_schema) {
+            return "users_schema.xml";
+        }
+        if (id == R.raw.tasks_schema) {
+            return "tasks_schema.xml";
+        }
+        throw new IllegalArgumentException("Unknown raw resource " + id);
+    }
+
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Index des échéances comparé au parcours de la liste : intervalles triés et tâches en retard
+ */
+public class DueDateIndexTest {
+
+    @Test
+    public void answersRangesAndOverdue() {
+        List<Task> tasks = TaskFixtures.tasks(1_000);
+        TaskStore store = new TaskStore(tasks);
+
+        // Clôture et report d'échéance en place, comme depuis l'écran de détail
+        Task completed = tasks.get(3);
+        completed.setStatus(TaskStatus.COMPLETED);
+        store.update(completed);
+        Task postponed = tasks.get(4);
+        postponed.setDueDate(TaskFixtures.BASE_DATE + 1_000 * TaskFixtures.DAY);
+        store.update(postponed);
+        store.remove(tasks.get(5).getId());
+
+        long from = TaskFixtures.BASE_DATE + 30 * TaskFixtures.DAY;
+        long to = TaskFixtures.BASE_DATE + 60 * TaskFixtures.DAY;
+        long now = TaskFixtures.BASE_DATE + 200 * TaskFixtures.DAY;
+
+        List<Task> inRange = new ArrayList<>();
+        List<Task> overdue = new ArrayList<>();
+        for (Task task : store.getAll()) {
+            if (task.getDueDate() >= from && task.getDueDate() <= to) {
+                inRange.add(task);
+            }
+            if (now > task.getDueDate() && task.getStatus() != TaskStatus.COMPLETED
+                    && task.getStatus() != TaskStatus.CANCELLED) {
+                overdue.add(task);
+            }
+        }
+
+        List<Task> indexedRange = store.getDueBetween(from, to);
+        assertEquals(inRange.size(), indexedRange.size());
+        assertTrue(indexedRange.containsAll(inRange));
+        for (int i = 1; i < indexedRange.size(); i++) {
+            assertTrue(indexedRange.get(i - 1).getDueDate() <= indexedRange.get(i).getDueDate());
+        }
+
+        List<Task> indexedOverdue = store.getOverdue(now);
+        assertEquals(overdue.size(), indexedOverdue.size());
+        assertTrue(indexedOverdue.containsAll(overdue));
+        assertTrue(store.getDueBetween(to, from).isEmpty());
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Accès concurrents au cache des tâches tel que XMLDatabaseManager l'utilise :
+ * 16 écrivains (ajouts, suppressions, lire-modifier-écrire sur des tâches partagées)
+ * et des lecteurs (liste publiée, requêtes, pages, statistiques) en même temps,
+ * et l'isolation des versions de la liste pour les lectures longues
+ */
+public class GuardedStoreStressTest {
+
+    private static final int WRITERS = 16;
+    private static final int READERS = 4;
+    private static final int OPERATIONS = 3_000;
+    private static final int HOT_TASKS = 20;
+
+    @Test
+    public void concurrentWritersLoseNoUpdates() throws Exception {
+        final GuardedStore<Task, TaskStore> tasks = new GuardedStore<>(new TaskStore(TaskFixtures.tasks(1_000)));
+        for (int i = 0; i < HOT_TASKS; i++) {
+            tasks.snapshot().get(i).setDescription(counter(0));
+        }
+
+        final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final int[] increments = new int[WRITERS];
+        final List<Set<String>> added = new ArrayList<>();
+        List<Thread> writers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            final int writer = w;
+            final Set<String> own = new HashSet<>();
+            added.add(own);
+            writers.add(new Thread(() -> {
+                Random random = new Random(writer);
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        switch (random.nextInt(4)) {
+                            case 0: {
+                                // Incrément d'un compteur partagé : lire-modifier-écrire atomique
+                                final String id = String.valueOf(1 + random.nextInt(HOT_TASKS));
+                                tasks.write(store -> {
+                                    Task task = store.get(id);
+                                    task.setDescription(counter(count(task) + 1));
+                                    return store.update(task);
+                                });
+                                increments[writer]++;
+                                break;
+                            }
+                            case 1: {
+                                final Task task = TaskFixtures.task(100_000 + writer * OPERATIONS + i, 50);
+                                tasks.write(store -> {
+                                    store.add(task);
+                                    return true;
+                                });
+                                own.add(task.getId());
+                                break;
+                            }
+                            case 2: {
+                                if (own.isEmpty()) {
+                                    break;
+                                }
+                                final String id = own.iterator().next();
+                                tasks.write(store -> store.remove(id));
+                                own.remove(id);
+                                break;
+                            }
+                            default: {
+                                // Échéance et priorité d'une tâche non partagée : index réordonnés
+                                final String id = String.valueOf(HOT_TASKS + 1 + random.nextInt(900));
+                                final long dueDate = TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY;
+                                final TaskPriority priority = TaskPriority.values()[random.nextInt(TaskPriority.values().length)];
+                                tasks.write(store -> {
+                                    Task task = store.get(id);
+                                    task.setDueDate(dueDate);
+                                    task.setPriority(priority);
+                                    return store.update(task);
+                                });
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }, "writer-" + w));
+        }
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            final int reader = r;
+            readers.add(new Thread(() -> {
+                Random random = new Random(1_000 + reader);
+                try {
+                    start.await();
+                    while (writing.get()) {
+                        // Parcours de la liste publiée pendant les écritures
+                        List<Task> snapshot = tasks.snapshot();
+                        int size = 0;
+                        for (Task task : snapshot) {
+                            size += task != null ? 1 : 0;
+                        }
+                        assertEquals(snapshot.size(), size);
+
+                        // Index cohérents entre eux sous le verrou de lecture
+                        final long now = TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY;
+                        tasks.read(store -> {
+                            assertEquals(store.size(), store.getStatistics(now).total);
+                            assertEquals(store.size(), store.query(new TaskQuery()
+                                    .orderByDescending(TaskQuery.SortKey.PRIORITY)
+                                    .orderBy(TaskQuery.SortKey.DUE_DATE)).size());
+                            assertEquals(store.getOverdue(now).size(), store.getStatistics(now).overdue);
+                            return store.page(new TaskQuery().status(TaskStatus.PENDING), null, 50);
+                        });
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }, "reader-" + r));
+        }
+
+        for (Thread thread : writers) thread.start();
+        for (Thread thread : readers) thread.start();
+        start.countDown();
+        for (Thread thread : writers) thread.join(60_000);
+        writing.set(false);
+        for (Thread thread : readers) thread.join(60_000);
+
+        if (!errors.isEmpty()) {
+            AssertionError failure = new AssertionError(errors.size() + " erreurs, la première : " + errors.peek());
+            failure.initCause(errors.peek());
+            throw failure;
+        }
+
+        // Aucun incrément perdu
+        int expected = 0;
+        for (int count : increments) {
+            expected += count;
+        }
+        int total = 0;
+        for (int i = 0; i < HOT_TASKS; i++) {
+            total += count(tasks.snapshot().get(i));
+        }
+        assertEquals(expected, total);
+
+        // Aucun ajout ni suppression perdu
+        Set<String> expectedIds = new HashSet<>();
+        for (int i = 1; i <= 1_000; i++) {
+            expectedIds.add(String.valueOf(i));
+        }
+        for (Set<String> own : added) {
+            expectedIds.addAll(own);
+        }
+        Set<String> ids = new HashSet<>();
+        for (Task task : tasks.snapshot()) {
+            ids.add(task.getId());
+        }
+        assertEquals(expectedIds, ids);
+
+        // Index identiques à un filtrage de la liste finale
+        final List<Task> all = tasks.snapshot();
+        final TaskQuery urgent = new TaskQuery().priority(TaskPriority.URGENT).orderBy(TaskQuery.SortKey.DUE_DATE);
+        List<Task> linear = new ArrayList<>();
+        for (Task task : all) {
+            if (task.getPriority() == TaskPriority.URGENT) {
+                linear.add(task);
+            }
+        }
+        Collections.sort(linear, (a, b) -> Long.compare(a.getDueDate(), b.getDueDate()));
+        assertEquals(linear, tasks.read(store -> store.query(urgent)));
+    }
+
+    @Test
+    public void snapshotIsPublishedOncePerWrite() {
+        final GuardedStore<Task, TaskStore> tasks = new GuardedStore<>(new TaskStore(TaskFixtures.tasks(100)));
+
+        List<Task> before = tasks.snapshot();
+        assertSame(before, tasks.snapshot());
+        try {
+            before.remove(0);
+            fail("la liste publiée doit être en lecture seule");
+        } catch (UnsupportedOperationException expected) {
+            // attendu
+        }
+
+        tasks.write(store -> store.remove("1"));
+        List<Task> after = tasks.snapshot();
+        assertEquals(100, before.size());
+        assertEquals(99, after.size());
+        assertEquals(before.subList(1, 100), after);
+        assertSame(after, tasks.snapshot());
+    }
+
+    @Test
+    public void frozenSnapshotsIsolateLongReaders() throws Exception {
+        List<Task> loaded = TaskFixtures.tasks(2_000);
+        for (Task task : loaded) {
+            task.freeze();
+        }
+        final GuardedStore<Task, TaskStore> tasks = new GuardedStore<>(new TaskStore(loaded));
+        final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        // Rapport : parcourt la même version pendant que les écritures continuent
+        List<Task> report = tasks.snapshot();
+        List<String> expected = new ArrayList<>();
+        for (Task task : report) {
+            expected.add(task.getId() + "@" + task.getDueDate() + "/" + task.getPriority());
+        }
+
+        Thread writer = new Thread(() -> {
+            Random random = new Random(47);
+            try {
+                for (int i = 0; i < 5_000; i++) {
+                    // Comme XMLDatabaseManager.modifyTask : copie modifiée puis figée
+                    final String id = String.valueOf(1 + random.nextInt(2_000));
+                    final long dueDate = TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY;
+                    tasks.write(store -> {
+                        Task current = store.get(id);
+                        if (current == null) {
+                            store.add(TaskFixtures.task(Integer.parseInt(id) - 1, 50).freeze());
+                            return true;
+                        }
+                        if (dueDate % 3 == 0) {
+                            return store.remove(id) != null;
+                        }
+                        Task task = current.copy();
+                        task.setDueDate(dueDate);
+                        return store.update(task.freeze());
+                    });
+                }
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            int i = 0;
+            for (Task task : report) {
+                assertEquals(expected.get(i++), task.getId() + "@" + task.getDueDate() + "/" + task.getPriority());
+            }
+            assertEquals(expected.size(), i);
+        }
+        writer.join();
+        assertTrue(errors.toString(), errors.isEmpty());
+
+        try {
+            report.get(0).setDueDate(0);
+            fail("une tâche du cache doit être figée");
+        } catch (IllegalStateException expectedFailure) {
+            // attendu
+        }
+    }
+
+    @Test
+    public void readersDoNotBlockEachOther() throws Exception {
+        final GuardedStore<Task, TaskStore> tasks = new GuardedStore<>(new TaskStore(TaskFixtures.tasks(10)));
+        final CountDownLatch firstInside = new CountDownLatch(1);
+        final CountDownLatch secondDone = new CountDownLatch(1);
+
+        Thread first = new Thread(() -> tasks.read(store -> {
+            firstInside.countDown();
+            try {
+                // Le second lecteur doit entrer pendant que le premier tient le verrou
+                return secondDone.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+        first.start();
+        assertTrue(firstInside.await(10, TimeUnit.SECONDS));
+
+        assertEquals(10, (int) tasks.read(TaskStore::size));
+        secondDone.countDown();
+        first.join();
+    }
+
+    private static String counter(int value) {
+        return "compteur " + value;
+    }
+
+    private static int count(Task task) {
+        return Integer.parseInt(task.getDescription().substring("compteur ".length()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Liste persistante (versions partagées, chacune immuable) vérifiée contre une TreeMap
+ */
+public class PersistentListTest {
+
+    @Test
+    public void everyVersionKeepsItsContent() {
+        Random random = new Random(41);
+        PersistentList<Integer> list = PersistentList.empty();
+        TreeMap<Long, Integer> expected = new TreeMap<>();
+        List<PersistentList<Integer>> versions = new ArrayList<>();
+        List<List<Integer>> contents = new ArrayList<>();
+        long nextSeq = 0;
+
+        for (int i = 0; i < 5_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || expected.isEmpty()) {
+                list = list.with(nextSeq, i);
+                expected.put(nextSeq++, i);
+            } else if (operation < 8) {
+                // Remplacement à sa place
+                long seq = anyKey(expected, random);
+                list = list.with(seq, -i);
+                expected.put(seq, -i);
+            } else {
+                long seq = anyKey(expected, random);
+                list = list.without(seq);
+                expected.remove(seq);
+            }
+            if (i % 250 == 0) {
+                versions.add(list);
+                contents.add(new ArrayList<>(expected.values()));
+            }
+        }
+
+        List<Integer> values = new ArrayList<>(expected.values());
+        assertEquals(values, list);
+        for (int i = 0; i < values.size(); i += 97) {
+            assertEquals(values.get(i), list.get(i));
+        }
+        // Les versions précédentes n'ont pas bougé
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(contents.get(i), new ArrayList<>(versions.get(i)));
+        }
+    }
+
+    @Test
+    public void storeVersionsSurviveWrites() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(500));
+        List<Task> before = store.getAll();
+        List<Task> copy = new ArrayList<>(before);
+
+        Task replacement = TaskFixtures.task(10, 5);
+        store.update(replacement);
+        store.remove(before.get(0).getId());
+        store.add(TaskFixtures.task(1_000, 5));
+
+        assertEquals(copy, before);
+        assertEquals(500, store.getAll().size());
+        assertEquals(replacement, store.getAll().get(9));
+    }
+
+    private static long anyKey(TreeMap<Long, Integer> map, Random random) {
+        Long key = map.ceilingKey((long) random.nextInt(map.lastKey().intValue() + 1));
+        return key != null ? key : map.firstKey();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.User;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Complétion par préfixes de mots, pour les titres de tâches et l'annuaire des utilisateurs
+ */
+public class PrefixIndexTest {
+
+    @Test
+    public void titleCompletionFollowsUpdates() {
+        List<Task> tasks = TaskFixtures.tasks(300);
+        TaskStore store = new TaskStore(tasks);
+
+        for (Task task : store.completeTitle("rapp", 10)) {
+            assertTrue(task.getTitle().startsWith("rapport") || task.getTitle().contains(" rapport"));
+        }
+        assertEquals(10, store.completeTitle("rapp", 10).size());
+        assertTrue(store.completeTitle("apport", 10).isEmpty());
+
+        Task edited = tasks.get(0);
+        edited.setTitle("Clôture annuelle");
+        store.update(edited);
+        assertEquals(1, store.completeTitle("clot ann", 10).size());
+        assertSame(edited, store.completeTitle("cloture", 10).get(0));
+    }
+
+    @Test
+    public void completesUsernameFullNameAndEmailWords() {
+        List<User> users = TaskFixtures.users(200);
+        User jean = TaskFixtures.user(500);
+        jean.setUsername("jdupont");
+        jean.setFullName("Jean-Noël Dupont");
+        jean.setEmail("jean.dupont@societe.fr");
+        users.add(jean);
+        UserStore store = new UserStore(users);
+
+        assertSame(jean, store.complete("jdup", 5).get(0));
+        assertSame(jean, store.complete("noel", 5).get(0));
+        assertSame(jean, store.complete("Jean du", 5).get(0));
+        assertSame(jean, store.complete("societe", 5).get(0));
+        assertTrue(store.complete("upont", 5).isEmpty());
+        assertTrue(store.complete("", 5).isEmpty());
+
+        // "user_1", "user_10".."user_19", "user_100".."user_199" : un seul résultat par utilisateur
+        assertEquals(111, store.complete("user 1", Integer.MAX_VALUE).size());
+        assertEquals(3, store.complete("prenom1", 3).size());
+
+        // Modification en place puis updateUser, comme le dialogue d'édition
+        jean.setFullName("Jean Martin");
+        store.update(jean);
+        assertTrue(store.complete("dupont", 5).contains(jean));
+        assertFalse(store.complete("noel", 5).contains(jean));
+        assertSame(jean, store.complete("martin", 5).get(0));
+
+        store.remove(jean.getId());
+        assertTrue(store.complete("martin", 5).isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Vues triées du cache comparées au tri de la liste, au fil des mutations
+ */
+public class SortedViewTest {
+
+    @Test
+    public void sortedViewsFollowMutations() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(1_500));
+        Random random = new Random(31);
+        TaskQuery[] orders = {
+                new TaskQuery().orderByDescending(TaskQuery.SortKey.CREATED_DATE),
+                new TaskQuery().orderBy(TaskQuery.SortKey.DUE_DATE),
+                new TaskQuery().orderByDescending(TaskQuery.SortKey.PRIORITY).orderBy(TaskQuery.SortKey.DUE_DATE),
+        };
+
+        for (int i = 0; i < 800; i++) {
+            List<Task> current = store.getAll();
+            Task task = current.get(random.nextInt(current.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                    // Priorités et dates en double : départage par l'ordre du cache
+                    task.setPriority(random.nextInt(10) == 0
+                            ? null : TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+                    break;
+                case 1:
+                    task.setCreatedDate(TaskFixtures.BASE_DATE + random.nextInt(50) * TaskFixtures.DAY);
+                    break;
+                case 2:
+                    task.setDueDate(TaskFixtures.BASE_DATE + random.nextInt(50) * TaskFixtures.DAY);
+                    break;
+                default:
+                    store.remove(task.getId());
+                    store.add(TaskFixtures.task(10_000 + i, 10));
+                    continue;
+            }
+            store.update(task);
+
+            TaskQuery order = orders[i % orders.length];
+            order.offset(random.nextInt(store.size() + 5)).limit(random.nextInt(40));
+            assertEquals(QueryPlan.Access.SORTED_VIEW, store.plan(order).access);
+            assertEquals(order.toString(), TaskQueryTest.linear(store.getAll(), order), store.query(order));
+        }
+        for (TaskQuery order : orders) {
+            order.offset(0).limit(Integer.MAX_VALUE);
+            assertEquals(TaskQueryTest.linear(store.getAll(), order), store.query(order));
+        }
+        // Filtre peu sélectif et petite page : la vue est parcourue plutôt que l'index trié
+        TaskQuery urgentOpen = new TaskQuery().status(TaskStatus.PENDING, TaskStatus.IN_PROGRESS)
+                .orderByDescending(TaskQuery.SortKey.PRIORITY).orderBy(TaskQuery.SortKey.DUE_DATE).limit(20);
+        assertTrue(store.explain(urgentOpen), store.plan(urgentOpen).presorted);
+        assertEquals(TaskQueryTest.linear(store.getAll(), urgentOpen), store.query(urgentOpen));
+    }
+}
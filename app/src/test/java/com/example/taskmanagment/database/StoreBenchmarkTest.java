@@ -0,0 +1,549 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Cache indexé (id, index secondaires, échéances, recherche, compteurs, requêtes, annuaire,
+ * tableau de bord) comparé aux parcours linéaires qu'il remplace
+ * Les benchmarks ne tournent qu'avec : ./gradlew test -DrunBenchmarks=true
+ */
+public class StoreBenchmarkTest {
+
+    private static final int BENCHMARK_SIZE = 100_000;
+    private static final int USER_BENCHMARK_SIZE = 50_000;
+    private static final int OPERATIONS = 2_000;
+    private static final int QUERIES = 200;
+    private static final int REPEATS = 10;
+    private static final int SNAPSHOT_REPEATS = 200;
+    private static final int REFRESHES = 20;
+
+    @Test
+    public void benchmarkIndexedVersusLinearScan() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        List<Task> tasks = TaskFixtures.tasks(BENCHMARK_SIZE);
+        String[] ids = randomIds(tasks);
+
+        // Échauffement du JIT
+        for (int round = 0; round < 3; round++) {
+            runLinear(new ArrayList<>(tasks), ids);
+            runIndexed(new TaskStore(tasks), ids);
+        }
+
+        List<Task> list = new ArrayList<>(tasks);
+        long start = System.nanoTime();
+        runLinear(list, ids);
+        long linear = System.nanoTime() - start;
+
+        TaskStore store = new TaskStore(tasks);
+        start = System.nanoTime();
+        runIndexed(store, ids);
+        long indexed = System.nanoTime() - start;
+
+        System.out.println(String.format("%,d x (get + update + delete) on %,d tasks: linear %,d µs, indexed %,d µs",
+                OPERATIONS, BENCHMARK_SIZE, linear / 1_000, indexed / 1_000));
+    }
+
+    private static String[] randomIds(List<Task> tasks) {
+        Random random = new Random(42);
+        String[] ids = new String[OPERATIONS];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tasks.get(random.nextInt(tasks.size())).getId();
+        }
+        return ids;
+    }
+
+    /**
+     * Ancien comportement de XMLDatabaseManager : parcours de l'ArrayList
+     */
+    private static void runLinear(List<Task> tasks, String[] ids) {
+        for (String id : ids) {
+            Task found = null;
+            for (Task task : tasks) {
+                if (task.getId().equals(id)) {
+                    found = task;
+                    break;
+                }
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.get(i).getId().equals(id)) {
+                    tasks.set(i, found);
+                    break;
+                }
+            }
+        }
+        for (String id : ids) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.get(i).getId().equals(id)) {
+                    tasks.remove(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void runIndexed(TaskStore store, String[] ids) {
+        for (String id : ids) {
+            store.update(store.get(id));
+        }
+        for (String id : ids) {
+            store.remove(id);
+        }
+    }
+
+    @Test
+    public void benchmarkTrigramSearchVersusScan() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        List<Task> tasks = TaskFixtures.tasks(BENCHMARK_SIZE);
+        long start = System.nanoTime();
+        TaskStore store = new TaskStore(tasks);
+        long build = System.nanoTime() - start;
+
+        // Frappe progressive, comme dans la barre de recherche
+        String[] keystrokes = {"b", "bu", "bud", "budg", "budge", "budget", "budget ", "budget #", "budget #12"};
+
+        for (int round = 0; round < 3; round++) {
+            for (String q : keystrokes) {
+                scan(tasks, q);
+                store.searchText(q);
+            }
+        }
+
+        start = System.nanoTime();
+        for (String q : keystrokes) {
+            scan(tasks, q);
+        }
+        long scan = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String q : keystrokes) {
+            store.searchText(q);
+        }
+        long indexed = System.nanoTime() - start;
+
+        System.out.println(String.format("search %d keystrokes on %,d tasks: scan %,d µs, trigram %,d µs (store build %,d ms)",
+                keystrokes.length, BENCHMARK_SIZE, scan / 1_000, indexed / 1_000, build / 1_000_000));
+    }
+
+    /**
+     * Ancien filtre de TasksFragment.applyFilters
+     */
+    private static List<Task> scan(List<Task> tasks, String q) {
+        List<Task> out = new ArrayList<>();
+        for (Task t : tasks) {
+            String title = t.getTitle() != null ? t.getTitle().toLowerCase() : "";
+            String desc = t.getDescription() != null ? t.getDescription().toLowerCase() : "";
+            if (title.contains(q) || desc.contains(q)) {
+                out.add(t);
+            }
+        }
+        return out;
+    }
+
+    @Test
+    public void benchmarkRankedSearchAsYouType() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        TaskStore store = new TaskStore(TaskFixtures.tasks(BENCHMARK_SIZE));
+        String[] keystrokes = {"r", "ra", "rap", "rapp", "rappo", "rappor", "rapport", "rapport ",
+                "rapport m", "rapport men", "rapport mensul"};
+
+        for (int round = 0; round < 3; round++) {
+            for (String q : keystrokes) {
+                store.searchRanked(q, 20);
+            }
+        }
+
+        long worst = 0;
+        long start = System.nanoTime();
+        for (String q : keystrokes) {
+            long keystroke = System.nanoTime();
+            store.searchRanked(q, 20);
+            worst = Math.max(worst, System.nanoTime() - keystroke);
+        }
+        long total = System.nanoTime() - start;
+
+        System.out.println(String.format("ranked search %d keystrokes on %,d tasks: total %,d µs, worst keystroke %,d µs",
+                keystrokes.length, BENCHMARK_SIZE, total / 1_000, worst / 1_000));
+    }
+
+    @Test
+    public void benchmarkStatisticsVersusScan() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        List<Task> tasks = TaskFixtures.tasks(BENCHMARK_SIZE);
+        TaskStore store = new TaskStore(tasks);
+        long now = TaskFixtures.BASE_DATE + 200 * TaskFixtures.DAY;
+
+        for (int round = 0; round < 5; round++) {
+            TaskCountersTest.scanStatistics(store.getByAssignee("2"), "2", now);
+            store.getStatistics("2", now);
+        }
+
+        // Comme DashboardFragment.loadData : statistiques de l'utilisateur connecté, puis globales
+        long start = System.nanoTime();
+        TaskCountersTest.scanStatistics(store.getByAssignee("2"), "2", now);
+        TaskCountersTest.scanStatistics(store.getAll(), null, now);
+        long scan = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        store.getStatistics("2", now);
+        store.getStatistics(now);
+        long counted = System.nanoTime() - start;
+
+        System.out.println(String.format("user + global statistics on %,d tasks: scan %,d µs, counters %,d µs",
+                BENCHMARK_SIZE, scan / 1_000, counted / 1_000));
+    }
+
+    @Test
+    public void benchmarkRollupsVersusScan() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        TaskStore store = new TaskStore(TaskFixtures.tasks(BENCHMARK_SIZE));
+        long[] days = TaskRollupsTest.bounds(Calendar.DAY_OF_MONTH, TaskFixtures.BASE_DATE + 200 * TaskFixtures.DAY, 14);
+        long[] months = TaskRollupsTest.bounds(Calendar.MONTH, TaskFixtures.BASE_DATE + 120 * TaskFixtures.DAY, 6);
+
+        for (int round = 0; round < 5; round++) {
+            TaskRollupsTest.scanRollup(store.getAll(), null, days);
+            TaskRollupsTest.scanRollup(store.getByAssignee("2"), "2", months);
+            store.getRollup(null, days);
+            store.getRollup("2", months);
+        }
+
+        // Courbe hebdomadaire de l'administrateur, puis courbe mensuelle de l'employé connecté
+        long start = System.nanoTime();
+        TaskRollupsTest.scanRollup(store.getAll(), null, days);
+        TaskRollupsTest.scanRollup(store.getByAssignee("2"), "2", months);
+        long scan = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        store.getRollup(null, days);
+        store.getRollup("2", months);
+        long rolled = System.nanoTime() - start;
+
+        System.out.println(String.format("14-day + 6-month charts on %,d tasks: scan %,d µs, rollups %,d µs",
+                BENCHMARK_SIZE, scan / 1_000, rolled / 1_000));
+    }
+
+    @Test
+    public void benchmarkLoginLookupVersusScan() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        List<User> users = TaskFixtures.users(USER_BENCHMARK_SIZE);
+        UserStore store = new UserStore(users);
+        String[] logins = new String[1_000];
+        for (int i = 0; i < logins.length; i++) {
+            logins[i] = "user_" + ((i * 7_919) % USER_BENCHMARK_SIZE);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            scanLogins(users, logins);
+            indexedLogins(store, logins);
+        }
+
+        long start = System.nanoTime();
+        int scanned = scanLogins(users, logins);
+        long scan = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int indexed = indexedLogins(store, logins);
+        long lookup = System.nanoTime() - start;
+
+        assertEquals(scanned, indexed);
+        System.out.println(String.format("%,d logins on %,d users: scan %,d µs, directory %,d µs",
+                logins.length, USER_BENCHMARK_SIZE, scan / 1_000, lookup / 1_000));
+    }
+
+    /**
+     * Ancien UserDAO.getUserByUsername : parcours de la liste
+     */
+    private static int scanLogins(List<User> users, String[] logins) {
+        int found = 0;
+        for (String login : logins) {
+            for (User user : users) {
+                if (user.getUsername().equals(login)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int indexedLogins(UserStore store, String[] logins) {
+        int found = 0;
+        for (String login : logins) {
+            if (store.getByUsername(login) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Test
+    public void benchmarkCompletionVersusScan() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        List<User> users = TaskFixtures.users(USER_BENCHMARK_SIZE);
+        UserStore store = new UserStore(users);
+        String[] keystrokes = {"u", "us", "use", "user", "user 4", "user 42", "user 421", "user 4213"};
+
+        for (int round = 0; round < 5; round++) {
+            for (String q : keystrokes) {
+                scanUsers(users, q);
+                store.complete(q, 10);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (String q : keystrokes) {
+            scanUsers(users, q);
+        }
+        long scan = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String q : keystrokes) {
+            store.complete(q, 10);
+        }
+        long indexed = System.nanoTime() - start;
+
+        System.out.println(String.format("complete %d keystrokes on %,d users: scan %,d µs, prefix index (top 10) %,d µs",
+                keystrokes.length, USER_BENCHMARK_SIZE, scan / 1_000, indexed / 1_000));
+    }
+
+    /**
+     * Ancien filtre de UsersFragment.applyFilter
+     */
+    private static int scanUsers(List<User> users, String q) {
+        int count = 0;
+        for (User u : users) {
+            String name = u.getFullName() != null ? u.getFullName().toLowerCase() : "";
+            String username = u.getUsername() != null ? u.getUsername().toLowerCase() : "";
+            String email = u.getEmail() != null ? u.getEmail().toLowerCase() : "";
+            if (name.contains(q) || username.contains(q) || email.contains(q)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void benchmarkSnapshotVersusCopy() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        TaskStore store = new TaskStore(TaskFixtures.tasks(BENCHMARK_SIZE));
+        Random random = new Random(43);
+        long sink = 0;
+
+        for (int round = 0; round < 20; round++) {
+            sink += new ArrayList<>(store.getAll()).size() + sum(store.getAll());
+        }
+
+        // Ancien getAllTasks : copie de toute la liste à chaque appel, puis parcours
+        long start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOT_REPEATS; i++) {
+            List<Task> copy = new ArrayList<>(store.getAll());
+            sink += sum(copy);
+        }
+        long copied = (System.nanoTime() - start) / SNAPSHOT_REPEATS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOT_REPEATS; i++) {
+            sink += sum(store.getAll());
+        }
+        long shared = (System.nanoTime() - start) / SNAPSHOT_REPEATS;
+
+        // Coût ajouté aux écritures : chemin recopié dans la liste
+        List<Task> all = store.getAll();
+        start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOT_REPEATS * 10; i++) {
+            Task task = all.get(random.nextInt(all.size())).copy();
+            task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+            store.update(task);
+        }
+        long update = (System.nanoTime() - start) / (SNAPSHOT_REPEATS * 10);
+
+        System.out.println(String.format("getAll + iterate on %,d tasks: ArrayList copy %,d µs, shared version %,d µs;"
+                        + " update with new version %,d µs (%d)",
+                BENCHMARK_SIZE, copied / 1_000, shared / 1_000, update / 1_000, sink % 10));
+    }
+
+    private static long sum(List<Task> tasks) {
+        long sum = 0;
+        for (Task task : tasks) {
+            sum += task.getDueDate();
+        }
+        return sum;
+    }
+
+    @Test
+    public void benchmarkMostUrgentVersusSort() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        TaskStore store = new TaskStore(TaskFixtures.tasks(BENCHMARK_SIZE));
+        TaskQuery top = new TaskQuery().orderByDescending(TaskQuery.SortKey.PRIORITY)
+                .orderBy(TaskQuery.SortKey.DUE_DATE).limit(20);
+
+        for (int round = 0; round < 20; round++) {
+            TaskQueryTest.linear(store.getAll(), top);
+            store.query(top);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            TaskQueryTest.linear(store.getAll(), top);
+        }
+        long sorted = (System.nanoTime() - start) / REPEATS;
+
+        // Lecture de la vue, mises à jour comprises
+        Random random = new Random(37);
+        List<Task> all = store.getAll();
+        start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            Task task = all.get(random.nextInt(all.size()));
+            task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+            store.update(task);
+            store.query(top);
+        }
+        long view = (System.nanoTime() - start) / REPEATS;
+
+        System.out.println(String.format("top 20 most urgent of %,d tasks: copy + sort %,d µs, update + sorted view %,d µs",
+                BENCHMARK_SIZE, sorted / 1_000, view / 1_000));
+    }
+
+    @Test
+    public void benchmarkFirstPageVersusFullList() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        TaskStore store = new TaskStore(TaskFixtures.tasks(BENCHMARK_SIZE));
+        TaskQuery[] queries = {
+                new TaskQuery(),
+                new TaskQuery().priority(TaskPriority.HIGH),
+                new TaskQuery().assignedTo("7"),
+                new TaskQuery().containing("rapport"),
+        };
+
+        for (int round = 0; round < 20; round++) {
+            for (TaskQuery query : queries) {
+                store.query(sortedByDueDate(query));
+                store.page(query, store.page(query, null, 50).getNextCursor(), 50);
+            }
+        }
+
+        for (TaskQuery query : queries) {
+            int full = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < REPEATS; i++) {
+                full = store.query(sortedByDueDate(query)).size();
+            }
+            long all = (System.nanoTime() - start) / REPEATS;
+
+            // Première page puis page suivante depuis son curseur
+            start = System.nanoTime();
+            for (int i = 0; i < REPEATS; i++) {
+                store.page(query, store.page(query, null, 50).getNextCursor(), 50);
+            }
+            long paged = (System.nanoTime() - start) / (2 * REPEATS);
+
+            System.out.println(String.format("%s on %,d tasks: full list (%,d) %,d µs, one page of 50 %,d µs",
+                    query, BENCHMARK_SIZE, full, all / 1_000, paged / 1_000));
+        }
+    }
+
+    private static TaskQuery sortedByDueDate(TaskQuery query) {
+        return query.orders.isEmpty() ? query.orderBy(TaskQuery.SortKey.DUE_DATE) : query;
+    }
+
+    @Test
+    public void benchmarkFilteredListVersusScan() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        TaskStore store = new TaskStore(TaskFixtures.tasks(BENCHMARK_SIZE));
+        Random random = new Random(5);
+        TaskQuery[] queries = new TaskQuery[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = screenQuery(random);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            for (TaskQuery query : queries) {
+                TaskQueryTest.linear(store.getAll(), query);
+                store.query(query);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (TaskQuery query : queries) {
+            TaskQueryTest.linear(store.getAll(), query);
+        }
+        long scan = (System.nanoTime() - start) / QUERIES;
+
+        start = System.nanoTime();
+        for (TaskQuery query : queries) {
+            store.query(query);
+        }
+        long planned = (System.nanoTime() - start) / QUERIES;
+
+        System.out.println(String.format("filtered task list on %,d tasks: copy + scan %,d µs, planned query %,d µs",
+                BENCHMARK_SIZE, scan / 1_000, planned / 1_000));
+    }
+
+    /**
+     * Filtres de TasksFragment : recherche, utilisateur, priorité et intervalle d'échéances, sans tri
+     */
+    private static TaskQuery screenQuery(Random random) {
+        TaskQuery query = new TaskQuery().containing(TaskQueryTest.TEXTS[random.nextInt(TaskQueryTest.TEXTS.length)]);
+        if (random.nextBoolean()) query.assignedTo(String.valueOf(2 + random.nextInt(50)));
+        if (random.nextBoolean()) query.priority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+        if (random.nextBoolean()) {
+            long from = TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY;
+            query.dueBetween(from, from + random.nextInt(30) * TaskFixtures.DAY);
+        }
+        return query;
+    }
+
+    @Test
+    public void benchmarkDashboardRefresh() {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        TaskStore store = new TaskStore(TaskFixtures.tasks(BENCHMARK_SIZE));
+        UserStore users = new UserStore(TaskFixtures.users(60));
+        DashboardAggregator aggregator = new DashboardAggregator();
+        long now = TaskFixtures.BASE_DATE + 200 * TaskFixtures.DAY;
+
+        DashboardSummary summary = null;
+        for (int round = 0; round < 5; round++) {
+            DashboardAggregatorTest.legacy(store.getAll(), users, now);
+            summary = aggregator.aggregate(store.values(), users, now, summary);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REFRESHES; i++) {
+            DashboardAggregatorTest.legacy(store.getAll(), users, now);
+        }
+        long legacy = (System.nanoTime() - start) / REFRESHES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < REFRESHES; i++) {
+            summary = aggregator.aggregate(store.values(), users, now, summary);
+        }
+        long fused = (System.nanoTime() - start) / REFRESHES;
+
+        System.out.println(String.format("dashboard refresh on %,d tasks: 4 copies + 4 loops %,d µs, single pass %,d µs",
+                BENCHMARK_SIZE, legacy / 1_000, fused / 1_000));
+    }
+}
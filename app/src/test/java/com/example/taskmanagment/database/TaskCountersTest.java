@@ -0,0 +1,98 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compteurs de statistiques comparés à l'ancien TaskDAO.getUserTaskStatistics,
+ * au fil des mutations et d'une horloge qui avance ou recule
+ */
+public class TaskCountersTest {
+
+    @Test
+    public void statisticsFollowMutationsAndClock() {
+        List<Task> tasks = TaskFixtures.tasks(1_000);
+        TaskStore store = new TaskStore(tasks);
+        Random random = new Random(11);
+        // Horloge qui avance par à-coups et recule parfois
+        long now = TaskFixtures.BASE_DATE;
+
+        for (int i = 0; i < 3_000; i++) {
+            List<Task> current = store.getAll();
+            Task task = current.get(random.nextInt(current.size()));
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+                    store.update(task);
+                    break;
+                case 1:
+                    task.setAssignedTo(String.valueOf(2 + random.nextInt(10)));
+                    store.update(task);
+                    break;
+                case 2:
+                    task.setDueDate(TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY);
+                    store.update(task);
+                    break;
+                case 3:
+                    store.remove(task.getId());
+                    break;
+                default:
+                    store.add(TaskFixtures.task(10_000 + i, 10));
+                    break;
+            }
+
+            if (i % 300 == 0) {
+                now += (random.nextInt(60) - 10) * TaskFixtures.DAY;
+                for (int user = 2; user < 12; user++) {
+                    assertStatistics(scanStatistics(store.getAll(), String.valueOf(user), now),
+                            store.getStatistics(String.valueOf(user), now));
+                }
+                assertStatistics(scanStatistics(store.getAll(), null, now), store.getStatistics(now));
+            }
+        }
+
+        assertEquals(0, store.getStatistics("unknown", now).total);
+    }
+
+    /**
+     * Ancien TaskDAO.getUserTaskStatistics, avec isOverdue évalué à {@code now} (userId null : toutes)
+     */
+    static TaskDAO.TaskStatistics scanStatistics(List<Task> tasks, String userId, long now) {
+        int total = 0, pending = 0, inProgress = 0, completed = 0, cancelled = 0, overdue = 0;
+        for (Task task : tasks) {
+            if (userId != null && !userId.equals(task.getAssignedTo())) {
+                continue;
+            }
+            total++;
+            switch (task.getStatus()) {
+                case PENDING: pending++; break;
+                case IN_PROGRESS: inProgress++; break;
+                case COMPLETED: completed++; break;
+                case CANCELLED: cancelled++; break;
+            }
+            if (now > task.getDueDate() && task.getStatus() != TaskStatus.COMPLETED
+                    && task.getStatus() != TaskStatus.CANCELLED) {
+                overdue++;
+            }
+        }
+        return new TaskDAO.TaskStatistics(total, pending, inProgress, completed, cancelled, overdue);
+    }
+
+    private static void assertStatistics(TaskDAO.TaskStatistics expected, TaskDAO.TaskStatistics actual) {
+        assertEquals(expected.total, actual.total);
+        assertEquals(expected.pending, actual.pending);
+        assertEquals(expected.inProgress, actual.inProgress);
+        assertEquals(expected.completed, actual.completed);
+        assertEquals(expected.cancelled, actual.cancelled);
+        assertEquals(expected.overdue, actual.overdue);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Journal des tâches sur un répertoire temporaire : fin de fichier déchirée, lot en échec
+ * remis en attente, et suppression des générations compactées
+ */
+public class TaskJournalTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = DatabaseFixtures.newFilesDir();
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseFixtures.deleteRecursively(directory);
+    }
+
+    @Test
+    public void tornTailIsTruncated() throws Exception {
+        TaskJournal journal = open();
+        journal.appendPut(TaskFixtures.task(0, 5));
+        journal.appendPut(TaskFixtures.task(1, 5));
+        journal.sync();
+        File file = new File(directory, "tasks.journal.1");
+        long twoRecords = file.length();
+        journal.appendDelete("1");
+        journal.sync();
+        journal.close();
+        long threeRecords = file.length();
+
+        // Crash pendant l'écriture : en-tête complet, contenu coupé
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 5, 6});
+        }
+        Map<String, Task> tasksById = new LinkedHashMap<>();
+        TaskJournal.ReplayResult result = new TaskJournal(directory, "tasks.journal").replay(tasksById);
+        assertEquals(3, result.records);
+        assertEquals(threeRecords, file.length());
+        assertEquals(Arrays.asList("2"), new ArrayList<>(tasksById.keySet()));
+
+        // Dernier enregistrement corrompu : le rejeu s'arrête avant lui
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(threeRecords - 1);
+            int b = raf.read();
+            raf.seek(threeRecords - 1);
+            raf.write(b ^ 1);
+        }
+        tasksById.clear();
+        TaskJournal reopened = new TaskJournal(directory, "tasks.journal");
+        result = reopened.replay(tasksById);
+        assertEquals(2, result.records);
+        assertEquals(twoRecords, file.length());
+        assertEquals(Arrays.asList("1", "2"), new ArrayList<>(tasksById.keySet()));
+
+        // Les ajouts suivants reprennent après le dernier enregistrement valide
+        reopened.appendDelete("2");
+        reopened.sync();
+        reopened.close();
+        tasksById.clear();
+        assertEquals(3, open().replay(tasksById).records);
+        assertEquals(Arrays.asList("1"), new ArrayList<>(tasksById.keySet()));
+    }
+
+    @Test
+    public void failedSyncRequeuesBatch() throws Exception {
+        FailingJournal journal = new FailingJournal();
+        journal.replay(new LinkedHashMap<String, Task>());
+        journal.appendPut(TaskFixtures.task(0, 5));
+        assertEquals(1, journal.sync());
+        File file = new File(directory, "tasks.journal.1");
+        long synced = file.length();
+
+        journal.appendPut(TaskFixtures.task(1, 5));
+        journal.appendPut(TaskFixtures.task(2, 5));
+        journal.failNextWrite = true;
+        try {
+            journal.sync();
+            fail("l'écriture devait échouer");
+        } catch (IOException expected) {
+            // attendu
+        }
+        // Le lot partiel est retiré du fichier et reste en attente
+        assertEquals(synced, file.length());
+        assertEquals(synced, journal.size());
+        assertEquals(2, journal.pendingRecords());
+
+        // Le lot repart en tête, devant les mutations arrivées entre-temps
+        journal.appendDelete("1");
+        assertEquals(3, journal.sync());
+        assertEquals(0, journal.pendingRecords());
+        journal.close();
+
+        Map<String, Task> tasksById = new LinkedHashMap<>();
+        assertEquals(4, open().replay(tasksById).records);
+        assertEquals(Arrays.asList("2", "3"), new ArrayList<>(tasksById.keySet()));
+    }
+
+    @Test
+    public void compactedGenerationsAreDeleted() throws Exception {
+        TaskJournal journal = open();
+        journal.appendPut(TaskFixtures.task(0, 5));
+        journal.sync();
+
+        assertEquals(1, journal.rotate());
+        assertEquals(0, journal.size());
+        journal.appendPut(TaskFixtures.task(1, 5));
+        journal.sync();
+        assertTrue(journal.size() > 0);
+
+        // La génération active n'est jamais supprimée
+        journal.deleteUpTo(2);
+        assertFalse(new File(directory, "tasks.journal.1").exists());
+        assertTrue(new File(directory, "tasks.journal.2").exists());
+        journal.close();
+
+        Map<String, Task> tasksById = new LinkedHashMap<>();
+        TaskJournal reopened = open();
+        assertEquals(1, reopened.replay(tasksById).records);
+        assertEquals(Arrays.asList("2"), new ArrayList<>(tasksById.keySet()));
+
+        // Rouvert sur la dernière génération
+        reopened.appendDelete("2");
+        reopened.sync();
+        reopened.close();
+        assertFalse(new File(directory, "tasks.journal.3").exists());
+        tasksById.clear();
+        assertEquals(2, open().replay(tasksById).records);
+        assertTrue(tasksById.isEmpty());
+    }
+
+    private TaskJournal open() throws IOException {
+        TaskJournal journal = new TaskJournal(directory, "tasks.journal");
+        journal.replay(new LinkedHashMap<String, Task>());
+        return journal;
+    }
+
+    /**
+     * Journal dont la prochaine écriture s'interrompt après la moitié du lot (disque plein)
+     */
+    private final class FailingJournal extends TaskJournal {
+        boolean failNextWrite;
+
+        FailingJournal() {
+            super(directory, "tasks.journal");
+        }
+
+        @Override
+        FileOutputStream openForAppend(File file) throws IOException {
+            return new FileOutputStream(file, true) {
+                @Override
+                public void write(byte[] b) throws IOException {
+                    if (failNextWrite) {
+                        failNextWrite = false;
+                        write(b, 0, b.length / 2);
+                        throw new IOException("No space left on device");
+                    }
+                    super.write(b);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Requêtes composées (index choisi par le planificateur + filtres) comparées au filtrage
+ * linéaire de l'ancien TasksFragment.applyFilters, choix des plans et pagination
+ */
+public class TaskQueryTest {
+
+    static final String[] TEXTS = {null, "rapport", "PRÉPARER", "#12", "xyz", "de"};
+
+    @Test
+    public void randomQueriesMatchLinearFilter() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(2_000));
+        Random random = new Random(23);
+
+        for (int i = 0; i < 1_500; i++) {
+            // Quelques mutations en place entre les requêtes
+            List<Task> current = store.getAll();
+            Task task = current.get(random.nextInt(current.size()));
+            task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+            task.setDueDate(TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY);
+            store.update(task);
+            if (i % 7 == 0) {
+                store.remove(current.get(random.nextInt(current.size())).getId());
+            }
+
+            TaskQuery query = randomQuery(random);
+            assertEquals(query.toString(), linear(store.getAll(), query), store.query(query));
+        }
+    }
+
+    @Test
+    public void plannerPicksMostSelectiveIndex() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(10_000));
+        long from = TaskFixtures.BASE_DATE + 10 * TaskFixtures.DAY;
+
+        assertEquals(QueryPlan.Access.ASSIGNEE,
+                store.plan(new TaskQuery().assignedTo("7").priority(TaskPriority.HIGH)).access);
+        // Une journée d'échéances est plus sélective qu'une priorité (un quart des tâches)
+        assertEquals(QueryPlan.Access.DUE_DATE,
+                store.plan(new TaskQuery().priority(TaskPriority.HIGH).dueBetween(from, from + TaskFixtures.DAY - 1)).access);
+        // Trigramme absent : aucun candidat
+        QueryPlan plan = store.plan(new TaskQuery().status(TaskStatus.PENDING).containing("zzzq"));
+        assertEquals(QueryPlan.Access.TEXT, plan.access);
+        assertEquals(0, plan.estimate());
+        assertEquals(QueryPlan.Access.SCAN, store.plan(new TaskQuery().limit(10)).access);
+        assertEquals(QueryPlan.Access.SCAN, store.plan(
+                new TaskQuery().status(TaskStatus.values()).priority(TaskPriority.values())).access);
+
+        // Intervalle d'échéances trié par échéance : pas de tri, arrêt dès la page complète
+        TaskQuery page = new TaskQuery().dueBetween(from, from + 30 * TaskFixtures.DAY)
+                .orderBy(TaskQuery.SortKey.DUE_DATE).offset(5).limit(10);
+        assertTrue(store.plan(page).presorted);
+        assertEquals(linear(store.getAll(), page), store.query(page));
+        assertFalse(store.plan(new TaskQuery().dueBetween(from, from)
+                .orderByDescending(TaskQuery.SortKey.DUE_DATE)).presorted);
+
+        String explain = store.explain(new TaskQuery().assignedTo("7").priority(TaskPriority.HIGH));
+        assertTrue(explain, explain.contains("accès : index assignedTo (200 candidats estimés)"));
+        assertTrue(explain, explain.contains("filtres : [priority]"));
+        assertTrue(explain, explain.contains("exécution : 50 tâches"));
+    }
+
+    @Test
+    public void overdueQueryMatchesTaskIsOverdue() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(1_000));
+        long now = TaskFixtures.BASE_DATE + 150 * TaskFixtures.DAY;
+
+        List<Task> expected = new ArrayList<>();
+        for (Task task : store.getAll()) {
+            if ("4".equals(task.getAssignedTo()) && task.getDueDate() < now
+                    && task.getStatus() != TaskStatus.COMPLETED && task.getStatus() != TaskStatus.CANCELLED) {
+                expected.add(task);
+            }
+        }
+        List<Task> actual = store.query(new TaskQuery().assignedTo("4").overdue(now));
+        assertEquals(expected, actual);
+        assertSame(store.get(actual.get(0).getId()), actual.get(0));
+    }
+
+    @Test
+    public void pagesConcatenateToQueryByDueDate() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(2_000));
+        Random random = new Random(29);
+
+        for (int i = 0; i < 300; i++) {
+            // Sélectif (tri des candidats) ou non (parcours de l'index des échéances)
+            TaskQuery query = randomQuery(random);
+            int pageSize = 1 + random.nextInt(40);
+
+            List<Task> paged = new ArrayList<>();
+            TaskCursor cursor = null;
+            do {
+                TaskPage page = store.page(query, cursor, pageSize);
+                assertTrue(page.getTasks().size() <= pageSize);
+                assertTrue(!page.hasMore() || page.getTasks().size() == pageSize);
+                paged.addAll(page.getTasks());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertEquals(query.toString(), byDueDate(store.getAll(), query), paged);
+        }
+    }
+
+    @Test
+    public void cursorSurvivesMutationsBetweenPages() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(2_000));
+        Random random = new Random(31);
+        Set<String> untouched = new HashSet<>();
+        for (Task task : store.getAll()) {
+            untouched.add(task.getId());
+        }
+
+        Set<String> seen = new HashSet<>();
+        Set<String> moved = new HashSet<>();
+        TaskCursor cursor = null;
+        int added = 0;
+        do {
+            TaskPage page = store.page(new TaskQuery(), cursor, 25);
+            for (Task task : page.getTasks()) {
+                // Une tâche dont l'échéance a été reportée après le curseur peut revenir
+                assertTrue("doublon " + task.getId(), seen.add(task.getId()) || moved.contains(task.getId()));
+            }
+            cursor = page.getNextCursor();
+
+            // Suppression de la tâche du curseur, report d'échéance et ajouts entre deux pages
+            if (cursor != null) {
+                store.remove(cursor.getTaskId());
+                untouched.remove(cursor.getTaskId());
+            }
+            List<Task> current = store.getAll();
+            Task task = current.get(random.nextInt(current.size()));
+            task.setDueDate(TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY);
+            store.update(task);
+            untouched.remove(task.getId());
+            moved.add(task.getId());
+            store.add(TaskFixtures.task(50_000 + added++, 10));
+        } while (cursor != null);
+
+        assertTrue(seen.containsAll(untouched));
+    }
+
+    /**
+     * Tâches de la requête par échéance croissante puis ordre du cache, sans fenêtre
+     */
+    private static List<Task> byDueDate(List<Task> all, TaskQuery query) {
+        List<Task> out = new ArrayList<>();
+        for (Task task : all) {
+            if (query.matches(task)) {
+                out.add(task);
+            }
+        }
+        Collections.sort(out, (a, b) -> Long.compare(a.getDueDate(), b.getDueDate()));
+        return out;
+    }
+
+    /**
+     * Requête aléatoire combinant tous les critères, tris et fenêtres
+     */
+    private static TaskQuery randomQuery(Random random) {
+        TaskQuery query = new TaskQuery().containing(TEXTS[random.nextInt(TEXTS.length)]);
+        if (random.nextInt(3) == 0) query.assignedTo(String.valueOf(2 + random.nextInt(50)));
+        if (random.nextInt(4) == 0) query.createdBy("1");
+        if (random.nextInt(3) == 0) query.status(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+        if (random.nextInt(3) == 0) query.priority(TaskPriority.HIGH, TaskPriority.URGENT);
+        if (random.nextInt(3) == 0) {
+            long from = TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY;
+            query.dueBetween(from, from + random.nextInt(60) * TaskFixtures.DAY);
+        }
+        if (random.nextInt(6) == 0) query.overdue(TaskFixtures.BASE_DATE + random.nextInt(400) * TaskFixtures.DAY);
+        if (random.nextInt(2) == 0) {
+            TaskQuery.SortKey key = TaskQuery.SortKey.values()[random.nextInt(TaskQuery.SortKey.values().length)];
+            if (random.nextBoolean()) query.orderBy(key); else query.orderByDescending(key);
+        } else if (random.nextInt(4) == 0) {
+            query.orderByDescending(TaskQuery.SortKey.PRIORITY).orderBy(TaskQuery.SortKey.DUE_DATE);
+        }
+        if (random.nextInt(3) == 0) query.offset(random.nextInt(20)).limit(1 + random.nextInt(30));
+        return query;
+    }
+
+    /**
+     * Copie de toutes les tâches, filtre, tri stable puis fenêtre offset/limit
+     */
+    static List<Task> linear(List<Task> all, TaskQuery query) {
+        List<Task> out = new ArrayList<>();
+        for (Task task : new ArrayList<>(all)) {
+            if (query.matches(task)) {
+                out.add(task);
+            }
+        }
+        if (query.comparator() != null) {
+            Collections.sort(out, query.comparator());
+        }
+        int from = Math.min(query.offset, out.size());
+        int to = (int) Math.min((long) from + query.limit, out.size());
+        return new ArrayList<>(out.subList(from, to));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compteurs par jour et par mois comparés au regroupement par parcours des tâches
+ */
+public class TaskRollupsTest {
+
+    @Test
+    public void rollupsFollowMutations() {
+        List<Task> tasks = TaskFixtures.tasks(1_000);
+        TaskStore store = new TaskStore(tasks);
+        Random random = new Random(17);
+        long[] days = bounds(Calendar.DAY_OF_MONTH, TaskFixtures.BASE_DATE, 40);
+        long[] months = bounds(Calendar.MONTH, TaskFixtures.BASE_DATE, 14);
+
+        for (int i = 0; i < 3_000; i++) {
+            List<Task> current = store.getAll();
+            Task task = current.get(random.nextInt(current.size()));
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+                    store.update(task);
+                    break;
+                case 1:
+                    task.setAssignedTo(String.valueOf(2 + random.nextInt(10)));
+                    store.update(task);
+                    break;
+                case 2:
+                    // N'importe quelle heure de la journée, pour tester le découpage à minuit local
+                    task.setCreatedDate(TaskFixtures.BASE_DATE + (long) (random.nextDouble() * 400 * TaskFixtures.DAY));
+                    store.update(task);
+                    break;
+                case 3:
+                    store.remove(task.getId());
+                    break;
+                default:
+                    store.add(TaskFixtures.task(10_000 + i, 10));
+                    break;
+            }
+
+            if (i % 300 == 0) {
+                for (int user = 2; user < 12; user++) {
+                    String userId = String.valueOf(user);
+                    assertRollup(scanRollup(store.getAll(), userId, days), store.getRollup(userId, days));
+                    assertRollup(scanRollup(store.getAll(), userId, months), store.getRollup(userId, months));
+                }
+                assertRollup(scanRollup(store.getAll(), null, days), store.getRollup(null, days));
+                assertRollup(scanRollup(store.getAll(), null, months), store.getRollup(null, months));
+            }
+        }
+
+        RollupSeries empty = store.getRollup("unknown", months);
+        assertEquals(14, empty.size());
+        assertEquals(months[3], empty.getStart(3));
+        assertEquals(0, empty.getCreated(3));
+    }
+
+    /**
+     * Débuts de {@code count} intervalles consécutifs (jour ou mois) à minuit local, à partir de {@code from}
+     */
+    static long[] bounds(int field, long from, int count) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(from);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (field == Calendar.MONTH) {
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+        }
+        long[] bounds = new long[count + 1];
+        for (int i = 0; i <= count; i++) {
+            bounds[i] = calendar.getTimeInMillis();
+            calendar.add(field, 1);
+        }
+        return bounds;
+    }
+
+    /**
+     * Regroupement par parcours des tâches, comme l'ancien DashboardFragment.setupCashflowChart
+     */
+    static RollupSeries scanRollup(List<Task> tasks, String userId, long[] bounds) {
+        RollupSeries series = new RollupSeries(bounds);
+        for (Task task : tasks) {
+            if (userId != null && !userId.equals(task.getAssignedTo())) {
+                continue;
+            }
+            for (int i = 0; i < series.size(); i++) {
+                if (task.getCreatedDate() >= bounds[i] && task.getCreatedDate() < bounds[i + 1]) {
+                    series.created[i]++;
+                    if (task.getStatus() == TaskStatus.COMPLETED) {
+                        series.completed[i]++;
+                    } else {
+                        series.pending[i]++;
+                    }
+                }
+            }
+        }
+        return series;
+    }
+
+    private static void assertRollup(RollupSeries expected, RollupSeries actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getCreated(i), actual.getCreated(i));
+            assertEquals(expected.getCompleted(i), actual.getCompleted(i));
+            assertEquals(expected.getPending(i), actual.getPending(i));
+        }
+    }
+}
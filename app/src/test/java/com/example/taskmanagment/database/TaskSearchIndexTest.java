@@ -0,0 +1,54 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Recherche par pertinence : ordre des résultats, accents, fautes de frappe et mots incomplets
+ */
+public class TaskSearchIndexTest {
+
+    @Test
+    public void rankedSearchOrdersByRelevanceAndToleratesTypos() {
+        List<Task> tasks = TaskFixtures.tasks(500);
+        Task monthly = TaskFixtures.task(1_000, 5);
+        monthly.setTitle("Préparer le rapport mensuel");
+        monthly.setDescription("Chiffres du trimestre pour la direction");
+        tasks.add(monthly);
+        TaskStore store = new TaskStore(tasks);
+
+        assertSame(monthly, store.searchRanked("rapport mensuel", 10).get(0));
+        // Accents et casse ignorés, faute de frappe et dernier mot incomplet
+        assertSame(monthly, store.searchRanked("PREPARER rapport mensuel", 10).get(0));
+        assertSame(monthly, store.searchRanked("raport mensuel direction", 10).get(0));
+        assertSame(monthly, store.searchRanked("mensuel direc", 10).get(0));
+        assertEquals(3, store.searchRanked("budget", 3).size());
+        assertTrue(store.searchRanked("zzzz", 10).isEmpty());
+        assertTrue(store.searchRanked("   ", 10).isEmpty());
+
+        // Le titre modifié remplace l'ancien dans l'index
+        monthly.setTitle("Inventaire annuel");
+        store.update(monthly);
+        assertSame(monthly, store.searchRanked("inventaire annuel", 1).get(0));
+        assertFalse(store.searchRanked("préparer", 600).contains(monthly));
+
+        store.remove(monthly.getId());
+        assertFalse(store.searchRanked("annuel", 10).contains(monthly));
+
+        // Chaque résultat contient au moins un mot de la requête (ou sa variante)
+        for (Task task : store.searchRanked("vérifier budget", 50)) {
+            String text = (task.getTitle() + " " + task.getDescription()).toLowerCase(Locale.ROOT);
+            assertTrue(text, text.contains("vérifier") || text.contains("budget"));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Cache des tâches indexé par id : ordre de la liste, ids inconnus, et index secondaires
+ * (statut, priorité, assigné, créateur) comparés au parcours après des modifications en place
+ */
+public class TaskStoreTest {
+
+    @Test
+    public void keepsListOrderThroughUpdatesAndDeletes() {
+        List<Task> tasks = TaskFixtures.tasks(100);
+        TaskStore store = new TaskStore(tasks);
+
+        Task replacement = TaskFixtures.task(10, 5);
+        replacement.setStatus(TaskStatus.COMPLETED);
+        assertTrue(store.update(replacement));
+        tasks.set(10, replacement);
+
+        assertSame(tasks.get(42), store.remove(tasks.get(42).getId()));
+        tasks.remove(42);
+
+        Task added = TaskFixtures.task(1_000, 5);
+        store.add(added);
+        tasks.add(added);
+
+        assertEquals(tasks, store.getAll());
+        assertSame(replacement, store.get(replacement.getId()));
+        assertEquals(tasks.size(), store.size());
+    }
+
+    @Test
+    public void unknownIdsAreRejected() {
+        TaskStore store = new TaskStore(TaskFixtures.tasks(10));
+
+        assertFalse(store.update(TaskFixtures.task(99, 5)));
+        assertNull(store.remove("missing"));
+        assertNull(store.get(null));
+        assertEquals(10, store.size());
+    }
+
+    @Test
+    public void secondaryIndexesFollowInPlaceMutations() {
+        List<Task> tasks = TaskFixtures.tasks(500);
+        TaskStore store = new TaskStore(tasks);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 2_000; i++) {
+            List<Task> current = store.getAll();
+            Task task = current.get(random.nextInt(current.size()));
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    // Comme TaskDetailFragment : modification de l'objet du cache puis updateTask
+                    task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+                    task.setAssignedTo(String.valueOf(random.nextInt(8)));
+                    store.update(task);
+                    break;
+                case 1:
+                    task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+                    store.update(task);
+                    break;
+                case 2:
+                    store.remove(task.getId());
+                    break;
+                default:
+                    store.add(TaskFixtures.task(10_000 + i, 8));
+                    break;
+            }
+        }
+
+        List<Task> all = store.getAll();
+        for (TaskStatus status : TaskStatus.values()) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : all) {
+                if (task.getStatus() == status) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, store.getByStatus(status));
+            assertEquals(expected.size(), store.countByStatus(status));
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : all) {
+                if (task.getPriority() == priority) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, store.getByPriority(priority));
+        }
+        for (int user = 0; user < 8; user++) {
+            String userId = String.valueOf(user);
+            List<Task> assigned = new ArrayList<>();
+            List<Task> created = new ArrayList<>();
+            for (Task task : all) {
+                if (userId.equals(task.getAssignedTo())) {
+                    assigned.add(task);
+                }
+                if (userId.equals(task.getCreatedBy())) {
+                    created.add(task);
+                }
+            }
+            assertEquals(assigned, store.getByAssignee(userId));
+            assertEquals(assigned.size(), store.countByAssignee(userId));
+            assertEquals(created, store.getByCreator(userId));
+        }
+    }
+}
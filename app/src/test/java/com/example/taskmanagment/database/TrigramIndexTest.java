@@ -0,0 +1,48 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Recherche par trigrammes comparée au filtre par sous-chaîne du titre et de la description
+ */
+public class TrigramIndexTest {
+
+    @Test
+    public void trigramSearchMatchesSubstringScan() {
+        List<Task> tasks = TaskFixtures.tasks(2_000);
+        TaskStore store = new TaskStore(tasks);
+
+        Task edited = tasks.get(7);
+        edited.setTitle("Réunion TRIMESTRIELLE budget");
+        store.update(edited);
+        store.remove(tasks.get(8).getId());
+
+        String[] queries = {"a", "bu", "budget", "Budget #1", "trimestr", "<détails>", " & ",
+                "ion tri", "introuvable", "audit #19", "e"};
+        for (String query : queries) {
+            String q = query.toLowerCase(Locale.ROOT);
+            List<Task> expected = new ArrayList<>();
+            for (Task task : store.getAll()) {
+                if (task.getTitle().toLowerCase(Locale.ROOT).contains(q)
+                        || task.getDescription().toLowerCase(Locale.ROOT).contains(q)) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(query, expected, store.searchText(query));
+        }
+
+        // L'ancien titre n'est plus indexé
+        assertFalse(store.searchText("réunion trimestrielle").isEmpty());
+        assertFalse(store.searchText(edited.getTitle()).isEmpty());
+    }
+}
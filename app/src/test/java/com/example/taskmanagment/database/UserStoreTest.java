@@ -0,0 +1,81 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.models.UserType;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Annuaire des utilisateurs (nom d'utilisateur, email, types) au fil des mutations
+ */
+public class UserStoreTest {
+
+    @Test
+    public void directoryFollowsMutations() {
+        List<User> users = TaskFixtures.users(100);
+        UserStore store = new UserStore(users);
+
+        assertSame(users.get(7), store.getByUsername("USER_7"));
+        assertSame(users.get(7), store.getByEmail("User7@Company.com"));
+        assertNull(store.getByUsername("user_100"));
+        assertNull(store.getByUsername(null));
+        assertEquals(1, store.countByType(UserType.ADMIN));
+        assertEquals(99, store.countByType(UserType.EMPLOYEE));
+
+        // Modification en place puis updateUser
+        User promoted = users.get(3);
+        promoted.setUsername("chef_equipe");
+        promoted.setEmail("chef@company.com");
+        promoted.setUserType(UserType.ADMIN);
+        store.update(promoted);
+
+        assertNull(store.getByUsername("user_3"));
+        assertNull(store.getByEmail("user3@company.com"));
+        assertSame(promoted, store.getByUsername("Chef_Equipe"));
+        assertSame(promoted, store.getByEmail("CHEF@company.com"));
+        assertEquals(2, store.countByType(UserType.ADMIN));
+        assertEquals(store.getAll().get(0), store.getByType(UserType.ADMIN).get(0));
+        assertSame(promoted, store.getByType(UserType.ADMIN).get(1));
+
+        store.remove(promoted.getId());
+        assertNull(store.getByUsername("chef_equipe"));
+        assertEquals(1, store.countByType(UserType.ADMIN));
+        assertEquals(98, store.getByType(UserType.EMPLOYEE).size());
+    }
+
+    @Test
+    public void caseVariantUsernamesAreBothFound() {
+        List<User> users = TaskFixtures.users(3);
+        User upper = users.get(1);
+        upper.setUsername("Admin");
+        upper.setEmail("Chef@company.com");
+        User lower = users.get(2);
+        lower.setUsername("admin");
+        lower.setEmail("chef@company.com");
+        UserStore store = new UserStore(users);
+
+        // Casse exacte d'abord, sinon le premier inséré
+        assertSame(upper, store.getByUsername("Admin"));
+        assertSame(lower, store.getByUsername("admin"));
+        assertSame(upper, store.getByUsername("ADMIN"));
+        assertSame(upper, store.getByEmail("Chef@company.com"));
+        assertSame(lower, store.getByEmail("chef@company.com"));
+
+        // Retirer l'une des variantes laisse l'autre indexée
+        store.remove(upper.getId());
+        assertSame(lower, store.getByUsername("Admin"));
+        assertSame(lower, store.getByEmail("CHEF@company.com"));
+        store.add(upper);
+        lower.setUsername("admin2");
+        store.update(lower);
+        assertSame(upper, store.getByUsername("admin"));
+        assertSame(lower, store.getByUsername("admin2"));
+    }
+}
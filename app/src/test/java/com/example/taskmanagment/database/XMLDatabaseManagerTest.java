@@ -0,0 +1,260 @@
+package com.example.taskmanagment.database;
+
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.utils.ValidationCertificate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Gestionnaire XML sur un répertoire temporaire : mutations du cache, journal et snapshots,
+ * relus par une seconde instance comme au redémarrage de l'application
+ */
+public class XMLDatabaseManagerTest {
+
+    private File filesDir;
+
+    @Before
+    public void setUp() throws Exception {
+        filesDir = DatabaseFixtures.newFilesDir();
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseFixtures.deleteRecursively(filesDir);
+    }
+
+    @Test
+    public void reassignTaskLoadedFromCache() {
+        XMLDatabaseManager manager = DatabaseFixtures.open(filesDir);
+        TaskDAO taskDAO = new TaskDAO(manager);
+
+        Task cached = taskDAO.getTaskById("1");
+        assertNotNull(cached);
+        assertTrue(cached.isFrozen());
+        assertEquals("2", cached.getAssignedTo());
+
+        assertTrue(taskDAO.reassignTask("1", "3"));
+        assertEquals("3", taskDAO.getTaskById("1").getAssignedTo());
+        // L'instance déjà lue reste inchangée
+        assertEquals("2", cached.getAssignedTo());
+        assertTrue(containsTask(taskDAO.getTasksByUser("3"), "1"));
+
+        assertTrue(manager.flush());
+        Task reloaded = new TaskDAO(DatabaseFixtures.open(filesDir)).getTaskById("1");
+        assertEquals("3", reloaded.getAssignedTo());
+    }
+
+    @Test
+    public void invalidProfileUpdateLeavesCachedUserUnchanged() {
+        XMLDatabaseManager manager = DatabaseFixtures.open(filesDir);
+        UserDAO userDAO = new UserDAO(manager);
+
+        User cached = userDAO.getUserById("2");
+        assertTrue(cached.isFrozen());
+        assertEquals("employee1@company.com", cached.getEmail());
+
+        // Email refusé par le schéma : ni le cache ni users.xml ne changent
+        assertFalse(userDAO.updateUserProfile("2", "pas-un-email", "Employé Un"));
+        assertEquals("employee1@company.com", userDAO.getUserById("2").getEmail());
+
+        // Les écritures suivantes de users.xml ne sont pas bloquées
+        assertTrue(userDAO.updateUserProfile("2", "employe.un@company.com", "Employé Un"));
+        assertTrue(manager.flush());
+
+        User reloaded = new UserDAO(DatabaseFixtures.open(filesDir)).getUserById("2");
+        assertEquals("employe.un@company.com", reloaded.getEmail());
+        assertEquals("Employé Un", reloaded.getFullName());
+        assertTrue(reloaded.isFrozen());
+    }
+
+    @Test
+    public void invalidReplayedTasksAreDropped() throws Exception {
+        XMLDatabaseManager manager = DatabaseFixtures.open(filesDir);
+        Task original = manager.getTaskById("1");
+        int count = manager.getTaskCount();
+
+        // Journal écrit avant la validation en mémoire : une modification et un ajout invalides
+        TaskJournal journal = new TaskJournal(filesDir, "tasks.journal");
+        journal.replay(new HashMap<String, Task>());
+        Task invalidUpdate = original.copy();
+        invalidUpdate.setTitle("");
+        Task invalidNew = original.copy();
+        invalidNew.setId("99");
+        invalidNew.setTitle("x");
+        Task validNew = original.copy();
+        validNew.setId("100");
+        journal.appendPut(invalidUpdate);
+        journal.appendPut(invalidNew);
+        journal.appendPut(validNew);
+        journal.sync();
+        journal.close();
+
+        XMLDatabaseManager restarted = DatabaseFixtures.open(filesDir);
+        assertEquals(original.getTitle(), restarted.getTaskById("1").getTitle());
+        assertNull(restarted.getTaskById("99"));
+        assertNotNull(restarted.getTaskById("100"));
+        assertEquals(count + 1, restarted.getTaskCount());
+
+        // Les mutations suivantes s'enregistrent normalement
+        assertTrue(new TaskDAO(restarted).reassignTask("100", "4"));
+        assertTrue(restarted.flush());
+        assertEquals("4", DatabaseFixtures.open(filesDir).getTaskById("100").getAssignedTo());
+    }
+
+    @Test
+    public void snapshotRecoveredFromTempFileIsCertified() {
+        int count = DatabaseFixtures.open(filesDir).getTaskCount();
+
+        // Crash entre les deux renommages : seul le temporaire synchronisé reste
+        File tasksFile = new File(filesDir, "tasks.xml");
+        assertTrue(tasksFile.renameTo(new File(filesDir, "tasks.xml.tmp")));
+
+        assertEquals(count, DatabaseFixtures.open(filesDir).getTaskCount());
+        assertTrue(tasksFile.exists());
+        File certificateFile = new File(filesDir, "tasks.xml.cert");
+        ValidationCertificate certificate = ValidationCertificate.read(certificateFile);
+        assertNotNull(certificate);
+        assertEquals(tasksFile.length(), certificate.getSize());
+
+        // Second chargement : fichier certifié, relu sans validation XSD (certificat non réécrit)
+        assertTrue(certificateFile.setLastModified(1_000_000L));
+        assertEquals(count, DatabaseFixtures.open(filesDir).getTaskCount());
+        assertEquals(1_000_000L, certificateFile.lastModified());
+    }
+
+    @Test
+    public void caseVariantUsersBothAuthenticate() throws Exception {
+        // users.xml édité à la main : "Admin" à côté de "admin" (addUser refuse ce doublon)
+        String users = new String(Files.readAllBytes(new File("src/main/res/raw/users.xml").toPath()), "UTF-8");
+        users = users.replace("</users>", "    <user>\n"
+                + "        <id>5</id>\n"
+                + "        <username>Admin</username>\n"
+                + "        <password>autre_secret</password>\n"
+                + "        <userType>EMPLOYEE</userType>\n"
+                + "        <email>Admin@company.com</email>\n"
+                + "        <fullName>Admin Homonyme</fullName>\n"
+                + "        <createdDate>1704067200000</createdDate>\n"
+                + "    </user>\n</users>");
+        Files.write(new File(filesDir, "users.xml").toPath(), users.getBytes("UTF-8"));
+
+        UserDAO userDAO = new UserDAO(DatabaseFixtures.open(filesDir));
+        assertEquals("1", userDAO.authenticate("admin", "admin123").getId());
+        assertEquals("5", userDAO.authenticate("Admin", "autre_secret").getId());
+        assertNull(userDAO.authenticate("ADMIN", "admin123"));
+        assertEquals("1", userDAO.getUserByEmail("admin@company.com").getId());
+        assertEquals("5", userDAO.getUserByEmail("Admin@company.com").getId());
+
+        // Supprimer l'un laisse l'autre joignable
+        assertTrue(userDAO.deleteUser("1"));
+        assertEquals("5", userDAO.getUserByEmail("ADMIN@company.com").getId());
+        assertNull(userDAO.getUserByUsername("admin"));
+        assertTrue(userDAO.usernameExists("admin"));
+    }
+
+    @Test
+    public void unreadableJournalIsNeverCompacted() throws Exception {
+        Task original = DatabaseFixtures.open(filesDir).getTaskById("1");
+
+        // Génération 1 : un ajout durable, puis un enregistrement intact mais illisible
+        TaskJournal journal = new TaskJournal(filesDir, "tasks.journal");
+        journal.replay(new HashMap<String, Task>());
+        Task added = original.copy();
+        added.setId("100");
+        journal.appendPut(added);
+        journal.sync();
+        journal.close();
+        File firstGeneration = new File(filesDir, "tasks.journal.1");
+        appendRecord(firstGeneration, new byte[]{9});
+        long firstLength = firstGeneration.length();
+
+        XMLDatabaseManager restarted = DatabaseFixtures.open(filesDir);
+        restarted.setCompactionThreshold(0);
+        assertNull(restarted.getTaskById("100"));
+
+        // Les nouvelles mutations vont dans une génération suivante ; rien n'est compacté
+        assertTrue(new TaskDAO(restarted).reassignTask("1", "4"));
+        assertTrue(restarted.flush());
+        assertEquals(firstLength, firstGeneration.length());
+        assertTrue(new File(filesDir, "tasks.journal.2").length() > 0);
+    }
+
+    @Test
+    public void mutationsAreCoalescedUntilMaxDirtyOrDelay() throws Exception {
+        XMLDatabaseManager manager = DatabaseFixtures.open(filesDir);
+        TaskDAO taskDAO = new TaskDAO(manager);
+        File journal = new File(filesDir, "tasks.journal.1");
+
+        // Lot complet : validé sans attendre le délai
+        manager.setWriteBehind(60_000, 3);
+        assertTrue(taskDAO.reassignTask("1", "3"));
+        assertTrue(taskDAO.reassignTask("2", "4"));
+        assertEquals(0, journal.length());
+        assertTrue(taskDAO.reassignTask("3", "4"));
+        assertTrue(manager.requestFlush().get());
+        assertEquals(3, journaledRecords());
+
+        // Lot incomplet : validé d'un bloc à l'échéance du délai
+        manager.setWriteBehind(200, 100);
+        long committed = journal.length();
+        assertTrue(taskDAO.reassignTask("4", "2"));
+        assertTrue(taskDAO.reassignTask("5", "3"));
+        assertEquals(committed, journal.length());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (journal.length() == committed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(5, journaledRecords());
+
+        Task reloaded = DatabaseFixtures.open(filesDir).getTaskById("5");
+        assertEquals("3", reloaded.getAssignedTo());
+    }
+
+    private int journaledRecords() throws IOException {
+        TaskJournal journal = new TaskJournal(filesDir, "tasks.journal");
+        try {
+            return journal.replay(new HashMap<String, Task>()).records;
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Enregistrement au format du journal ([longueur][crc32][contenu])
+     */
+    private static void appendRecord(File file, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file, true))) {
+            out.writeInt(payload.length);
+            out.writeInt((int) crc.getValue());
+            out.write(payload);
+        }
+    }
+
+    private static boolean containsTask(List<Task> tasks, String taskId) {
+        for (Task task : tasks) {
+            if (task.getId().equals(taskId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.taskmanagment.utils;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskPriority;
+import com.example.taskmanagment.models.TaskStatus;
+import com.example.taskmanagment.models.User;
+import com.example.taskmanagment.models.UserType;
+
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Random;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Le validateur en mémoire, construit depuis les XSD de l'application, doit accepter et
+ * refuser exactement les mêmes enregistrements que la validation XSD du fichier écrit
+ */
+public class RecordValidatorTest {
+
+    static final File TASKS_SCHEMA = new File("src/main/res/raw/tasks_schema.xml");
+    private static final File USERS_SCHEMA = new File("src/main/res/raw/users_schema.xml");
+
+    private static final String[] TEXTS = {
+            "", "ab", "abc", "Réunion", "0123456789", "Préparer la démo client",
+            "tab\there", "ligne\r\nsuivante", "contrôle\u0001\u0002abc", "x < y & z > 0",
+            "émoji 😀😀", "user_42", "bad name", "a@b.c", "a@b", "@b.c", "a@.c", "prenom.nom@exemple.fr",
+    };
+
+    @Test
+    public void taskValidatorAgreesWithXsd() throws Exception {
+        RecordValidator validator = load(TASKS_SCHEMA, "task");
+        Schema schema = compile(TASKS_SCHEMA);
+        Random random = new Random(53);
+
+        int rejected = 0;
+        for (int i = 0; i < 2_000; i++) {
+            Task task = TaskFixtures.task(i, 20);
+            switch (random.nextInt(6)) {
+                case 0:
+                    task.setTitle(text(random));
+                    break;
+                case 1:
+                    task.setDescription(random.nextBoolean() ? text(random) : repeat('d', 995 + random.nextInt(10)));
+                    break;
+                case 2:
+                    task.setTitle(random.nextBoolean() ? null : repeat('t', 198 + random.nextInt(5)));
+                    break;
+                case 3:
+                    task.setStatus(random.nextInt(5) == 0 ? null : TaskStatus.values()[random.nextInt(4)]);
+                    task.setPriority(random.nextInt(5) == 0 ? null : TaskPriority.values()[random.nextInt(4)]);
+                    break;
+                case 4:
+                    task.setCompletedDate(random.nextBoolean() ? 0 : TaskFixtures.BASE_DATE);
+                    task.setAssignedTo(text(random));
+                    break;
+                default:
+                    // inchangée
+            }
+
+            String error = validator.validate(task, XMLWriter.TASK_FIELDS);
+            boolean valid = isValid(schema, out -> XMLWriter.writeTasks(out, Collections.singletonList(task), true));
+            assertEquals(task + " : " + error, valid, error == null);
+            rejected += valid ? 0 : 1;
+        }
+        // Le jeu couvre bien les deux cas
+        assertTrue(rejected > 100 && rejected < 1_900);
+    }
+
+    @Test
+    public void userValidatorAgreesWithXsd() throws Exception {
+        RecordValidator validator = load(USERS_SCHEMA, "user");
+        Schema schema = compile(USERS_SCHEMA);
+        Random random = new Random(59);
+
+        int rejected = 0;
+        for (int i = 0; i < 2_000; i++) {
+            User user = TaskFixtures.user(i);
+            switch (random.nextInt(5)) {
+                case 0:
+                    user.setUsername(random.nextBoolean() ? text(random) : repeat('u', 48 + random.nextInt(5)));
+                    break;
+                case 1:
+                    user.setPassword(text(random));
+                    break;
+                case 2:
+                    user.setEmail(text(random));
+                    break;
+                case 3:
+                    user.setUserType(random.nextInt(3) == 0 ? null : UserType.values()[random.nextInt(2)]);
+                    break;
+                default:
+                    // inchangé
+            }
+
+            String error = validator.validate(user, XMLWriter.USER_FIELDS);
+            boolean valid = isValid(schema, out -> XMLWriter.writeUsers(out, Collections.singletonList(user), true));
+            assertEquals(user + " : " + error, valid, error == null);
+            rejected += valid ? 0 : 1;
+        }
+        assertTrue(rejected > 100 && rejected < 1_900);
+    }
+
+    @Test
+    public void unsupportedSchemaIsRefused() throws Exception {
+        String schema = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+                + "<xs:element name=\"task\" type=\"T\"/>"
+                + "<xs:complexType name=\"T\"><xs:sequence>"
+                + "<xs:element name=\"due\" type=\"xs:date\"/>"
+                + "</xs:sequence></xs:complexType></xs:schema>";
+        try {
+            RecordValidator.fromSchema(new ByteArrayInputStream(schema.getBytes("UTF-8")), "task");
+            fail("xs:date n'est pas pris en charge : la validation du fichier doit rester");
+        } catch (IllegalArgumentException expected) {
+            // attendu
+        }
+    }
+
+    private interface Content {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    private static boolean isValid(Schema schema, Content content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        content.writeTo(bytes);
+        try {
+            schema.newValidator().validate(new StreamSource(new ByteArrayInputStream(bytes.toByteArray())));
+            return true;
+        } catch (SAXException e) {
+            return false;
+        }
+    }
+
+    static RecordValidator load(File xsd, String recordElement) throws Exception {
+        try (InputStream in = new FileInputStream(xsd)) {
+            return RecordValidator.fromSchema(in, recordElement);
+        }
+    }
+
+    static Schema compile(File xsd) throws SAXException {
+        return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(xsd);
+    }
+
+    private static String text(Random random) {
+        return TEXTS[random.nextInt(TEXTS.length)];
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder text = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            text.append(c);
+        }
+        return text.toString();
+    }
+}
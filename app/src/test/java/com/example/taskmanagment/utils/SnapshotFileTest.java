@@ -0,0 +1,112 @@
+package com.example.taskmanagment.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Snapshot atomique sur un répertoire temporaire : génération précédente conservée en .bak,
+ * et ordre de récupération (courant, temporaire synchronisé, précédent) après un crash
+ */
+public class SnapshotFileTest {
+
+    private File directory;
+    private SnapshotFile snapshot;
+    private File base;
+    private File temp;
+    private File backup;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("snapshot").toFile();
+        base = new File(directory, "tasks.xml");
+        temp = new File(directory, "tasks.xml.tmp");
+        backup = new File(directory, "tasks.xml.bak");
+        snapshot = new SnapshotFile(base);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void finishWriteKeepsPreviousGeneration() throws Exception {
+        assertTrue(snapshot.isMissing());
+        assertEquals(Collections.emptyList(), snapshot.getRecoveryCandidates());
+
+        write("v1");
+        assertEquals("v1", read(base));
+        assertFalse(temp.exists());
+        assertFalse(backup.exists());
+
+        write("v2");
+        assertEquals("v2", read(base));
+        assertEquals("v1", read(backup));
+        assertFalse(temp.exists());
+        assertEquals(Arrays.asList(base, backup), snapshot.getRecoveryCandidates());
+
+        // Écriture abandonnée : fichier courant et précédent inchangés
+        FileOutputStream out = snapshot.startWrite();
+        out.write("v3".getBytes("UTF-8"));
+        snapshot.failWrite(out);
+        assertEquals("v2", read(base));
+        assertEquals("v1", read(backup));
+        assertFalse(temp.exists());
+    }
+
+    @Test
+    public void tempFileIsRecoveredOnlyWithoutBase() throws Exception {
+        write("v1");
+        write("v2");
+
+        // Crash pendant l'écriture du temporaire : il peut être incomplet, le courant fait foi
+        assertTrue(temp.createNewFile());
+        assertEquals(Arrays.asList(base, backup), snapshot.getRecoveryCandidates());
+
+        // Crash entre les deux renommages : le courant est devenu .bak, le temporaire est synchronisé
+        Files.write(temp.toPath(), "v3".getBytes("UTF-8"));
+        assertTrue(backup.delete());
+        assertTrue(base.renameTo(backup));
+        assertFalse(snapshot.isMissing());
+        assertEquals(Arrays.asList(temp, backup), snapshot.getRecoveryCandidates());
+
+        snapshot.restore(temp);
+        assertEquals("v3", read(base));
+        assertFalse(temp.exists());
+        assertEquals("v2", read(backup));
+        assertEquals(Arrays.asList(base, backup), snapshot.getRecoveryCandidates());
+
+        // Courant illisible : la génération précédente est recopiée et reste disponible
+        snapshot.restore(backup);
+        assertEquals("v2", read(base));
+        assertEquals("v2", read(backup));
+    }
+
+    private void write(String content) throws IOException {
+        FileOutputStream out = snapshot.startWrite();
+        out.write(content.getBytes("UTF-8"));
+        snapshot.finishWrite(out);
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+}
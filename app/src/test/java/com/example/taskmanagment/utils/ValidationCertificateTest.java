@@ -0,0 +1,115 @@
+package com.example.taskmanagment.utils;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Certificat de validation : relecture, détection d'un fichier modifié, et lecture certifiée
+ * (CRC en flux + XmlPullParser) identique à la lecture validée par le schéma XSD
+ */
+public class ValidationCertificateTest {
+
+    private static final File TASKS_SCHEMA = new File("src/main/res/raw/tasks_schema.xml");
+
+    @Test
+    public void certificateIsReadBack() throws IOException {
+        File file = File.createTempFile("tasks", ".xml.cert");
+        new ValidationCertificate(1234, 0xCAFEBABEL, 42).write(file);
+
+        ValidationCertificate certificate = ValidationCertificate.read(file);
+        assertNotNull(certificate);
+        assertEquals(1234, certificate.getSize());
+        assertEquals(0xCAFEBABEL, certificate.getContentCrc());
+        assertEquals(42, certificate.getSchemaCrc());
+
+        // Certificat tronqué ou absent : validation complète
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write("version=1\nsize=12".getBytes("UTF-8"));
+        }
+        assertNull(ValidationCertificate.read(file));
+        assertTrue(file.delete());
+        assertNull(ValidationCertificate.read(file));
+    }
+
+    @Test
+    public void modifiedFileNoLongerMatches() throws IOException {
+        File file = TaskFixtures.tasksXmlFile(200);
+        long crc = checksum(file);
+        ValidationCertificate certificate = new ValidationCertificate(file.length(), crc, 7);
+
+        assertTrue(certificate.mayMatch(file, 7));
+        assertTrue(certificate.matches(file.length(), crc, 7));
+        assertFalse(certificate.mayMatch(file, 8));
+
+        // Un octet changé, même taille : seul le CRC le détecte
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(file.length() / 2);
+            int b = raf.read();
+            raf.seek(file.length() / 2);
+            raf.write(b ^ 1);
+        }
+        assertTrue(certificate.mayMatch(file, 7));
+        assertFalse(certificate.matches(file.length(), checksum(file), 7));
+
+        // Fichier allongé : écarté sans le lire
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            out.write('\n');
+        }
+        assertFalse(certificate.mayMatch(file, 7));
+        file.delete();
+    }
+
+    @Test
+    public void certifiedReadMatchesValidatedRead() throws Exception {
+        File file = TaskFixtures.tasksXmlFile(1_000);
+
+        List<Task> validated = readValidated(file, compileSchema());
+        ValidationCertificate.ChecksumStream in = ValidationCertificate.open(file);
+        List<Task> certified = XMLParser.parseTasksXML(in);
+
+        assertEquals(checksum(file), in.finish());
+        assertEquals(validated.size(), certified.size());
+        for (int i = 0; i < validated.size(); i++) {
+            TaskFixtures.assertSameTask(validated.get(i), certified.get(i));
+        }
+        file.delete();
+    }
+
+    static Schema compileSchema() throws Exception {
+        return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(TASKS_SCHEMA);
+    }
+
+    static List<Task> readValidated(File file, Schema schema) throws Exception {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return XMLParser.parseTasksXML(in, schema);
+        }
+    }
+
+    private static long checksum(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return ValidationCertificate.checksum(in);
+        }
+    }
+}
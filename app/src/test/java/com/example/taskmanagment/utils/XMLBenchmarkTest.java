@@ -0,0 +1,231 @@
+package com.example.taskmanagment.utils;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.TaskStatus;
+
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Lecture et écriture en flux, validation en mémoire et lecture certifiée comparées
+ * au DOM et à la validation XSD complète qu'elles remplacent
+ * Les benchmarks ne tournent qu'avec : ./gradlew test -DrunBenchmarks=true
+ */
+public class XMLBenchmarkTest {
+
+    private static final int[] BENCHMARK_SIZES = {1_000, 100_000, 1_000_000};
+    private static final int WRITE_BENCHMARK_SIZE = 100_000;
+
+    @Test
+    public void benchmarkStreamingParseVersusDom() throws IOException {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        for (int size : BENCHMARK_SIZES) {
+            File file = TaskFixtures.tasksXmlFile(size);
+
+            // Échauffement du JIT
+            XMLParserTest.parseTasks(file, true);
+
+            long streamNanos = timeParse(file, true, size);
+            long domNanos;
+            try {
+                domNanos = timeParse(file, false, size);
+            } catch (OutOfMemoryError e) {
+                domNanos = -1;
+            }
+
+            System.out.println(String.format("parse %,d tasks (%,d KB): stream=%d ms, dom=%s",
+                    size, file.length() / 1024, streamNanos / 1_000_000,
+                    domNanos < 0 ? "OutOfMemoryError" : (domNanos / 1_000_000) + " ms"));
+
+            file.delete();
+        }
+    }
+
+    private static long timeParse(File file, boolean streaming, int expectedSize) throws IOException {
+        System.gc();
+        long start = System.nanoTime();
+        List<Task> tasks = XMLParserTest.parseTasks(file, streaming);
+        long elapsed = System.nanoTime() - start;
+        assertEquals(expectedSize, tasks.size());
+        return elapsed;
+    }
+
+    @Test
+    public void benchmarkStreamingWriteVersusDom() throws Exception {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        List<Task> tasks = TaskFixtures.tasks(WRITE_BENCHMARK_SIZE);
+        File file = File.createTempFile("tasks-write", ".xml");
+        file.deleteOnExit();
+
+        // Échauffement du JIT
+        save(file, tasks, Mode.STREAM_INDENTED);
+        save(file, tasks, Mode.DOM);
+
+        for (Mode mode : Mode.values()) {
+            System.gc();
+            resetPeakHeap();
+            long baseline = currentHeap();
+
+            long start = System.nanoTime();
+            save(file, tasks, mode);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println(String.format("save %,d tasks [%s]: %d ms, peak heap +%,d KB, file %,d KB",
+                    WRITE_BENCHMARK_SIZE, mode, elapsed / 1_000_000,
+                    Math.max(0, peakHeap() - baseline) / 1024, file.length() / 1024));
+        }
+    }
+
+    private enum Mode { DOM, STREAM_INDENTED, STREAM_COMPACT }
+
+    private static void save(File file, List<Task> tasks, Mode mode) throws Exception {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            if (mode == Mode.DOM) {
+                XMLWriter.writeTasksWithDOM(out, tasks);
+            } else {
+                XMLWriter.writeTasks(out, tasks, mode == Mode.STREAM_INDENTED);
+            }
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long currentHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    @Test
+    public void benchmarkSaveWithoutReadBack() throws Exception {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        final List<Task> tasks = TaskFixtures.tasks(100_000);
+        RecordValidator validator = RecordValidatorTest.load(RecordValidatorTest.TASKS_SCHEMA, "task");
+        Schema schema = RecordValidatorTest.compile(RecordValidatorTest.TASKS_SCHEMA);
+        File file = File.createTempFile("tasks", ".xml");
+        long sink = 0;
+
+        for (int round = 0; round < 3; round++) {
+            sink += saveAndValidate(tasks, file, schema) + saveTasks(tasks, file);
+        }
+
+        // Ancienne sauvegarde : écriture puis relecture avec validation XSD complète
+        long start = System.nanoTime();
+        sink += saveAndValidate(tasks, file, schema);
+        long validated = System.nanoTime() - start;
+
+        // Nouvelle : l'enregistrement modifié est validé en mémoire, puis une seule écriture
+        start = System.nanoTime();
+        Task changed = tasks.get(500).copy();
+        changed.setStatus(TaskStatus.COMPLETED);
+        assertNull(validator.validate(changed, XMLWriter.TASK_FIELDS));
+        sink += saveTasks(tasks, file);
+        long single = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            if (validator.validate(tasks.get(i), XMLWriter.TASK_FIELDS) != null) {
+                sink++;
+            }
+        }
+        long perRecord = (System.nanoTime() - start) / 100_000;
+
+        System.out.println(String.format("save 100,000 tasks (%,d KB): write + XSD read-back %d ms,"
+                        + " validate changed record + write %d ms; in-memory check %,d ns per record (%d)",
+                file.length() / 1024, validated / 1_000_000, single / 1_000_000, perRecord, sink % 10));
+        file.delete();
+    }
+
+    private static long saveTasks(List<Task> tasks, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            XMLWriter.writeTasks(out, tasks, true);
+        }
+        return file.length();
+    }
+
+    private static long saveAndValidate(List<Task> tasks, File file, Schema schema) throws Exception {
+        long length = saveTasks(tasks, file);
+        try (InputStream in = new FileInputStream(file)) {
+            schema.newValidator().validate(new StreamSource(in));
+        }
+        return length;
+    }
+
+    @Test
+    public void benchmarkCertifiedVersusFullValidation() throws Exception {
+        assumeTrue(TaskFixtures.benchmarksEnabled());
+
+        File file = TaskFixtures.tasksXmlFile(100_000);
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            sink += ValidationCertificateTest.readValidated(file, ValidationCertificateTest.compileSchema()).size()
+                    + readCertified(file).size();
+        }
+
+        // Démarrage actuel : compilation du schéma puis validation + parsing
+        long start = System.nanoTime();
+        sink += ValidationCertificateTest.readValidated(file, ValidationCertificateTest.compileSchema()).size();
+        long validated = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        sink += readCertified(file).size();
+        long certified = System.nanoTime() - start;
+
+        System.out.println(String.format("load 100,000 tasks (%,d KB): XSD validation %d ms, certified %d ms (%d)",
+                file.length() / 1024, validated / 1_000_000, certified / 1_000_000, sink % 10));
+        file.delete();
+    }
+
+    private static List<Task> readCertified(File file) throws IOException {
+        ValidationCertificate.ChecksumStream in = ValidationCertificate.open(file);
+        try {
+            List<Task> tasks = XMLParser.parseTasksXML(in);
+            in.finish();
+            return tasks;
+        } finally {
+            in.release();
+        }
+    }
+}
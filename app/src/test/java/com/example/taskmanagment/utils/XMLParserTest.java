@@ -0,0 +1,62 @@
+package com.example.taskmanagment.utils;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.User;
+
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * La lecture en flux (XmlPullParser) rend les mêmes enregistrements que l'ancienne lecture DOM
+ */
+public class XMLParserTest {
+
+    @Test
+    public void streamingParserMatchesDomParserForTasks() throws IOException {
+        File file = TaskFixtures.tasksXmlFile(1_000);
+
+        List<Task> dom = parseTasks(file, false);
+        List<Task> streamed = parseTasks(file, true);
+
+        assertEquals(1_000, streamed.size());
+        assertEquals(dom.size(), streamed.size());
+        for (int i = 0; i < dom.size(); i++) {
+            TaskFixtures.assertSameTask(dom.get(i), streamed.get(i));
+            TaskFixtures.assertSameTask(TaskFixtures.task(i, 50), streamed.get(i));
+        }
+    }
+
+    @Test
+    public void streamingParserMatchesDomParserForUsers() throws IOException {
+        File file = TaskFixtures.usersXmlFile(500);
+
+        List<User> dom;
+        List<User> streamed;
+        try (InputStream in = new FileInputStream(file)) {
+            dom = XMLParser.parseUsersXMLWithDOM(in);
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            streamed = XMLParser.parseUsersXML(in);
+        }
+
+        assertEquals(500, streamed.size());
+        for (int i = 0; i < dom.size(); i++) {
+            TaskFixtures.assertSameUser(dom.get(i), streamed.get(i));
+        }
+    }
+
+    static List<Task> parseTasks(File file, boolean streaming) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 64 * 1024)) {
+            return streaming ? XMLParser.parseTasksXML(in) : XMLParser.parseTasksXMLWithDOM(in);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskmanagment.utils;
+
+import com.example.taskmanagment.TaskFixtures;
+import com.example.taskmanagment.models.Task;
+import com.example.taskmanagment.models.User;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * L'écriture en flux respecte les schémas XSD et se relit à l'identique
+ */
+public class XMLWriterTest {
+
+    private static final File TASKS_SCHEMA = new File("src/main/res/raw/tasks_schema.xml");
+    private static final File USERS_SCHEMA = new File("src/main/res/raw/users_schema.xml");
+
+    @Test
+    public void indentedAndCompactTasksAreValidAndRoundTrip() throws Exception {
+        List<Task> tasks = TaskFixtures.tasks(1_000);
+        tasks.get(0).setTitle("Tâche <urgente> & \"spéciale\"\r");
+
+        for (boolean indent : new boolean[]{true, false}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            XMLWriter.writeTasks(out, tasks, indent);
+
+            validate(TASKS_SCHEMA, out.toByteArray());
+
+            List<Task> parsed = XMLParser.parseTasksXML(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals(tasks.size(), parsed.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                TaskFixtures.assertSameTask(tasks.get(i), parsed.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void usersAreValidAndRoundTrip() throws Exception {
+        List<User> users = TaskFixtures.users(200);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XMLWriter.writeUsers(out, users, true);
+
+        validate(USERS_SCHEMA, out.toByteArray());
+
+        List<User> parsed = XMLParser.parseUsersXML(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(users.size(), parsed.size());
+        for (int i = 0; i < users.size(); i++) {
+            TaskFixtures.assertSameUser(users.get(i), parsed.get(i));
+        }
+    }
+
+    private static void validate(File schemaFile, byte[] xml) throws Exception {
+        Schema schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                .newSchema(new StreamSource(schemaFile));
+        schema.newValidator().validate(new StreamSource(new ByteArrayInputStream(xml)));
+    }
+}